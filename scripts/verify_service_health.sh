@@ -3,10 +3,11 @@
 # This script is used by AWS CodeDeploy as an AfterAllowTraffic hook
 # to verify that the newly deployed application is healthy.
 
-# The service is expected to be available at medical-register-service on port 80
-# (as defined in k8s/service.yaml) and expose /actuator/health.
+# With the prod profile, /actuator/health is served on the management port 8081 only
+# (management.server.port), which the cluster-internal medical-register-management
+# Service publishes (see k8s/service.yaml).
 
-SERVICE_ENDPOINT="http://medical-register-service/actuator/health"
+SERVICE_ENDPOINT="http://medical-register-management:8081/actuator/health"
 MAX_ATTEMPTS=10
 SLEEP_DURATION=10 # seconds
 
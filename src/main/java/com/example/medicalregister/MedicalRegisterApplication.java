@@ -2,12 +2,19 @@ package com.example.medicalregister;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+
+import com.example.medicalregister.startup.StartupStepReport;
 
 @SpringBootApplication
 public class MedicalRegisterApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(MedicalRegisterApplication.class, args);
+		SpringApplication application = new SpringApplication(MedicalRegisterApplication.class);
+		if (StartupStepReport.isEnabled()) {
+			application.setApplicationStartup(new BufferingApplicationStartup(StartupStepReport.CAPACITY));
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,38 @@
+package com.example.medicalregister.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Message converters for the binary Jackson formats CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}),
+ * for clients that exchange many records and would rather not format and parse
+ * text. A client selects a format with the {@code Content-Type} of its request
+ * body and the {@code Accept} header; JSON stays the default.
+ * <p>
+ * Spring MVC would add both converters itself with a mapper of its own; these
+ * replace them with mappers from Spring Boot's builder, so the
+ * {@code spring.jackson.*} settings and the application's modules apply as to
+ * JSON, and a record has the same properties in every format. They do not
+ * write from {@link com.example.medicalregister.view.RecordJsonCache}, which
+ * holds JSON.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.medicalregister.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.thymeleaf.ITemplateEngine;
+
+import com.example.medicalregister.view.RecordJsonCache;
+import com.example.medicalregister.view.RecordsTableCache;
+import com.example.medicalregister.view.TemplateFragmentRenderer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletContext;
+
+/**
+ * Server-side caching of rendered page fragments and of the JSON of records
+ * returned by the API.
+ */
+@Configuration
+public class FragmentCacheConfig {
+
+    @Bean
+    public RecordsTableCache recordsTableCache(
+            @Value("${medical-register.fragment-cache.enabled:true}") boolean enabled,
+            @Value("${medical-register.fragment-cache.ttl:PT5M}") Duration ttl,
+            @Value("${medical-register.fragment-cache.max-characters:8000000}") long maxCharacters,
+            MeterRegistry registry) {
+        return new RecordsTableCache(enabled, ttl, maxCharacters, registry);
+    }
+
+    @Bean
+    public TemplateFragmentRenderer templateFragmentRenderer(ITemplateEngine templateEngine,
+            ApplicationContext applicationContext, ServletContext servletContext) {
+        return new TemplateFragmentRenderer(templateEngine, applicationContext, servletContext);
+    }
+
+    @Bean
+    public RecordJsonCache recordJsonCache(
+            @Value("${medical-register.json-cache.enabled:true}") boolean enabled,
+            @Value("${medical-register.json-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${medical-register.json-cache.idle-timeout:PT10M}") Duration idleTimeout,
+            MeterRegistry registry) {
+        return new RecordJsonCache(enabled, maxBytes, idleTimeout, registry);
+    }
+
+    /**
+     * Replaces Spring Boot's JSON message converter (which backs off when one
+     * is defined) with one whose mapper writes records from
+     * {@link RecordJsonCache}. The application's own {@link ObjectMapper} bean
+     * is left unchanged, so it still serializes every field as it is.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter cachingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+            RecordJsonCache recordJsonCache) {
+        return new MappingJackson2HttpMessageConverter(recordJsonCache.cachingCopyOf(objectMapper));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.medicalregister.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.medicalregister.idempotency.IdempotencyKeyCleaner;
+import com.example.medicalregister.idempotency.IdempotentRequests;
+import com.example.medicalregister.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code Idempotency-Key} support for the API's write endpoints.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotentRequests idempotentRequests(IdempotencyKeyRepository repository,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            @Value("${medical-register.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${medical-register.idempotency.lease:PT1M}") Duration lease,
+            @Value("${medical-register.idempotency.cache-max-bytes:16777216}") long cacheMaxBytes,
+            MeterRegistry registry) {
+        return new IdempotentRequests(repository, transactionManager, objectMapper, ttl, lease, cacheMaxBytes,
+                registry, Clock.systemUTC());
+    }
+
+    @Bean
+    public IdempotencyKeyCleaner idempotencyKeyCleaner(JdbcTemplate jdbcTemplate,
+            @Value("${medical-register.idempotency.cleanup-batch-size:500}") int batchSize,
+            @Value("${medical-register.idempotency.cleanup-max-batches:20}") int maxBatchesPerRun,
+            MeterRegistry registry) {
+        return new IdempotencyKeyCleaner(jdbcTemplate, batchSize, maxBatchesPerRun, registry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.medicalregister.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.medicalregister.session.CompressingSessionSerializer;
+import com.example.medicalregister.session.ExpiredSessionCleaner;
+import com.example.medicalregister.session.MeteredSessionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Opt-in HTTP session store in the application's database
+ * ({@code medical-register.session.store=jdbc}), so that any replica can serve
+ * any logged-in user. Replicas must share the database for this to help.
+ * <p>
+ * Sessions are stored with Spring Session's {@link JdbcIndexedSessionRepository}
+ * in the {@code SPRING_SESSION} tables (created on startup if missing), with
+ * attributes compressed by {@link CompressingSessionSerializer}. Reads and
+ * writes are timed by {@link MeteredSessionRepository}, and expired sessions
+ * are deleted in batches by {@link ExpiredSessionCleaner} instead of Spring
+ * Session's single cleanup statement.
+ * <p>
+ * Without the property, sessions stay in Tomcat's memory. Spring Boot's own
+ * session auto-configuration is excluded in {@code application.properties} so
+ * that adding Spring Session to the classpath does not switch stores on its
+ * own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "medical-register.session.store", havingValue = "jdbc")
+@EnableSpringHttpSession
+public class JdbcSessionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcSessionConfig.class);
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration sessionTimeout;
+
+    @Value("${medical-register.session.compression-threshold:512}")
+    private int compressionThreshold;
+
+    @Value("${medical-register.session.cleanup-batch-size:500}")
+    private int cleanupBatchSize;
+
+    @Value("${medical-register.session.cleanup-max-batches:20}")
+    private int cleanupMaxBatches;
+
+    @Value("${medical-register.session.initialize-schema:true}")
+    private boolean initializeSchema;
+
+    /**
+     * The session repository used by Spring Session's filter.
+     */
+    @Bean
+    public FindByIndexNameSessionRepository<? extends Session> sessionRepository(DataSource dataSource,
+            MeterRegistry registry) {
+        if (initializeSchema) {
+            createSchemaIfMissing(dataSource);
+        }
+        // Session writes commit independently of any application transaction, as
+        // in Spring Session's own configuration.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        CompressingSessionSerializer serializer = new CompressingSessionSerializer(getClass().getClassLoader(),
+                compressionThreshold, registry);
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(serializer));
+        conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(serializer));
+
+        JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(new JdbcTemplate(dataSource),
+                transactionTemplate);
+        repository.setDefaultMaxInactiveInterval(sessionTimeout);
+        repository.setConversionService(conversionService);
+        // Expired sessions are deleted in batches by ExpiredSessionCleaner
+        repository.setCleanupCron(Scheduled.CRON_DISABLED);
+        repository.afterPropertiesSet();
+
+        logger.info("HTTP sessions are stored in the database (timeout {}, compression from {} bytes).",
+                sessionTimeout, compressionThreshold);
+        return new MeteredSessionRepository<>(repository, registry);
+    }
+
+    @Bean
+    public ExpiredSessionCleaner expiredSessionCleaner(DataSource dataSource, MeterRegistry registry) {
+        return new ExpiredSessionCleaner(new JdbcTemplate(dataSource), cleanupBatchSize, cleanupMaxBatches,
+                registry);
+    }
+
+    /**
+     * Runs Spring Session's schema script for the database in use unless the
+     * {@code SPRING_SESSION} table already exists (e.g. in a persistent
+     * database after a restart).
+     */
+    private static void createSchemaIfMissing(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (ResultSet tables = connection.getMetaData().getTables(null, null, "SPRING_SESSION", null)) {
+                if (tables.next()) {
+                    return;
+                }
+            }
+            String platform = DatabaseDriver.fromJdbcUrl(connection.getMetaData().getURL()).getId();
+            ClassPathResource script = new ClassPathResource(
+                    "org/springframework/session/jdbc/schema-" + platform + ".sql");
+            logger.info("Creating session tables with {}.", script.getPath());
+            new ResourceDatabasePopulator(script).populate(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not initialize the session tables", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medicalregister.config;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates each request from the {@value #USER_HEADER} header, so that
+ * many concurrent virtual users can drive the application without going
+ * through the Auth0 login flow. Unlike {@code TestLoginController}, nothing is
+ * stored in the HTTP session: every request carries its own identity.
+ * <p>
+ * Only added to the security filter chain under the "loadtest" profile.
+ * DO NOT ENABLE IN PRODUCTION.
+ */
+public class LoadTestAuthenticationFilter extends OncePerRequestFilter {
+
+    /**
+     * Request header carrying the virtual user's 'sub' claim.
+     */
+    public static final String USER_HEADER = "X-Load-Test-User";
+
+    private static final Set<GrantedAuthority> AUTHORITIES = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String sub = request.getHeader(USER_HEADER);
+        if (sub != null && !sub.isBlank()) {
+            OAuth2User principal = new DefaultOAuth2User(AUTHORITIES, Map.of("sub", sub, "name", sub), "sub");
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new OAuth2AuthenticationToken(principal, AUTHORITIES, "auth0"));
+            SecurityContextHolder.setContext(context);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.medicalregister.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.service.NameSuggestionIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory name suggestion index, built per owner from their record names.
+ */
+@Configuration
+public class NameSuggestionConfig {
+
+    @Bean
+    public NameSuggestionIndex nameSuggestionIndex(MedicalRecordRepository medicalRecordRepository,
+            @Value("${medical-register.suggestions.max-bytes:33554432}") long maxBytes,
+            @Value("${medical-register.suggestions.idle-timeout:PT15M}") Duration idleTimeout,
+            MeterRegistry registry) {
+        return new NameSuggestionIndex(medicalRecordRepository::findNamesByOwnerId, maxBytes, idleTimeout, registry);
+    }
+}
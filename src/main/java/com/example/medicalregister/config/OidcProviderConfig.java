@@ -0,0 +1,200 @@
+package com.example.medicalregister.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+
+import com.example.medicalregister.security.OidcProviderCache;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Auth0 client registration and JWT decoders built from the
+ * {@link OidcProviderCache}, instead of Spring Boot's, which fetch the
+ * provider metadata at startup and the keys on first use. The application can
+ * therefore start and validate tokens while Auth0 is slow or unreachable, as
+ * long as the cache file exists.
+ */
+@Configuration
+@EnableConfigurationProperties(OAuth2ClientProperties.class)
+public class OidcProviderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OidcProviderConfig.class);
+
+    @Value("${spring.security.oauth2.client.provider.auth0.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${medical-register.oidc.cache-dir:oidc-cache}")
+    private Path cacheDirectory;
+
+    @Value("${medical-register.oidc.refresh-interval:PT1H}")
+    private Duration refreshInterval;
+
+    @Value("${medical-register.oidc.min-refresh-interval:PT30S}")
+    private Duration minRefreshInterval;
+
+    @Value("${medical-register.oidc.timeout:PT5S}")
+    private Duration timeout;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.audiences:}")
+    private String[] jwtAudiences;
+
+    @Bean
+    public OidcProviderCache oidcProviderCache() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        OidcProviderCache cache = new OidcProviderCache(issuerUri, cacheDirectory,
+                RestClient.builder().requestFactory(requestFactory).build(), refreshInterval, minRefreshInterval);
+        cache.initialize();
+        return cache;
+    }
+
+    /**
+     * Client registrations from the {@code spring.security.oauth2.client.*}
+     * properties, with the provider endpoints taken from the cached discovery
+     * document. All registrations must use the cached (Auth0) issuer.
+     */
+    @Bean
+    public ClientRegistrationRepository clientRegistrationRepository(OAuth2ClientProperties properties,
+            OidcProviderCache cache) {
+        List<ClientRegistration> registrations = new ArrayList<>();
+        properties.getRegistration().forEach((registrationId, registration) -> {
+            String providerId = registration.getProvider() != null ? registration.getProvider() : registrationId;
+            OAuth2ClientProperties.Provider provider = properties.getProvider().get(providerId);
+            if (provider == null || !cache.getIssuerUri().equals(provider.getIssuerUri())) {
+                throw new IllegalStateException("Client registration '" + registrationId
+                        + "' must use the issuer " + cache.getIssuerUri());
+            }
+            registrations.add(clientRegistration(registrationId, registration, cache.configuration()));
+        });
+        return new InMemoryClientRegistrationRepository(registrations);
+    }
+
+    /**
+     * Mirrors {@code ClientRegistrations.fromIssuerLocation}, without the
+     * network request.
+     */
+    private static ClientRegistration clientRegistration(String registrationId,
+            OAuth2ClientProperties.Registration registration, Map<String, Object> metadata) {
+        ClientRegistration.Builder builder = ClientRegistration.withRegistrationId(registrationId)
+                .clientId(registration.getClientId())
+                .clientSecret(registration.getClientSecret())
+                .clientName(registration.getClientName() != null ? registration.getClientName() : registrationId)
+                .clientAuthenticationMethod(clientAuthenticationMethod(registration, metadata))
+                .authorizationGrantType(new AuthorizationGrantType(registration.getAuthorizationGrantType() != null
+                        ? registration.getAuthorizationGrantType()
+                        : AuthorizationGrantType.AUTHORIZATION_CODE.getValue()))
+                .redirectUri(registration.getRedirectUri() != null ? registration.getRedirectUri()
+                        : "{baseUrl}/{action}/oauth2/code/{registrationId}")
+                .scope(registration.getScope())
+                .userNameAttributeName(IdTokenClaimNames.SUB)
+                .issuerUri((String) metadata.get("issuer"))
+                .authorizationUri((String) metadata.get("authorization_endpoint"))
+                .tokenUri((String) metadata.get("token_endpoint"))
+                .userInfoUri((String) metadata.get("userinfo_endpoint"))
+                .jwkSetUri((String) metadata.get("jwks_uri"))
+                .providerConfigurationMetadata(metadata);
+        return builder.build();
+    }
+
+    private static ClientAuthenticationMethod clientAuthenticationMethod(
+            OAuth2ClientProperties.Registration registration, Map<String, Object> metadata) {
+        if (registration.getClientAuthenticationMethod() != null) {
+            return new ClientAuthenticationMethod(registration.getClientAuthenticationMethod());
+        }
+        Object supported = metadata.get("token_endpoint_auth_methods_supported");
+        if (supported instanceof Collection<?> methods
+                && !methods.contains(ClientAuthenticationMethod.CLIENT_SECRET_BASIC.getValue())
+                && methods.contains(ClientAuthenticationMethod.CLIENT_SECRET_POST.getValue())) {
+            return ClientAuthenticationMethod.CLIENT_SECRET_POST;
+        }
+        return ClientAuthenticationMethod.CLIENT_SECRET_BASIC; // Default when not advertised
+    }
+
+    /**
+     * Decoder for ID tokens received at login, with the keys from the cache and
+     * the same validation as Spring Security's {@link OidcIdTokenDecoderFactory}.
+     */
+    @Bean
+    public JwtDecoderFactory<ClientRegistration> idTokenDecoderFactory(OidcProviderCache cache) {
+        return clientRegistration -> {
+            NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor(cache));
+            decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(new JwtTimestampValidator(),
+                    new OidcIdTokenValidator(clientRegistration)));
+            decoder.setClaimSetConverter(
+                    new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+            return decoder;
+        };
+    }
+
+    /**
+     * Decoder for API bearer tokens (see
+     * {@code SecurityConfig#apiBearerTokenFilterChain}): RS256 signature with a
+     * key from the cache, issuer, expiry and audience.
+     *
+     * @throws IllegalStateException if no audience is configured: any access
+     *                               token of the tenant, issued for any of its
+     *                               APIs, would be accepted.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(OidcProviderCache cache) {
+        List<String> audiences = Arrays.stream(jwtAudiences).filter(audience -> !audience.isBlank()).toList();
+        if (audiences.isEmpty()) {
+            throw new IllegalStateException("No audience configured for API bearer tokens; set AUTH0_API_AUDIENCE "
+                    + "(spring.security.oauth2.resourceserver.jwt.audiences) to the Auth0 API identifier.");
+        }
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(JwtValidators.createDefaultWithIssuer(cache.getIssuerUri()));
+        validators.add(new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                aud -> aud != null && aud.stream().anyMatch(audiences::contains)));
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor(cache));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+        logger.info("API bearer tokens: issuer {}, audiences {}.", cache.getIssuerUri(), audiences);
+        return decoder;
+    }
+
+    private static DefaultJWTProcessor<SecurityContext> jwtProcessor(OidcProviderCache cache) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, cache));
+        // Claims are validated by the OAuth2TokenValidators
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return processor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.medicalregister.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.medicalregister.ratelimit.EndpointClass;
+import com.example.medicalregister.ratelimit.OwnerRateLimiter;
+import com.example.medicalregister.ratelimit.RateLimit;
+import com.example.medicalregister.ratelimit.RateLimitFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-owner rate limiting of authenticated requests. The filter is added to
+ * the security filter chains by {@code SecurityConfig}, after the owner is
+ * resolved.
+ */
+@Configuration
+@ConditionalOnProperty(name = "medical-register.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public OwnerRateLimiter ownerRateLimiter(
+            @Value("${medical-register.rate-limit.read.per-second:20}") double readPerSecond,
+            @Value("${medical-register.rate-limit.read.burst:40}") int readBurst,
+            @Value("${medical-register.rate-limit.write.per-second:5}") double writePerSecond,
+            @Value("${medical-register.rate-limit.write.burst:10}") int writeBurst,
+            @Value("${medical-register.rate-limit.bulk.per-second:0.2}") double bulkPerSecond,
+            @Value("${medical-register.rate-limit.bulk.burst:2}") int bulkBurst,
+            @Value("${medical-register.rate-limit.max-owners:100000}") long maxOwners,
+            @Value("${medical-register.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+            MeterRegistry registry) {
+        return new OwnerRateLimiter(Map.of(
+                EndpointClass.READ, new RateLimit(readPerSecond, readBurst),
+                EndpointClass.WRITE, new RateLimit(writePerSecond, writeBurst),
+                EndpointClass.BULK, new RateLimit(bulkPerSecond, bulkBurst)), maxOwners, idleTimeout, registry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(OwnerRateLimiter ownerRateLimiter,
+            @Value("${medical-register.rate-limit.bulk-paths:/api/v1/records/batch/**}") List<String> bulkPaths) {
+        return new RateLimitFilter(ownerRateLimiter, bulkPaths);
+    }
+
+    /**
+     * The filter only works after authentication, so it must not also be
+     * registered as a servlet filter in front of the security filter chain.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.medicalregister.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.medicalregister.service.ReadCoalescer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Coalescing of identical concurrent record reads.
+ */
+@Configuration
+public class ReadCoalescingConfig {
+
+    @Bean
+    public ReadCoalescer readCoalescer(
+            @Value("${medical-register.read-coalescing.enabled:true}") boolean enabled,
+            MeterRegistry registry, PlatformTransactionManager transactionManager, EntityManager entityManager) {
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        return new ReadCoalescer(enabled, registry, readTransaction, entityManager);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.medicalregister.config;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.medicalregister.statistics.RecordStatistics;
+import com.example.medicalregister.statistics.RecordStatisticsReconciler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Incrementally maintained per-owner record statistics, and the job that
+ * reconciles them with the records.
+ */
+@Configuration
+public class RecordStatisticsConfig {
+
+    @Bean
+    public RecordStatistics recordStatistics(JdbcTemplate jdbcTemplate) {
+        // Record timestamps are local date-times in the JVM's zone
+        return new RecordStatistics(jdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    @Bean
+    public RecordStatisticsReconciler recordStatisticsReconciler(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, RecordStatistics recordStatistics,
+            @Value("${medical-register.statistics.reconcile-batch-size:100}") int ownersPerBatch,
+            MeterRegistry registry) {
+        return new RecordStatisticsReconciler(jdbcTemplate, new TransactionTemplate(transactionManager),
+                recordStatistics, ownersPerBatch, registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.medicalregister.config;
+
+import java.time.Clock;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.medicalregister.reporting.ReportingEngine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fleet-wide reporting engine, answering reports from a periodically refreshed
+ * in-memory snapshot of the records.
+ */
+@Configuration
+public class ReportingConfig {
+
+    @Bean
+    public ReportingEngine reportingEngine(DataSource dataSource,
+            @Value("${medical-register.reporting.fetch-size:1000}") int fetchSize,
+            @Value("${medical-register.reporting.parallelism:0}") int parallelism,
+            MeterRegistry registry) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize); // Stream the rows instead of buffering the whole table
+        return new ReportingEngine(ReportingEngine.jdbcLoader(jdbcTemplate),
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                Clock.systemDefaultZone(), registry);
+    }
+}
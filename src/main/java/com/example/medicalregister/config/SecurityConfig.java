@@ -5,23 +5,41 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.medicalregister.ratelimit.RateLimitFilter;
+import com.example.medicalregister.security.OwnerContextFilter;
+import com.example.medicalregister.security.WarmUpAuthenticationFilter;
+import com.example.medicalregister.startup.WarmUpToken;
+
 import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Configures web security for the application, including OAuth2 login with
- * Auth0, logout handling, CSRF protection, and access control rules.
+ * Auth0, logout handling, CSRF protection, and access control rules. REST API
+ * requests that carry a bearer token are handled by a separate, stateless
+ * filter chain that validates the token as a JWT.
  */
 @Configuration
 @EnableWebSecurity
@@ -35,27 +53,83 @@ public class SecurityConfig {
         @Value("${spring.security.oauth2.client.provider.auth0.issuer-uri}")
         private String issuerUri;
 
+        private final Environment environment;
+
+        public SecurityConfig(Environment environment) {
+                this.environment = environment;
+        }
+
         /**
          * Configures Spring Security to ignore requests to static resources. These
          * requests will bypass the security filter chain entirely for performance.
          */
         @Bean
         public WebSecurityCustomizer webSecurityCustomizer() {
-                logger.info("Configuring WebSecurityCustomizer to ignore static resources like webjars.");
+                logger.info("Configuring WebSecurityCustomizer to ignore static resources like webjars and scripts.");
                 return (web) -> web.ignoring().requestMatchers(
-                                "/webjars/**" // Static resources like webjars can bypass the security filter chain.
+                                "/webjars/**", // Static resources like webjars can bypass the security filter chain.
+                                "/js/**" // The application's own scripts (src/main/resources/static/js)
                 );
         }
 
+        /**
+         * Security filter chain for REST API requests with an
+         * {@code Authorization: Bearer} header. The token is validated as a JWT
+         * on every request: signature, issuer, expiry and audience, which is always
+         * required. No HTTP session is created or read, so API clients can be
+         * served by any replica. The owner is the token's 'sub' claim.
+         * <p>
+         * API requests without a bearer token fall through to the main chain
+         * (session from the OAuth2 login).
+         *
+         * @param http            HttpSecurity to configure.
+         * @param jwtDecoder      Decoder that validates bearer tokens (see
+         *                        {@code OidcProviderConfig}).
+         * @param rateLimitFilter Per-owner rate limit, if enabled.
+         * @return The configured SecurityFilterChain.
+         * @throws Exception if an error occurs during configuration.
+         */
+        @Bean
+        @Order(1)
+        public SecurityFilterChain apiBearerTokenFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                        ObjectProvider<RateLimitFilter> rateLimitFilter) throws Exception {
+                logger.info("Configuring stateless bearer-token SecurityFilterChain for /api/v1/**.");
+                RequestMatcher bearerToken = SecurityConfig::hasBearerToken;
+                http
+                                .securityMatcher(new AndRequestMatcher(new AntPathRequestMatcher("/api/v1/**"),
+                                                bearerToken))
+                                .authorizeHttpRequests(authorizeRequests -> authorizeRequests
+                                                .anyRequest().authenticated())
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                                .requestCache(AbstractHttpConfigurer::disable)
+                                // No cookies are used, so there is nothing for CSRF to protect
+                                .csrf(AbstractHttpConfigurer::disable)
+                                .oauth2ResourceServer(resourceServer -> resourceServer
+                                                .jwt(jwt -> jwt.decoder(jwtDecoder)))
+                                .addFilterAfter(new OwnerContextFilter(), AnonymousAuthenticationFilter.class);
+                rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, OwnerContextFilter.class));
+                return http.build();
+        }
+
+        private static boolean hasBearerToken(HttpServletRequest request) {
+                String authorization = request.getHeader("Authorization");
+                return authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7);
+        }
+
         /**
          * Defines the main security filter chain for HTTP requests.
          * 
-         * @param http HttpSecurity to configure.
+         * @param http            HttpSecurity to configure.
+         * @param warmUpToken     Token of the startup warm-up requests, if the
+         *                        warm-up is enabled.
+         * @param rateLimitFilter Per-owner rate limit, if enabled.
          * @return The configured SecurityFilterChain.
          * @throws Exception if an error occurs during configuration.
          */
         @Bean
-        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectProvider<WarmUpToken> warmUpToken,
+                        ObjectProvider<RateLimitFilter> rateLimitFilter) throws Exception {
                 logger.info("Configuring main SecurityFilterChain.");
                 http
                                 .authorizeHttpRequests(authorizeRequests -> {
@@ -65,8 +139,12 @@ public class SecurityConfig {
                                                                         "/h2-console/**" // Allow access to H2 console
                                                                                          // (intended for development)
                                         ).permitAll()
-                                                        // Allow unauthenticated access to the health endpoint
-                                                        .requestMatchers(EndpointRequest.to("health")).permitAll()
+                                                        // Allow unauthenticated access to the health endpoint and to
+                                                        // the Prometheus scrape endpoint (aggregate metrics only).
+                                                        // In production both are served on management.server.port,
+                                                        // which is not published outside the cluster.
+                                                        .requestMatchers(EndpointRequest.to("health", "prometheus"))
+                                                        .permitAll()
                                                         // Permit requests dispatched via FORWARD (e.g., to error pages)
                                                         // or ERROR.
                                                         // This is crucial for Spring Boot's default error handling to
@@ -83,10 +161,8 @@ public class SecurityConfig {
                                                         // Any other request must be authenticated.
                                                         .anyRequest().authenticated();
                                 })
-                                // For APIs, session management can often be stateless if using tokens (e.g.,
-                                // JWTs from client)
-                                // .sessionManagement(session ->
-                                // session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                                // API clients with a bearer token are handled statelessly by
+                                // apiBearerTokenFilterChain
                                 .oauth2Login(oauth2Login -> oauth2Login
                                                 .defaultSuccessUrl("/records", true) // Always redirect to records list
                                                                                      // after login
@@ -110,7 +186,25 @@ public class SecurityConfig {
                                 )
                                 // Allow H2 console to be embedded in a frame from the same origin (e.g., for
                                 // its own UI).
-                                .headers(headers -> headers.frameOptions(customizer -> customizer.sameOrigin()));
+                                .headers(headers -> headers.frameOptions(customizer -> customizer.sameOrigin()))
+                                // Resolve the owner ('sub', name, auditor) once per request, after
+                                // authentication, for the service, auditing and controllers.
+                                .addFilterAfter(new OwnerContextFilter(), AnonymousAuthenticationFilter.class);
+                // Throttle owners who exceed their request rate (see RateLimitConfig)
+                rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, OwnerContextFilter.class));
+
+                // Load tests authenticate virtual users per request from a header instead of
+                // the Auth0 login flow. Never active outside the "loadtest" profile.
+                if (environment.acceptsProfiles(Profiles.of("loadtest"))) {
+                        logger.warn("'loadtest' profile active: requests are authenticated from the {} header.",
+                                        LoadTestAuthenticationFilter.USER_HEADER);
+                        http.addFilterBefore(new LoadTestAuthenticationFilter(), AnonymousAuthenticationFilter.class);
+                }
+
+                // Warm-up requests before the instance is ready authenticate with a one-off
+                // token (see WarmUpRunner).
+                warmUpToken.ifAvailable(token -> http.addFilterBefore(new WarmUpAuthenticationFilter(token),
+                                AnonymousAuthenticationFilter.class));
 
                 return http.build();
         }
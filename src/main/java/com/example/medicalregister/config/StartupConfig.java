@@ -0,0 +1,86 @@
+package com.example.medicalregister.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.security.OidcProviderCache;
+import com.example.medicalregister.session.ExpiredSessionCleaner;
+import com.example.medicalregister.startup.StartupStepReport;
+import com.example.medicalregister.startup.WarmUpRunner;
+import com.example.medicalregister.startup.WarmUpToken;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Startup tuning: beans that stay eager under
+ * {@code spring.main.lazy-initialization}, the startup step report, schema
+ * backfills and the warm-up before the readiness probe succeeds.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    /**
+     * With lazy initialization, beans are created on first use instead of at
+     * startup. These must still be created at startup: the OIDC provider cache
+     * (loads the provider metadata and keys before the first login), scheduled
+     * tasks (scheduled when their bean is created) and meter binders (so that
+     * their meters exist from the first scrape).
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(OidcProviderCache.class, ExpiredSessionCleaner.class,
+                MeterBinder.class);
+    }
+
+    @Bean
+    public StartupStepReport startupStepReport(@Value("${medical-register.startup.report-steps:30}") int limit) {
+        return new StartupStepReport(limit);
+    }
+
+    /**
+     * Sets the name key of records stored before the name prefix filter
+     * existed: {@code ddl-auto=update} adds the column empty, and such records
+     * would never match a name filter.
+     */
+    @Bean
+    public ApplicationRunner nameKeyBackfill(MedicalRecordRepository medicalRecordRepository) {
+        return args -> {
+            int updated = medicalRecordRepository.backfillNameKeys();
+            if (updated > 0) {
+                logger.info("Backfilled the name key of {} medical records.", updated);
+            }
+        };
+    }
+
+    /**
+     * Token for the warm-up requests; its presence adds the
+     * {@code WarmUpAuthenticationFilter} to the main security filter chain.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "medical-register.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+    public WarmUpToken warmUpToken() {
+        return new WarmUpToken();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "medical-register.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+    public WarmUpRunner warmUpRunner(ConfigurableApplicationContext context, DataSource dataSource,
+            WarmUpToken warmUpToken, @Value("${medical-register.warm-up.iterations:200}") int iterations,
+            @Value("${medical-register.warm-up.time-budget:PT30S}") Duration timeBudget) {
+        return new WarmUpRunner(context, dataSource, warmUpToken, iterations, timeBudget);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.medicalregister.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.example.medicalregister.security.ResolvedOwnerArgumentResolver;
+
+/**
+ * Spring MVC customizations.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Static assets are requested through URLs that contain a hash of their
+     * content (e.g. {@code /js/records-table-<md5>.js}; links built with
+     * {@code @{...}} in templates are rewritten by Spring Boot's
+     * {@code ResourceUrlEncodingFilter}), so a changed file always gets a new
+     * URL and browsers and proxies may keep every response for a year without
+     * revalidating.
+     */
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic()
+            .immutable();
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new ResolvedOwnerArgumentResolver());
+    }
+
+    /**
+     * Replaces Spring Boot's default handlers for webjars and the application's
+     * scripts. Besides content-hashed URLs, a precompressed {@code .gz} copy of
+     * an asset (created by the build, see {@code pom.xml}) is served to clients
+     * that accept gzip.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        registry.addResourceHandler("/js/**")
+                .addResourceLocations("classpath:/static/js/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
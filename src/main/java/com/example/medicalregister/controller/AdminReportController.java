@@ -0,0 +1,67 @@
+package com.example.medicalregister.controller;
+
+import com.example.medicalregister.dto.FleetReport;
+import com.example.medicalregister.exception.InvalidQueryException;
+import com.example.medicalregister.reporting.ReportingEngine;
+import com.example.medicalregister.security.ResolvedOwner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RESTful API controller for fleet-wide reports over the records of all
+ * owners, for operations. Reports contain no record contents and no owner ids,
+ * but are restricted to the users whose 'sub' is listed in
+ * {@code medical-register.reporting.admin-subs}. All endpoints are relative to
+ * /api/v1/admin/reports.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reports")
+public class AdminReportController {
+
+    public static final int MAX_MONTHS = 120;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminReportController.class);
+    private final ReportingEngine reportingEngine;
+    private final Set<String> adminSubs;
+
+    public AdminReportController(ReportingEngine reportingEngine,
+            @Value("${medical-register.reporting.admin-subs:}") List<String> adminSubs) {
+        this.reportingEngine = reportingEngine;
+        this.adminSubs = Set.copyOf(adminSubs);
+    }
+
+    /**
+     * Returns the age distribution, record growth and distribution percentiles
+     * of all records, from the reporting snapshot (which may be up to one
+     * refresh interval old).
+     * GET /api/v1/admin/reports/fleet?months=12
+     *
+     * @param months The number of months of growth, 1 to {@value #MAX_MONTHS}.
+     * @param owner  The authenticated user, resolved once per request.
+     * @return The report, 403 if the user is not an administrator, or 400 if
+     *         {@code months} is out of range.
+     */
+    @GetMapping("/fleet")
+    public ResponseEntity<FleetReport> getFleetReport(@RequestParam(defaultValue = "12") int months,
+            ResolvedOwner owner) {
+        if (owner.sub() == null || !adminSubs.contains(owner.sub())) {
+            throw new AccessDeniedException("Reports are restricted to administrators.");
+        }
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new InvalidQueryException("The number of months must be between 1 and " + MAX_MONTHS + ".");
+        }
+        logger.info("API: Administrator {} requested the fleet report for {} months.", owner.displayName(), months);
+        return ResponseEntity.ok(reportingEngine.report(months));
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.medicalregister.controller;
 
+import com.example.medicalregister.service.MedicalRecordService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
@@ -13,12 +18,30 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class HomeController {
 
+    private static final Logger logger = LoggerFactory.getLogger(HomeController.class);
+
+    /**
+     * Days of activity shown on the dashboard panel.
+     */
+    static final int DASHBOARD_DAYS = 14;
+
+    private final MedicalRecordService recordService;
+
     @Value("${spring.h2.console.enabled:false}") // Default to false if not set
     private boolean h2ConsoleEnabled;
 
+    /**
+     * @param recordService Provides the statistics of the dashboard panel.
+     */
+    public HomeController(MedicalRecordService recordService) {
+        this.recordService = recordService;
+    }
+
     /**
      * Handles requests to the root URL ("/"). Populates the model with user
-     * authentication status and H2 console availability.
+     * authentication status and H2 console availability, and for an
+     * authenticated user, the statistics of their records (read from the
+     * maintained summary, so the page view does not scan the records).
      *
      * @param model     The Spring MVC model to add attributes to.
      * @param principal The authenticated user details (OAuth2User), or null if not
@@ -32,6 +55,12 @@ public class HomeController {
             // Use "User" as a fallback if name attribute is missing
             model.addAttribute("userName", name != null ? name : "User");
             model.addAttribute("isAuthenticated", true);
+            try {
+                model.addAttribute("statistics", recordService.getStatistics(DASHBOARD_DAYS));
+            } catch (AccessDeniedException e) {
+                // No 'sub' claim, so no records: the panel is not shown
+                logger.debug("No statistics for user without 'sub' claim: {}", e.getMessage());
+            }
         } else {
             model.addAttribute("isAuthenticated", false);
         }
@@ -1,6 +1,14 @@
 package com.example.medicalregister.controller;
 
+import com.example.medicalregister.dto.PageEnvelope;
+import com.example.medicalregister.dto.RecordBatchRequest;
+import com.example.medicalregister.dto.RecordFields;
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.idempotency.IdempotentRequests;
+import com.example.medicalregister.logging.LogMarkers;
 import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.security.ResolvedOwner;
 import com.example.medicalregister.service.MedicalRecordService;
 
 import jakarta.validation.Valid;
@@ -11,19 +19,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 /**
  * RESTful API controller for managing medical records. Handles CRUD operations
@@ -36,74 +45,191 @@ public class MedicalRecordApiController {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicalRecordApiController.class);
     private final MedicalRecordService recordService;
+    private final IdempotentRequests idempotentRequests;
 
-    public MedicalRecordApiController(MedicalRecordService recordService) {
+    public MedicalRecordApiController(MedicalRecordService recordService, IdempotentRequests idempotentRequests) {
         this.recordService = recordService;
+        this.idempotentRequests = idempotentRequests;
     }
 
-    private String getUserName(OAuth2User principal) {
-        if (principal == null) {
+    private String getUserName(ResolvedOwner owner) {
+        if (!owner.oauth2User()) {
             return "Unknown User";
         }
-        return principal.getAttribute("name") != null ? principal.getAttribute("name") : "User";
+        return owner.displayName();
     }
 
     /**
-     * Retrieves all medical records for the authenticated user.
+     * Retrieves the medical records of the authenticated user, optionally
+     * filtered on one column (see {@link RecordFilter}).
      * GET /api/v1/records
      * Supports pagination and sorting via Pageable (e.g.,
-     * ?page=0&size=10&sort=name,asc)
+     * ?page=0&size=10&sort=name,asc), filters (e.g., ?ageMin=18&ageMax=65,
+     * ?name=smi or ?createdFrom=2025-01-01T00:00:00) and sparse fieldsets (e.g.,
+     * ?fields=name,age; see {@link RecordFields}).
      *
-     * @param principal The authenticated OAuth2User.
+     * @param owner     The authenticated user, resolved once per request.
      * @param pageable  Pagination and sorting information.
-     * @return A {@link Page} of medical records.
+     * @param filter    The filter from the query parameters.
+     * @param fields    The properties to return; if absent, all of them.
+     * @return A page of medical records (see {@link PageEnvelope}), or 400 if
+     *         the filter cannot be executed or a field is unknown.
      */
     @GetMapping
-    public ResponseEntity<Page<MedicalRecord>> listRecords(@AuthenticationPrincipal OAuth2User principal,
-            @PageableDefault(size = 3) Pageable pageable) {
-        String userName = getUserName(principal);
-        logger.info("API: User {} attempting to list records with pageable: {}.", userName, pageable);
-        Page<MedicalRecord> records = recordService.findAllRecords(pageable);
-        return ResponseEntity.ok(records);
+    public ResponseEntity<PageEnvelope<?>> listRecords(ResolvedOwner owner,
+            @PageableDefault(size = 3) Pageable pageable, RecordFilter filter,
+            @RequestParam(required = false) String fields) {
+        String userName = getUserName(owner);
+        RecordFields recordFields = RecordFields.parse(fields);
+        logger.info(LogMarkers.ACCESS, "API: User {} attempting to list records with pageable: {} and filter: {}.",
+                userName, pageable, filter.filteredColumns());
+        if (!recordFields.isAll()) {
+            return ResponseEntity.ok(PageEnvelope.of(recordService.findRecordFields(filter, pageable, recordFields)));
+        }
+        Page<MedicalRecord> records = filter.isEmpty() ? recordService.findAllRecords(pageable)
+                : recordService.findRecords(filter, pageable);
+        return ResponseEntity.ok(PageEnvelope.of(records));
+    }
+
+    /**
+     * Retrieves several medical records of the authenticated user by their IDs,
+     * with one query. IDs that are not found are left out.
+     * GET /api/v1/records/by-ids?ids=1,2,3
+     * Supports sparse fieldsets like {@link #listRecords}.
+     *
+     * @param ids    The IDs (1 to {@value RecordBatchRequest#MAX_RECORDS}).
+     * @param fields The properties to return; if absent, all of them.
+     * @param owner  The authenticated user, resolved once per request.
+     * @return The records found, in the order of {@code ids}, or 400 if there
+     *         are no IDs or too many, or a field is unknown.
+     */
+    @GetMapping("/by-ids")
+    public ResponseEntity<List<?>> getRecordsByIds(@RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String fields, ResolvedOwner owner) {
+        RecordFields recordFields = RecordFields.parse(fields);
+        logger.info(LogMarkers.ACCESS, "API: User {} attempting to retrieve {} records by ID.", getUserName(owner),
+                ids == null ? 0 : ids.size());
+        if (!recordFields.isAll()) {
+            return ResponseEntity.ok(recordService.findRecordFieldsByIds(ids, recordFields));
+        }
+        return ResponseEntity.ok(recordService.findRecordsByIds(ids));
+    }
+
+    /**
+     * Suggests names of the authenticated user's records that start with a
+     * prefix, ignoring case, for type-ahead on name fields. Served from an
+     * in-memory index, not a database query per keystroke.
+     * GET /api/v1/records/suggest?prefix=smi&limit=10
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit  The maximum number of names (1 to
+     *               {@value MedicalRecordService#MAX_SUGGESTIONS}, default 10).
+     * @param owner  The authenticated user, resolved once per request.
+     * @return The distinct matching names, in alphabetical order, or 400 if the
+     *         prefix or limit is out of range.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestNames(@RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit, ResolvedOwner owner) {
+        logger.debug("API: User {} requested name suggestions.", getUserName(owner));
+        return ResponseEntity.ok(recordService.suggestNames(prefix, limit));
+    }
+
+    /**
+     * Retrieves aggregates of the authenticated user's records: their number,
+     * an age histogram and the records created and last updated per day. Read
+     * from a summary maintained with every write, not computed per request.
+     * GET /api/v1/records/stats?days=30
+     *
+     * @param days  The number of days of activity, up to and including today
+     *              (1 to {@value MedicalRecordService#MAX_STATISTICS_DAYS},
+     *              default 30).
+     * @param owner The authenticated user, resolved once per request.
+     * @return The aggregates, or 400 if the number of days is out of range.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<RecordStatisticsSummary> getStatistics(@RequestParam(defaultValue = "30") int days,
+            ResolvedOwner owner) {
+        logger.debug("API: User {} requested record statistics.", getUserName(owner));
+        return ResponseEntity.ok(recordService.getStatistics(days));
     }
 
     /**
      * Creates a new medical record.
      * POST /api/v1/records
+     * With an {@code Idempotency-Key} header, a retry of the request gets the
+     * original response instead of creating the record again (see
+     * {@link IdempotentRequests}).
      *
-     * @param medicalRecord The medical record data from the request body.
-     * @param principal     The authenticated OAuth2User.
+     * @param medicalRecord  The medical record data from the request body.
+     * @param idempotencyKey Optional client-chosen key identifying the request.
+     * @param owner          The authenticated user, resolved once per request.
      * @return ResponseEntity with the created record and 201 status, or error
      *         status.
      */
     @PostMapping
-    public ResponseEntity<MedicalRecord> createRecord(@Valid @RequestBody MedicalRecord medicalRecord,
-            @AuthenticationPrincipal OAuth2User principal) {
-        String userName = getUserName(principal);
+    public ResponseEntity<?> createRecord(@Valid @RequestBody MedicalRecord medicalRecord,
+            @RequestHeader(name = IdempotentRequests.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            ResolvedOwner owner) {
+        String userName = getUserName(owner);
         logger.info("API: User {} attempting to create a new record.", userName);
-        MedicalRecord savedRecord = recordService.saveRecord(medicalRecord); // Assumes service sets ownerId
-        logger.info("API: User {} created a record with ID: {}.", userName, savedRecord.getId());
-
-        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(savedRecord.getId())
-                .toUri();
-        return ResponseEntity.created(location).body(savedRecord);
+        return idempotentRequests.execute(owner.sub(), idempotencyKey, "POST /api/v1/records", medicalRecord, () -> {
+            MedicalRecord savedRecord = recordService.saveRecord(medicalRecord); // Assumes service sets ownerId
+            logger.info("API: User {} created a record with ID: {}.", userName, savedRecord.getId());
+
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(savedRecord.getId())
+                    .toUri();
+            return ResponseEntity.created(location).body(savedRecord);
+        });
+    }
+
+    /**
+     * Creates or updates several medical records in one transaction.
+     * POST /api/v1/records/batch
+     * Supports an {@code Idempotency-Key} header like
+     * {@link #createRecord(MedicalRecord, String, ResolvedOwner)}.
+     *
+     * @param batch          The records; those with an id are updates.
+     * @param idempotencyKey Optional client-chosen key identifying the request.
+     * @param owner          The authenticated user, resolved once per request.
+     * @return ResponseEntity with the saved records and 200 status, or error
+     *         status.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveRecords(@Valid @RequestBody RecordBatchRequest batch,
+            @RequestHeader(name = IdempotentRequests.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            ResolvedOwner owner) {
+        String userName = getUserName(owner);
+        logger.info("API: User {} attempting to save a batch of {} records.", userName, batch.records().size());
+        return idempotentRequests.execute(owner.sub(), idempotencyKey, "POST /api/v1/records/batch", batch, () -> {
+            List<MedicalRecord> savedRecords = recordService.saveRecords(batch.records());
+            logger.info("API: User {} saved a batch of {} records.", userName, savedRecords.size());
+            return ResponseEntity.ok(savedRecords);
+        });
     }
 
     /**
      * Retrieves a specific medical record by its ID.
      * GET /api/v1/records/{id}
+     * Supports sparse fieldsets like {@link #listRecords}.
      *
      * @param id        The ID of the record to retrieve.
-     * @param principal The authenticated OAuth2User.
+     * @param fields    The properties to return; if absent, all of them.
+     * @param owner     The authenticated user, resolved once per request.
      * @return ResponseEntity with the record or 404 if not found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MedicalRecord> getRecordById(@PathVariable Long id,
-            @AuthenticationPrincipal OAuth2User principal) {
-        String userName = getUserName(principal);
-        logger.info("API: User {} attempting to retrieve record ID: {}.", userName, id);
+    public ResponseEntity<?> getRecordById(@PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            ResolvedOwner owner) {
+        String userName = getUserName(owner);
+        RecordFields recordFields = RecordFields.parse(fields);
+        logger.info(LogMarkers.ACCESS, "API: User {} attempting to retrieve record ID: {}.", userName, id);
+        if (!recordFields.isAll()) {
+            return ResponseEntity.ok(recordService.findRecordFieldsById(id, recordFields));
+        }
         MedicalRecord record = recordService.findRecordById(id); // Throws RecordNotFound or AccessDenied
         return ResponseEntity.ok(record);
     }
@@ -114,14 +240,14 @@ public class MedicalRecordApiController {
      *
      * @param id            The ID of the record to update.
      * @param recordDetails The updated medical record data.
-     * @param principal     The authenticated OAuth2User.
+     * @param owner         The authenticated user, resolved once per request.
      * @return ResponseEntity with the updated record or error status.
      */
     @PutMapping("/{id}")
     public ResponseEntity<MedicalRecord> updateRecord(@PathVariable Long id,
             @Valid @RequestBody MedicalRecord recordDetails,
-            @AuthenticationPrincipal OAuth2User principal) {
-        String userName = getUserName(principal);
+            ResolvedOwner owner) {
+        String userName = getUserName(owner);
         logger.info("API: User {} attempting to update record ID: {}.", userName, id);
         // Ensure the ID in the path matches the ID in the body, or set it.
         // The service layer should verify ownership and existence.
@@ -136,13 +262,13 @@ public class MedicalRecordApiController {
      * DELETE /api/v1/records/{id}
      *
      * @param id        The ID of the record to delete.
-     * @param principal The authenticated OAuth2User.
+     * @param owner     The authenticated user, resolved once per request.
      * @return ResponseEntity with 204 No Content or error status.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRecord(@PathVariable Long id,
-            @AuthenticationPrincipal OAuth2User principal) {
-        String userName = getUserName(principal);
+            ResolvedOwner owner) {
+        String userName = getUserName(owner);
         logger.info("API: User {} attempting to delete record ID: {}.", userName, id);
         recordService.deleteRecordById(id); // Throws RecordNotFound or AccessDenied
         logger.info("API: User {} successfully deleted record ID: {}.", userName, id);
@@ -1,11 +1,21 @@
 package com.example.medicalregister.controller;
 
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.exception.InvalidQueryException;
 import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.logging.LogMarkers;
 import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.security.ResolvedOwner;
 import com.example.medicalregister.service.MedicalRecordService;
+import com.example.medicalregister.view.RecordsTableCache;
+import com.example.medicalregister.view.TemplateFragmentRenderer;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,9 +25,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -26,6 +35,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -38,15 +48,28 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class MedicalRecordWebController {
 
     private static final Logger logger = LoggerFactory.getLogger(MedicalRecordWebController.class);
+
+    /**
+     * Response header with the success message of an in-place update.
+     */
+    public static final String SUCCESS_MESSAGE_HEADER = "X-Success-Message";
+
     private final MedicalRecordService recordService;
+    private final RecordsTableCache recordsTableCache;
+    private final TemplateFragmentRenderer fragmentRenderer;
 
     /**
      * Constructs the controller with a {@link MedicalRecordService}.
      * 
-     * @param recordService Service for medical record operations.
+     * @param recordService     Service for medical record operations.
+     * @param recordsTableCache Cache of the rendered records table.
+     * @param fragmentRenderer  Renders the records table on a cache miss.
      */
-    public MedicalRecordWebController(MedicalRecordService recordService) {
+    public MedicalRecordWebController(MedicalRecordService recordService, RecordsTableCache recordsTableCache,
+            TemplateFragmentRenderer fragmentRenderer) {
         this.recordService = recordService;
+        this.recordsTableCache = recordsTableCache;
+        this.fragmentRenderer = fragmentRenderer;
     }
 
     /**
@@ -54,66 +77,53 @@ public class MedicalRecordWebController {
      * controller. This method is invoked before any @GetMapping or @PostMapping
      * handler in this class.
      * 
-     * @param model     The Spring MVC model.
-     * @param principal The authenticated OAuth2User. Assumed to be non-null as
-     *                  requests to this controller are secured.
+     * @param model The Spring MVC model.
+     * @param owner The authenticated user, resolved once per request. Requests to
+     *              this controller are secured, so the user is authenticated.
      */
     @ModelAttribute
-    public void addUserInfoToModel(Model model, @AuthenticationPrincipal OAuth2User principal) {
-        // For controllers secured by .anyRequest().authenticated(), principal should
-        // not be null. If it were, Spring Security would have intercepted the request.
-        String name = principal.getAttribute("name");
-        model.addAttribute("userName", name != null ? name : "User");
+    public void addUserInfoToModel(Model model, ResolvedOwner owner) {
+        model.addAttribute("userName", owner.displayName());
         // User is confirmed to be authenticated to reach any mapping in this
         // controller.
         model.addAttribute("isAuthenticated", true);
-        logger.debug("User '{}' is authenticated and accessing a medical record view.", name != null ? name : "User");
+        logger.debug("User '{}' is authenticated and accessing a medical record view.", owner.displayName());
     }
 
     /**
-     * Displays a list of medical records for the authenticated user.
+     * Displays a list of medical records for the authenticated user. The records
+     * table is rendered separately and served from the {@link RecordsTableCache}
+     * until one of the user's records changes. A filter that cannot be executed
+     * is shown as an error above the unfiltered list.
      * 
      * @param model              The Spring MVC model.
      * @param pageable           Pagination and sorting information from request
      *                           parameters.
+     * @param filter             The filter from request parameters, also shown
+     *                           in the filter form.
      * @param redirectAttributes Used for flash messages on redirect.
+     * @param owner              The authenticated user.
+     * @param request            The current request, for rendering the table.
+     * @param response           The current response, for rendering the table.
      * @return The view name for listing records, or redirects to home on access
      *         denial.
      */
     @GetMapping
     public String listRecords(Model model, @PageableDefault(size = 3) Pageable pageable,
-            RedirectAttributes redirectAttributes) {
+            @ModelAttribute("filter") RecordFilter filter, RedirectAttributes redirectAttributes, ResolvedOwner owner,
+            HttpServletRequest request, HttpServletResponse response) {
         String userName = (String) model.getAttribute("userName");
         try {
-            logger.info("User {} attempting to list records with pageable: {}.", userName, pageable);
-            Page<MedicalRecord> recordPage = recordService.findAllRecords(pageable);
-            model.addAttribute("recordPage", recordPage);
-
-            // Prepare sort parameters for pagination links
-            Sort sort = recordPage.getPageable().getSort();
-            if (sort.isSorted()) {
-                List<String> sortParams = sort.stream()
-                        .map(order -> order.getProperty() + "," + order.getDirection().toString().toLowerCase())
-                        .collect(Collectors.toList());
-                model.addAttribute("sortParamsForPagination", sortParams);
-            } else {
-                model.addAttribute("sortParamsForPagination", null);
-            }
-
-            // Pagination window logic
-            int totalPages = recordPage.getTotalPages();
-            model.addAttribute("totalPages", totalPages); // Make totalPages directly available if needed elsewhere
-            if (totalPages > 0) {
-                int currentPage = recordPage.getNumber(); // 0-indexed
-                int pageWindowSize = 5;
-
-                int calculatedStartPage = Math.max(0, currentPage - pageWindowSize / 2);
-                int calculatedEndPage = Math.min(totalPages - 1, calculatedStartPage + pageWindowSize - 1);
-                // Re-adjust startPage if endPage was capped and window is smaller than desired
-                calculatedStartPage = Math.max(0, calculatedEndPage - pageWindowSize + 1);
-
-                model.addAttribute("startPage", calculatedStartPage);
-                model.addAttribute("endPage", calculatedEndPage);
+            logger.info(LogMarkers.ACCESS, "User {} attempting to list records with pageable: {} and filter: {}.",
+                    userName, pageable, filter.filteredColumns());
+            try {
+                model.addAttribute("recordsTable",
+                        renderRecordsTable(model, pageable, filter, owner, request, response));
+            } catch (InvalidQueryException e) {
+                logger.warn("User {} requested a filter that cannot be executed: {}", userName, e.getMessage());
+                model.addAttribute("errorMessage", e.getMessage());
+                model.addAttribute("recordsTable",
+                        renderRecordsTable(model, pageable, RecordFilter.NONE, owner, request, response));
             }
         } catch (AccessDeniedException e) {
             logger.warn("Access denied for user {} while listing records: {}", userName, e.getMessage());
@@ -123,6 +133,29 @@ public class MedicalRecordWebController {
         return "records/list-records";
     }
 
+    /**
+     * Returns the records table fragment alone, for in-page sorting and
+     * pagination on the record list.
+     * 
+     * @param model    The Spring MVC model.
+     * @param pageable Pagination and sorting information from request
+     *                 parameters.
+     * @param filter   The filter from request parameters.
+     * @param owner    The authenticated user.
+     * @param request  The current request, for rendering the table.
+     * @param response The current response, for rendering the table.
+     * @return The rendered table and pagination.
+     */
+    @GetMapping(value = "/table", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public String recordsTable(Model model, @PageableDefault(size = 3) Pageable pageable,
+            @ModelAttribute("filter") RecordFilter filter, ResolvedOwner owner, HttpServletRequest request,
+            HttpServletResponse response) {
+        logger.info(LogMarkers.ACCESS, "User {} requested the records table with pageable: {} and filter: {}.",
+                owner.displayName(), pageable, filter.filteredColumns());
+        return renderRecordsTable(model, pageable, filter, owner, request, response);
+    }
+
     /**
      * Shows the form for creating a new medical record.
      * 
@@ -133,7 +166,7 @@ public class MedicalRecordWebController {
     public String showCreateForm(Model model) {
         String userName = (String) model.getAttribute("userName");
         model.addAttribute("record", new MedicalRecord());
-        logger.info("User {} is accessing the new record form.", userName);
+        logger.info(LogMarkers.ACCESS, "User {} is accessing the new record form.", userName);
         return "records/record-form";
     }
 
@@ -190,7 +223,7 @@ public class MedicalRecordWebController {
         String userName = (String) model.getAttribute("userName");
         try {
             MedicalRecord record = recordService.findRecordById(id);
-            logger.info("User {} is accessing edit form for record ID: {}.", userName, id);
+            logger.info(LogMarkers.ACCESS, "User {} is accessing edit form for record ID: {}.", userName, id);
             model.addAttribute("record", record);
             return "records/record-form";
         } catch (RecordNotFoundException e) {
@@ -233,4 +266,107 @@ public class MedicalRecordWebController {
         }
         return "redirect:/records";
     }
+
+    /**
+     * Deletes a medical record from the record list and returns the updated
+     * records table, so the list is updated in place without a redirect. If the
+     * deleted record was the only one on the last page, the new last page is
+     * returned. The success message is sent in the
+     * {@value #SUCCESS_MESSAGE_HEADER} header; errors are handled by
+     * {@link com.example.medicalregister.exception.GlobalApiExceptionHandler}.
+     * 
+     * @param id       The ID of the record to delete.
+     * @param model    The Spring MVC model.
+     * @param pageable The page of the list the record was deleted from.
+     * @param filter   The filter of the list the record was deleted from.
+     * @param owner    The authenticated user.
+     * @param request  The current request, for rendering the table.
+     * @param response The current response, for rendering the table.
+     * @return The rendered table and pagination.
+     */
+    @PostMapping(value = "/delete/{id}", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public String deleteRecordInPlace(@PathVariable("id") Long id, Model model,
+            @PageableDefault(size = 3) Pageable pageable, @ModelAttribute("filter") RecordFilter filter,
+            ResolvedOwner owner, HttpServletRequest request, HttpServletResponse response) {
+        logger.info("User {} attempting to delete record ID {} from the record list.", owner.displayName(), id);
+        recordService.deleteRecordById(id);
+        response.setHeader(SUCCESS_MESSAGE_HEADER, "Record successfully deleted.");
+
+        String table = renderRecordsTable(model, pageable, filter, owner, request, response);
+        Page<?> recordPage = (Page<?>) model.getAttribute("recordPage");
+        if (recordPage.isEmpty() && recordPage.getTotalPages() > 0) {
+            table = renderRecordsTable(model, pageable.withPage(recordPage.getTotalPages() - 1), filter, owner,
+                    request, response);
+        }
+        return table;
+    }
+
+    /**
+     * Adds the page of records and its pagination window to the model, and
+     * returns the rendered records table, from the {@link RecordsTableCache} if
+     * the user's records have not changed since it was rendered.
+     */
+    private String renderRecordsTable(Model model, Pageable pageable, RecordFilter filter, ResolvedOwner owner,
+            HttpServletRequest request, HttpServletResponse response) {
+        // Read before the records, so a write committed in between is not masked
+        RecordsTableCache.Key tableKey = recordsTableCache.key(owner.sub(), pageable, filter);
+        Page<MedicalRecord> recordPage = filter.isEmpty() ? recordService.findAllRecords(pageable)
+                : recordService.findRecords(filter, pageable);
+        model.addAttribute("recordPage", recordPage);
+        // Appended to the sort and pagination links, so they keep the filter
+        model.addAttribute("filterQuery", filterQuery(filter));
+
+        // Prepare sort parameters for pagination links
+        Sort sort = recordPage.getPageable().getSort();
+        if (sort.isSorted()) {
+            List<String> sortParams = sort.stream()
+                    .map(order -> order.getProperty() + "," + order.getDirection().toString().toLowerCase())
+                    .collect(Collectors.toList());
+            model.addAttribute("sortParamsForPagination", sortParams);
+        } else {
+            model.addAttribute("sortParamsForPagination", null);
+        }
+
+        // Pagination window logic
+        int totalPages = recordPage.getTotalPages();
+        model.addAttribute("totalPages", totalPages); // Make totalPages directly available if needed elsewhere
+        if (totalPages > 0) {
+            int currentPage = recordPage.getNumber(); // 0-indexed
+            int pageWindowSize = 5;
+
+            int calculatedStartPage = Math.max(0, currentPage - pageWindowSize / 2);
+            int calculatedEndPage = Math.min(totalPages - 1, calculatedStartPage + pageWindowSize - 1);
+            // Re-adjust startPage if endPage was capped and window is smaller than desired
+            calculatedStartPage = Math.max(0, calculatedEndPage - pageWindowSize + 1);
+
+            model.addAttribute("startPage", calculatedStartPage);
+            model.addAttribute("endPage", calculatedEndPage);
+        }
+
+        return recordsTableCache.get(tableKey,
+                () -> fragmentRenderer.render("records/records-table", model.asMap(), request, response));
+    }
+
+    /**
+     * @return The filter's query parameters, each preceded by {@code &}.
+     */
+    private static String filterQuery(RecordFilter filter) {
+        StringBuilder query = new StringBuilder();
+        appendParameter(query, "ageMin", filter.ageMin());
+        appendParameter(query, "ageMax", filter.ageMax());
+        appendParameter(query, "name", filter.name());
+        appendParameter(query, "createdFrom", filter.createdFrom());
+        appendParameter(query, "createdTo", filter.createdTo());
+        appendParameter(query, "updatedFrom", filter.updatedFrom());
+        appendParameter(query, "updatedTo", filter.updatedTo());
+        return query.toString();
+    }
+
+    private static void appendParameter(StringBuilder query, String name, Object value) {
+        if (value != null) {
+            query.append('&').append(name).append('=')
+                    .append(URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.medicalregister.datagen;
+
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.medicalregister.statistics.RecordStatisticsReconciler;
+
+/**
+ * Populates the configured datasource with a synthetic dataset, recomputes the
+ * record statistics of its owners (the rows are inserted with SQL, bypassing
+ * the incrementally maintained summary) and then shuts the application down.
+ * Only active with the {@code datagen} profile, e.g.
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=datagen \
+ *     -Dspring-boot.run.arguments="--datagen.rows=1000000 --datagen.owners=5000"
+ * </pre>
+ */
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGeneratorRunner.class);
+
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+    private final RecordStatisticsReconciler statisticsReconciler;
+
+    @Value("${datagen.rows:10000}")
+    private long rows;
+
+    @Value("${datagen.owners:100}")
+    private int owners;
+
+    @Value("${datagen.owner-skew:1.1}")
+    private double ownerSkew;
+
+    @Value("${datagen.owner-prefix:datagen|owner-}")
+    private String ownerPrefix;
+
+    @Value("${datagen.median-history-length:160}")
+    private int medianHistoryLength;
+
+    @Value("${datagen.max-history-length:20000}")
+    private int maxHistoryLength;
+
+    @Value("${datagen.span-days:1095}")
+    private int spanDays;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.epoch:2025-01-01T00:00:00}")
+    private String epoch;
+
+    @Value("${datagen.workers:4}")
+    private int workers;
+
+    /** Hikari's default if not configured. */
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${datagen.exit:true}")
+    private boolean exitWhenDone;
+
+    public DatasetGeneratorRunner(DataSource dataSource, ConfigurableApplicationContext context,
+            RecordStatisticsReconciler statisticsReconciler) {
+        this.dataSource = dataSource;
+        this.context = context;
+        this.statisticsReconciler = statisticsReconciler;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are more workers than pooled
+     *                                  connections: the extra workers would
+     *                                  only wait for a connection, and the
+     *                                  reported throughput would measure that
+     *                                  wait.
+     */
+    @Override
+    public void run(String... args) {
+        if (workers > maximumPoolSize) {
+            throw new IllegalArgumentException("datagen.workers=" + workers
+                    + " exceeds spring.datasource.hikari.maximum-pool-size=" + maximumPoolSize
+                    + "; each worker holds one connection, so lower the workers or raise the pool size.");
+        }
+        DatasetSpec spec = new DatasetSpec(rows, owners, ownerSkew, ownerPrefix, medianHistoryLength,
+                maxHistoryLength, spanDays, seed, workers, batchSize);
+        long inserted = new SyntheticDatasetGenerator(dataSource).generate(spec, LocalDateTime.parse(epoch));
+        int corrected = statisticsReconciler.reconcile();
+        logger.info("Synthetic dataset ready: {} rows ({} record statistics updated).", inserted, corrected);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.medicalregister.datagen;
+
+/**
+ * Shape of a synthetic {@code MedicalRecord} dataset.
+ *
+ * @param rows                Total number of records to generate.
+ * @param owners              Number of distinct owners ('sub' values).
+ * @param ownerSkew           Zipf exponent of records per owner. 0 spreads
+ *                            records evenly; around 1.0 a handful of owners
+ *                            hold a large share while most have only a few.
+ * @param ownerPrefix         Prefix of generated owner ids; owner {@code i} is
+ *                            {@code ownerPrefix + i}.
+ * @param medianHistoryLength Median length, in characters, of
+ *                            {@code medicalHistory}; lengths are log-normally
+ *                            distributed (long tail).
+ * @param maxHistoryLength    Upper bound on {@code medicalHistory} length.
+ * @param spanDays            Creation timestamps are spread over this many days
+ *                            before now.
+ * @param seed                Seed; the same seed always produces the same rows.
+ * @param workers             Number of parallel insert workers (each holds one
+ *                            connection).
+ * @param batchSize           Rows per JDBC batch and per commit.
+ */
+public record DatasetSpec(long rows, int owners, double ownerSkew, String ownerPrefix, int medianHistoryLength,
+        int maxHistoryLength, int spanDays, long seed, int workers, int batchSize) {
+
+    public DatasetSpec {
+        if (rows < 0 || owners < 1 || ownerSkew < 0 || medianHistoryLength < 1
+                || maxHistoryLength < medianHistoryLength || spanDays < 1 || workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid dataset spec: " + ownerPrefix + ", rows=" + rows
+                    + ", owners=" + owners + ", skew=" + ownerSkew + ", workers=" + workers + ", batchSize="
+                    + batchSize);
+        }
+    }
+
+    /**
+     * @param rows  Total number of records.
+     * @param owners Number of distinct owners.
+     * @param seed  Seed.
+     * @return A spec with defaults for everything else.
+     */
+    public static DatasetSpec of(long rows, int owners, long seed) {
+        return new DatasetSpec(rows, owners, 1.1, "datagen|owner-", 160, 20_000, 3 * 365, seed,
+                Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), 1_000);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.medicalregister.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.medicalregister.model.MedicalRecord;
+
+/**
+ * Bulk-loads synthetic rows into the {@code medical_record} table with batched
+ * JDBC inserts, bypassing JPA. Chunks from a {@link SyntheticRecordSource} are
+ * shared out to parallel workers, each of which inserts on its own connection
+ * and commits once per batch.
+ */
+public class SyntheticDatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDatasetGenerator.class);
+
+    private static final String INSERT_SQL = "INSERT INTO medical_record (name, name_key, age, medical_history,"
+            + " owner_id, created_by, last_modified_by, created_at, updated_at, deleted)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private final DataSource dataSource;
+
+    public SyntheticDatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Generates and inserts the dataset described by {@code spec}.
+     *
+     * @param spec  Dataset shape.
+     * @param epoch "Now" for generated timestamps.
+     * @return The number of rows inserted.
+     */
+    public long generate(DatasetSpec spec, LocalDateTime epoch) {
+        SyntheticRecordSource source = new SyntheticRecordSource(spec, epoch);
+        long chunks = source.chunkCount();
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        long started = System.nanoTime();
+        logger.info("Generating {} rows for {} owners (skew {}, seed {}) with {} workers.", spec.rows(),
+                spec.owners(), spec.ownerSkew(), spec.seed(), spec.workers());
+
+        ExecutorService workers = Executors.newFixedThreadPool(spec.workers());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int w = 0; w < spec.workers(); w++) {
+                results.add(workers.submit(() -> {
+                    insertChunks(source, spec, chunks, nextChunk, inserted, started);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dataset generation failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        logger.info("Inserted {} rows in {} s ({} rows/s).", inserted.get(), String.format("%.1f", seconds),
+                String.format("%.0f", inserted.get() / Math.max(seconds, 1e-9)));
+        return inserted.get();
+    }
+
+    private void insertChunks(SyntheticRecordSource source, DatasetSpec spec, long chunks, AtomicLong nextChunk,
+            AtomicLong inserted, long started) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            connection.setAutoCommit(false);
+            long chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                int[] pending = { 0 };
+                source.generateChunk(chunk, row -> {
+                    try {
+                        statement.setString(1, row.name());
+                        statement.setString(2, MedicalRecord.nameKeyOf(row.name()));
+                        statement.setInt(3, row.age());
+                        statement.setString(4, row.medicalHistory());
+                        statement.setString(5, row.ownerId());
+                        statement.setString(6, row.ownerId());
+                        statement.setString(7, row.ownerId());
+                        statement.setTimestamp(8, Timestamp.valueOf(row.createdAt()));
+                        statement.setTimestamp(9, Timestamp.valueOf(row.updatedAt()));
+                        statement.addBatch();
+                        if (++pending[0] == spec.batchSize()) {
+                            statement.executeBatch();
+                            connection.commit();
+                            pending[0] = 0;
+                        }
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Batch insert failed", e);
+                    }
+                });
+                if (pending[0] > 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                long total = inserted.addAndGet(Math.min(SyntheticRecordSource.CHUNK_SIZE,
+                        spec.rows() - chunk * SyntheticRecordSource.CHUNK_SIZE));
+                if ((chunk + 1) % 100 == 0) {
+                    logger.info("Progress: {} / {} rows ({} s).", total, spec.rows(),
+                            (System.nanoTime() - started) / 1_000_000_000L);
+                }
+            }
+        }
+    }
+}
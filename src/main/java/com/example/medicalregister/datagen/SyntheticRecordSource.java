@@ -0,0 +1,121 @@
+package com.example.medicalregister.datagen;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic source of synthetic record rows. Rows are produced in
+ * fixed-size chunks, and each chunk has its own random stream derived from the
+ * seed and the chunk index, so the generated content does not depend on how
+ * many workers insert the chunks or in which order.
+ */
+public class SyntheticRecordSource {
+
+    /**
+     * Rows per independently seeded chunk.
+     */
+    public static final int CHUNK_SIZE = 10_000;
+
+    private static final String[] FIRST_NAMES = { "Aisha", "Ben", "Chen", "Daniel", "Elena", "Farah", "Gabriel",
+            "Hana", "Isaac", "Jia", "Kumar", "Lena", "Mohamed", "Nora", "Omar", "Priya", "Quentin", "Rosa", "Sean",
+            "Tan", "Uma", "Victor", "Wei", "Xin", "Yusuf", "Zara" };
+    private static final String[] LAST_NAMES = { "Abdullah", "Brown", "Chua", "Das", "Evans", "Fernandez", "Goh",
+            "Hassan", "Ismail", "Jones", "Koh", "Lim", "Martin", "Nguyen", "Ong", "Patel", "Rahman", "Singh", "Tan",
+            "Wong", "Yeo" };
+    private static final String[] HISTORY_SENTENCES = { "Routine check-up, no acute findings.",
+            "Presented with mild fever and sore throat.", "Hypertension, well controlled on medication.",
+            "Type 2 diabetes, HbA1c reviewed.", "Seasonal allergies, antihistamines prescribed.",
+            "Follow-up after minor surgery, wound healing well.", "Reports intermittent lower back pain.",
+            "Vaccination record updated.", "Referred to cardiology for further evaluation.",
+            "Asthma, inhaler technique reviewed.", "Blood tests within normal limits.",
+            "Advised on diet and regular exercise." };
+
+    private final DatasetSpec spec;
+    private final double[] ownerCdf;
+    private final LocalDateTime epoch;
+
+    /**
+     * @param spec  Dataset shape.
+     * @param epoch "Now" for generated timestamps; fix it to make timestamps
+     *              reproducible too.
+     */
+    public SyntheticRecordSource(DatasetSpec spec, LocalDateTime epoch) {
+        this.spec = spec;
+        this.epoch = epoch;
+        this.ownerCdf = zipfCdf(spec.owners(), spec.ownerSkew());
+    }
+
+    /**
+     * @return Number of chunks needed to cover {@link DatasetSpec#rows()}.
+     */
+    public long chunkCount() {
+        return (spec.rows() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Generates every row of a chunk, in order.
+     *
+     * @param chunk Chunk index, from 0 to {@link #chunkCount()} - 1.
+     * @param sink  Receives each row.
+     */
+    public void generateChunk(long chunk, Consumer<SyntheticRow> sink) {
+        SplittableRandom random = new SplittableRandom(spec.seed() + chunk * 0x9E3779B97F4A7C15L);
+        long first = chunk * CHUNK_SIZE;
+        long last = Math.min(spec.rows(), first + CHUNK_SIZE);
+        StringBuilder history = new StringBuilder(spec.maxHistoryLength());
+        for (long row = first; row < last; row++) {
+            String owner = spec.ownerPrefix() + sampleOwner(random);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int age = (int) Math.min(105, Math.abs(random.nextGaussian() * 22 + 45));
+            LocalDateTime createdAt = epoch.minusSeconds(random.nextLong(spec.spanDays() * 86_400L));
+            LocalDateTime updatedAt = random.nextInt(10) < 3
+                    ? createdAt.plusSeconds(random.nextLong(30 * 86_400L))
+                    : createdAt;
+            sink.accept(new SyntheticRow(name, age, history(random, history), owner, createdAt,
+                    updatedAt.isAfter(epoch) ? epoch : updatedAt));
+        }
+    }
+
+    private int sampleOwner(SplittableRandom random) {
+        int index = Arrays.binarySearch(ownerCdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, ownerCdf.length - 1);
+    }
+
+    private String history(SplittableRandom random, StringBuilder buffer) {
+        // Log-normal length: median as configured, heavy right tail.
+        double length = spec.medianHistoryLength() * Math.exp(random.nextGaussian());
+        int target = (int) Math.max(1, Math.min(spec.maxHistoryLength(), length));
+        buffer.setLength(0);
+        while (buffer.length() < target) {
+            if (!buffer.isEmpty()) {
+                buffer.append(' ');
+            }
+            buffer.append(HISTORY_SENTENCES[random.nextInt(HISTORY_SENTENCES.length)]);
+        }
+        buffer.setLength(target);
+        return buffer.toString();
+    }
+
+    private static double[] zipfCdf(int owners, double exponent) {
+        double[] cdf = new double[owners];
+        double total = 0;
+        for (int rank = 0; rank < owners; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < owners; rank++) {
+            cdf[rank] /= total;
+        }
+        return cdf;
+    }
+
+    /**
+     * One generated record, in insert column order.
+     */
+    public record SyntheticRow(String name, int age, String medicalHistory, String ownerId, LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+    }
+}
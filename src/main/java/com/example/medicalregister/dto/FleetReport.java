@@ -0,0 +1,48 @@
+package com.example.medicalregister.dto;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.example.medicalregister.dto.RecordStatisticsSummary.AgeBucket;
+
+/**
+ * Aggregates over the records of all owners, computed from the reporting
+ * snapshot rather than the records table.
+ *
+ * @param snapshot        The snapshot the report was computed from.
+ * @param totalRecords    The number of records (not deleted).
+ * @param owners          The number of owners with at least one record.
+ * @param ageHistogram    The records per age bucket, as in
+ *                        {@link RecordStatisticsSummary}.
+ * @param growth          The records created per month, oldest first, up to
+ *                        and including the current month.
+ * @param historyLength   Percentiles of the length of the medical history, in
+ *                        characters.
+ * @param recordsPerOwner Percentiles of the number of records per owner.
+ */
+public record FleetReport(SnapshotInfo snapshot, long totalRecords, int owners, List<AgeBucket> ageHistogram,
+        List<MonthlyGrowth> growth, Percentiles historyLength, Percentiles recordsPerOwner) {
+
+    /**
+     * @param builtAt     When the snapshot was taken.
+     * @param buildMillis How long building the snapshot took.
+     * @param bytes       The size of the snapshot in memory.
+     */
+    public record SnapshotInfo(Instant builtAt, long buildMillis, long bytes) {
+    }
+
+    /**
+     * @param month      The month.
+     * @param created    Records created in the month.
+     * @param cumulative Records created up to the end of the month.
+     */
+    public record MonthlyGrowth(YearMonth month, long created, long cumulative) {
+    }
+
+    /**
+     * Nearest-rank percentiles.
+     */
+    public record Percentiles(int p50, int p90, int p99, int max) {
+    }
+}
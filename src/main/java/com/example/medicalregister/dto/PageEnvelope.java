@@ -0,0 +1,52 @@
+package com.example.medicalregister.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+import com.example.medicalregister.view.PageEnvelopeSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * One page of a list response of the API, in a fixed shape that does not
+ * depend on Spring Data's page implementation:
+ *
+ * <pre>
+ * {
+ *   "items": [ ... ],
+ *   "page": { "number": 0, "size": 3, "totalItems": 7, "totalPages": 3, "hasNext": true, "sort": ["name,asc"] }
+ * }
+ * </pre>
+ *
+ * Written by {@link PageEnvelopeSerializer}.
+ *
+ * @param items      The items of the page.
+ * @param number     The page number, from 0.
+ * @param size       The requested page size.
+ * @param totalItems The number of items on all pages.
+ * @param totalPages The number of pages.
+ * @param hasNext    Whether there is a next page.
+ * @param sort       The sort order, as {@code property,direction} in the
+ *                   syntax of the {@code sort} request parameter.
+ * @param <T>        The type of the items.
+ */
+@JsonSerialize(using = PageEnvelopeSerializer.class)
+public record PageEnvelope<T>(List<T> items, int number, int size, long totalItems, int totalPages,
+        boolean hasNext, List<String> sort) {
+
+    /**
+     * @param page A page of query results.
+     * @param <T>  The type of the items.
+     * @return The page as an envelope.
+     */
+    public static <T> PageEnvelope<T> of(Page<T> page) {
+        List<String> sort = page.getSort().stream().map(PageEnvelope::toParameter).toList();
+        return new PageEnvelope<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages(), page.hasNext(), sort);
+    }
+
+    private static String toParameter(Sort.Order order) {
+        return order.getProperty() + "," + (order.isAscending() ? "asc" : "desc");
+    }
+}
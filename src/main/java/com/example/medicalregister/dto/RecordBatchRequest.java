@@ -0,0 +1,23 @@
+package com.example.medicalregister.dto;
+
+import com.example.medicalregister.model.MedicalRecord;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /api/v1/records/batch}: records to create or update in
+ * one transaction.
+ *
+ * @param records The records; those with an id are updates.
+ */
+public record RecordBatchRequest(
+        @NotEmpty(message = "At least one record is required")
+        @Size(max = RecordBatchRequest.MAX_RECORDS, message = "At most " + RecordBatchRequest.MAX_RECORDS
+                + " records per batch") @Valid List<MedicalRecord> records) {
+
+    public static final int MAX_RECORDS = 100;
+}
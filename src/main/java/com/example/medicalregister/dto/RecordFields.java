@@ -0,0 +1,72 @@
+package com.example.medicalregister.dto;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.medicalregister.exception.InvalidQueryException;
+
+/**
+ * The properties of medical records to return, from the {@code fields} query
+ * parameter of the record API (e.g. {@code ?fields=name,age}). Only these
+ * properties are selected from the database and written to the response; the
+ * id is always included.
+ *
+ * @param names The property names, in the order of
+ *              {@link com.example.medicalregister.model.MedicalRecord}'s JSON,
+ *              starting with {@code id}.
+ */
+public record RecordFields(List<String> names) {
+
+    /**
+     * The properties of a record, in the order of its JSON. Also the names of
+     * the entity's attributes.
+     */
+    public static final List<String> PROPERTIES = List.of("id", "name", "age", "medicalHistory", "deleted",
+            "ownerId", "createdBy", "lastModifiedBy", "createdAt", "updatedAt");
+
+    public static final RecordFields ALL = new RecordFields(PROPERTIES);
+
+    public RecordFields {
+        names = List.copyOf(names);
+    }
+
+    /**
+     * @param fields Comma-separated property names; if null or blank, all
+     *               properties.
+     * @return The selected properties.
+     * @throws InvalidQueryException if a name is not a property of a record.
+     */
+    public static RecordFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!PROPERTIES.contains(name)) {
+                throw new InvalidQueryException("Unknown field '" + name + "'; the fields are "
+                        + String.join(", ", PROPERTIES) + ".");
+            }
+            requested.add(name);
+        }
+        requested.add("id");
+        return new RecordFields(PROPERTIES.stream().filter(requested::contains).toList());
+    }
+
+    /**
+     * @return Whether all properties are selected.
+     */
+    public boolean isAll() {
+        return names.size() == PROPERTIES.size();
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(names.toArray());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.medicalregister.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+/**
+ * Filter of the record list, bound from the query parameters of
+ * {@code GET /api/v1/records} and {@code GET /records} (e.g.
+ * {@code ?ageMin=18&ageMax=65} or {@code ?name=smi}).
+ * <p>
+ * Each filtered column has a composite index starting with the owner, and an
+ * index serves one range, so a filter may only constrain one column: the age
+ * range, the name prefix, the creation window or the modification window.
+ * Filters on several columns are rejected by
+ * {@link com.example.medicalregister.service.MedicalRecordService#findRecords}.
+ *
+ * @param ageMin      Minimum age, inclusive.
+ * @param ageMax      Maximum age, inclusive.
+ * @param name        Case-insensitive prefix of the name.
+ * @param createdFrom Start of the creation window, inclusive.
+ * @param createdTo   End of the creation window, exclusive.
+ * @param updatedFrom Start of the modification window, inclusive.
+ * @param updatedTo   End of the modification window, exclusive.
+ */
+public record RecordFilter(
+        Integer ageMin,
+        Integer ageMax,
+        String name,
+        @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdFrom,
+        @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdTo,
+        @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime updatedFrom,
+        @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime updatedTo) {
+
+    public static final RecordFilter NONE = new RecordFilter(null, null, null, null, null, null, null);
+
+    public static final int MAX_NAME_PREFIX_LENGTH = 100;
+
+    public RecordFilter {
+        name = name == null || name.isBlank() ? null : name.strip(); // Empty form field
+    }
+
+    /**
+     * @return Whether no column is filtered.
+     */
+    public boolean isEmpty() {
+        return filteredColumns().isEmpty();
+    }
+
+    /**
+     * @return The filtered columns, by parameter name (e.g. {@code age}).
+     */
+    public List<String> filteredColumns() {
+        List<String> columns = new ArrayList<>(1);
+        if (ageMin != null || ageMax != null) {
+            columns.add("age");
+        }
+        if (name != null) {
+            columns.add("name");
+        }
+        if (createdFrom != null || createdTo != null) {
+            columns.add("created");
+        }
+        if (updatedFrom != null || updatedTo != null) {
+            columns.add("updated");
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.medicalregister.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Body of {@code GET /api/v1/records/stats}, and the dashboard panel of the
+ * home page: aggregates of the user's records, read from the incrementally
+ * maintained summary table rather than computed from the records.
+ *
+ * @param totalRecords The number of records.
+ * @param ageHistogram Records per age bucket, youngest first, including empty
+ *                     buckets.
+ * @param daily        Records created and last updated per day, oldest first,
+ *                     including days without any.
+ */
+public record RecordStatisticsSummary(long totalRecords, List<AgeBucket> ageHistogram, List<DailyActivity> daily) {
+
+    /**
+     * @param minAge  The lowest age in the bucket.
+     * @param maxAge  The highest age in the bucket; null for the last bucket.
+     * @param records The number of records with an age in the bucket.
+     */
+    public record AgeBucket(int minAge, Integer maxAge, long records) {
+    }
+
+    /**
+     * @param date    The day.
+     * @param created The number of records created on the day.
+     * @param updated The number of records last modified on the day.
+     */
+    public record DailyActivity(LocalDate date, long created, long updated) {
+    }
+}
@@ -39,6 +39,26 @@ public class GlobalApiExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyKey(IdempotencyKeyException ex, WebRequest request) {
+        logger.warn("IdempotencyKeyException: {} for path {}", ex.getMessage(), request.getDescription(false));
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                ex.getStatus().value(),
+                ex.getMessage(),
+                request.getDescription(false));
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidQuery(InvalidQueryException ex, WebRequest request) {
+        logger.warn("InvalidQueryException: {} for path {}", ex.getMessage(), request.getDescription(false));
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                request.getDescription(false));
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex,
             WebRequest request) {
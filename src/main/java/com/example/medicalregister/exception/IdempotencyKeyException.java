@@ -0,0 +1,22 @@
+package com.example.medicalregister.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An {@code Idempotency-Key} that cannot be used for the request: it is
+ * malformed, still in use by a concurrent request, or was used for a different
+ * request.
+ */
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
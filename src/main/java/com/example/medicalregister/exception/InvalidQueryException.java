@@ -0,0 +1,12 @@
+package com.example.medicalregister.exception;
+
+/**
+ * A record query that cannot be executed, e.g. a filter combination that no
+ * index supports.
+ */
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.medicalregister.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Deletes expired idempotency keys (replayable responses past their TTL, and
+ * claims of requests that never completed) in small batches. Each batch is its
+ * own statement and transaction, so a large backlog never locks many rows at
+ * once or blocks the claims of new requests for long.
+ * <p>
+ * Every replica runs the cleaner; the deletes are idempotent, so this is safe.
+ */
+public class IdempotencyKeyCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyCleaner.class);
+
+    private static final String DELETE_EXPIRED_BATCH_SQL = "DELETE FROM idempotency_key WHERE id IN"
+            + " (SELECT id FROM idempotency_key WHERE expires_at < ? FETCH FIRST ? ROWS ONLY)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Clock clock;
+    private final Counter deleted;
+
+    /**
+     * @param jdbcTemplate     Template on the application's data source.
+     * @param batchSize        Keys deleted per statement.
+     * @param maxBatchesPerRun Upper bound on statements per run; the rest is
+     *                         left for the next run.
+     * @param registry         Registry for the deleted-keys counter.
+     * @param clock            Clock for the expiry comparison.
+     */
+    public IdempotencyKeyCleaner(JdbcTemplate jdbcTemplate, int batchSize, int maxBatchesPerRun,
+            MeterRegistry registry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.clock = clock;
+        this.deleted = Counter.builder("idempotency.keys.expired.deleted")
+                .description("Expired idempotency keys deleted")
+                .register(registry);
+    }
+
+    /**
+     * Deletes keys that expired before now.
+     *
+     * @return The number of keys deleted.
+     */
+    @Scheduled(fixedDelayString = "${medical-register.idempotency.cleanup-interval:PT5M}",
+            initialDelayString = "${medical-register.idempotency.cleanup-interval:PT5M}")
+    public int deleteExpiredKeys() {
+        Timestamp now = Timestamp.from(clock.instant());
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int count = jdbcTemplate.update(DELETE_EXPIRED_BATCH_SQL, now, batchSize);
+            total += count;
+            deleted.increment(count);
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.debug("Deleted {} expired idempotency keys.", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.medicalregister.idempotency;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.medicalregister.exception.IdempotencyKeyException;
+import com.example.medicalregister.model.IdempotencyKey;
+import com.example.medicalregister.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Executes write requests at most once per {@code Idempotency-Key}: a request
+ * sent again with the same key (e.g. a client retrying after a timeout) gets
+ * the original response replayed, without the write being executed again.
+ * <p>
+ * Keys are scoped to the owner and stored in the {@code idempotency_key} table,
+ * so they work across replicas:
+ * <ol>
+ * <li>The key is claimed by inserting a row in its own transaction. The
+ * primary key makes concurrent duplicates fail the insert, so only one of
+ * them executes the write, without any lock beyond the row itself. A
+ * duplicate gets {@code 409 Conflict} while the write is running.</li>
+ * <li>The write and the stored response are committed in one transaction, so
+ * a write is never committed without its response, or the other way
+ * round.</li>
+ * <li>If the write fails, the claim is deleted and the request can be
+ * retried with the same key.</li>
+ * <li>If the write outlives the claim's lease, another request may have
+ * claimed the key in the meantime. The response is then stored only if the
+ * claim is still the one this request inserted (matched on its lease expiry);
+ * otherwise the write is rolled back and the request gets
+ * {@code 409 Conflict}, so the key never executes two writes.</li>
+ * </ol>
+ * Completed responses are also kept in memory until they expire, so most
+ * replays need no database access. Responses are stored as JSON and replayed
+ * as a tree, so a replay is written in the format the retry accepts (e.g.
+ * CBOR), like the original response. A key used again for a different request
+ * gets {@code 422 Unprocessable Entity}.
+ * <p>
+ * Must be called outside a transaction, as the claim and the write are
+ * committed separately.
+ */
+public class IdempotentRequests {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate claimTransaction;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Clock clock;
+    private final Cache<String, StoredResponse> completed;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter inProgress;
+    private final Counter mismatched;
+    private final Counter expired;
+
+    /**
+     * @param repository         Stores claims and responses.
+     * @param transactionManager The application's JPA transaction manager.
+     * @param objectMapper       Serializes the response bodies to store.
+     * @param ttl                How long a response is replayed.
+     * @param lease              How long a claim blocks other requests with the
+     *                           key if its request never completes (e.g. the
+     *                           replica dies).
+     * @param cacheMaxBytes      Upper bound on the size of the responses kept in
+     *                           memory.
+     * @param registry           Registry for the request counters.
+     * @param clock              Clock for expiry times.
+     */
+    public IdempotentRequests(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, Duration ttl, Duration lease, long cacheMaxBytes, MeterRegistry registry,
+            Clock clock) {
+        this.repository = repository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.clock = clock;
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String id, StoredResponse response) -> response.body().length)
+                .expireAfter(new UntilStoredExpiry(clock))
+                .build();
+        this.executed = counter(registry, "executed");
+        this.replayed = counter(registry, "replayed");
+        this.inProgress = counter(registry, "in_progress");
+        this.mismatched = counter(registry, "mismatched");
+        this.expired = counter(registry, "expired");
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Write requests with an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Executes the write, or replays the response of an earlier request with
+     * the same key.
+     *
+     * @param ownerId   The owner's 'sub' claim; without one, the write is
+     *                  executed as is (and denied by the service).
+     * @param key       The client's {@code Idempotency-Key}; if null, the write
+     *                  is executed as is.
+     * @param operation The endpoint, e.g. {@code POST /api/v1/records}; part of
+     *                  the request's identity.
+     * @param request   The request body; part of the request's identity.
+     * @param write     Executes the write and returns its response.
+     * @return The write's response, or the replayed response.
+     * @throws IdempotencyKeyException if the key is malformed, in use by a
+     *                                 concurrent request, was used for a
+     *                                 different request, or its claim expired
+     *                                 before the write completed.
+     */
+    public ResponseEntity<?> execute(String ownerId, String key, String operation, Object request,
+            Supplier<ResponseEntity<?>> write) {
+        if (key == null || ownerId == null) {
+            return write.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String id = hash((ownerId + '\n' + key).getBytes(StandardCharsets.UTF_8));
+        String requestHash = hash((operation + '\n').getBytes(StandardCharsets.UTF_8), json(request));
+
+        StoredResponse cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+        // Truncated so that the claim matches its stored expiry exactly
+        Instant leasedUntil = clock.instant().plus(lease).truncatedTo(ChronoUnit.MILLIS);
+        Optional<StoredResponse> earlier = claim(id, requestHash, leasedUntil);
+        if (earlier.isPresent()) {
+            completed.put(id, earlier.get());
+            return replay(earlier.get(), requestHash);
+        }
+
+        Completed result;
+        try {
+            result = writeTransaction.execute(status -> {
+                ResponseEntity<?> written = write.get();
+                StoredResponse stored = new StoredResponse(requestHash, written.getStatusCode().value(),
+                        written.getHeaders().getFirst(HttpHeaders.LOCATION), json(written.getBody()),
+                        clock.instant().plus(ttl));
+                if (repository.complete(id, leasedUntil, stored.status(), stored.location(), stored.body(),
+                        stored.expiresAt()) == 0) {
+                    expired.increment();
+                    throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                            "The Idempotency-Key claim expired before the request completed; retry later.");
+                }
+                return new Completed(written, stored);
+            });
+        } catch (RuntimeException | Error e) {
+            claimTransaction.executeWithoutResult(status -> repository.release(id, leasedUntil));
+            throw e;
+        }
+        completed.put(id, result.stored());
+        executed.increment();
+        return result.response();
+    }
+
+    /**
+     * Inserts the claim for the key.
+     *
+     * @return Empty if the key was claimed, or the response of the earlier
+     *         request with the key.
+     */
+    private Optional<StoredResponse> claim(String id, String requestHash, Instant leasedUntil) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Instant now = clock.instant();
+            try {
+                claimTransaction.executeWithoutResult(status -> repository
+                        .saveAndFlush(new IdempotencyKey(id, requestHash, null, null, null, leasedUntil)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                IdempotencyKey existing = claimTransaction.execute(status -> {
+                    IdempotencyKey row = repository.findById(id).orElse(null);
+                    if (row != null && row.getExpiresAt().isBefore(now)) {
+                        repository.deleteIfExpired(id, now);
+                        return null;
+                    }
+                    return row;
+                });
+                if (existing == null) {
+                    continue; // Completed and expired, or released, in the meantime: claim again
+                }
+                if (existing.getResponseStatus() == null) {
+                    if (!existing.getRequestHash().equals(requestHash)) {
+                        throw mismatch();
+                    }
+                    inProgress.increment();
+                    throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                            "A request with this Idempotency-Key is still being processed; retry later.");
+                }
+                return Optional.of(new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+                        existing.getResponseLocation(), existing.getResponseBody(), existing.getExpiresAt()));
+            }
+        }
+        inProgress.increment();
+        throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still being processed; retry later.");
+    }
+
+    private ResponseEntity<JsonNode> replay(StoredResponse response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw mismatch();
+        }
+        replayed.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.status())
+                .header(REPLAYED_HEADER, "true");
+        if (response.location() != null) {
+            builder.header(HttpHeaders.LOCATION, response.location());
+        }
+        try {
+            return builder.body(objectMapper.readTree(response.body()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot parse the stored response", e);
+        }
+    }
+
+    private IdempotencyKeyException mismatch() {
+        mismatched.increment();
+        return new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "This Idempotency-Key was already used for a different request.");
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String hash(byte[]... parts) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                sha256.update(part);
+            }
+            byte[] digest = sha256.digest();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Keeps a response in memory no longer than its row is kept.
+     */
+    private record UntilStoredExpiry(Clock clock) implements Expiry<String, StoredResponse> {
+
+        @Override
+        public long expireAfterCreate(String id, StoredResponse response, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), response.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, StoredResponse response, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(id, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, StoredResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record Completed(ResponseEntity<?> response, StoredResponse stored) {
+    }
+
+    private record StoredResponse(String requestHash, int status, String location, byte[] body, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.medicalregister.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * SLF4J markers of the application's log events.
+ */
+public final class LogMarkers {
+
+    /**
+     * Read-path access events (a user listed, viewed or opened records). They
+     * are frequent and repetitive, so they are the only INFO events that
+     * {@link RateLimitingTurboFilter} limits and {@link MeteredAsyncAppender}
+     * drops when its queue is nearly full. Events that record a change (create,
+     * update, delete) must not carry this marker.
+     */
+    public static final Marker ACCESS = MarkerFactory.getMarker("ACCESS");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.medicalregister.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback {@link AsyncAppender} that counts the events it drops and the events
+ * that had to wait for space in the queue.
+ * <p>
+ * Events are handed to a bounded queue and written by a single worker thread,
+ * so request threads do not wait for console I/O. When the queue has fewer than
+ * {@code discardingThreshold} free slots, TRACE, DEBUG and INFO events are
+ * dropped; if {@code discardableMarker} is set, INFO events are only dropped if
+ * they carry that marker (e.g. {@link LogMarkers#ACCESS}). WARN and ERROR
+ * events, and INFO events without the marker, are always kept and, with
+ * {@code neverBlock=false}, wait for space (back-pressure) when the queue is
+ * full. Both counts are published as metrics by {@code LoggingMetrics}.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+
+    private String discardableMarker;
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Same checks as AsyncAppenderBase.append(), which drops silently.
+        if (getRemainingCapacity() < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (getRemainingCapacity() == 0) {
+            if (isNeverBlock()) {
+                discarded.increment();
+                return;
+            }
+            blocked.increment();
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        if (!super.isDiscardable(event)) {
+            return false;
+        }
+        if (discardableMarker == null || event.getLevel().levelInt < Level.INFO_INT) {
+            return true;
+        }
+        List<Marker> markers = event.getMarkerList();
+        return markers != null && markers.stream().anyMatch(marker -> marker.contains(discardableMarker));
+    }
+
+    /**
+     * @param discardableMarker Name of the marker of the INFO events that may be
+     *                          dropped; null or empty to drop any INFO event.
+     */
+    public void setDiscardableMarker(String discardableMarker) {
+        this.discardableMarker = discardableMarker == null || discardableMarker.isEmpty() ? null
+                : discardableMarker;
+    }
+
+    /**
+     * @return Events dropped because the queue was (nearly) full.
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    /**
+     * @return Events whose producer had to wait for space in a full queue.
+     */
+    public long getBlockedCount() {
+        return blocked.sum();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.medicalregister.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Rate-limits repetitive INFO events: at most {@code maxPerSecond} events per
+ * message template (the unformatted message, e.g.
+ * {@code "API: User {} attempting to list records with pageable: {}."}) are
+ * logged per second, for loggers whose name starts with {@code loggerPrefix}.
+ * The rest are dropped before any formatting or allocation. If {@code marker}
+ * is set, only events with that marker are limited (e.g.
+ * {@link LogMarkers#ACCESS}), so events that must not be lost, such as records
+ * of changes, always pass. Other levels always pass. A {@code maxPerSecond} of
+ * 0 disables the filter.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongSupplier clock;
+
+    private String loggerPrefix = "";
+    private String marker;
+    private int maxPerSecond;
+    private int maxTemplates = 1_000;
+
+    public RateLimitingTurboFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    RateLimitingTurboFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void start() {
+        if (maxPerSecond < 0 || maxPerSecond > COUNT_MASK) {
+            addError("maxPerSecond must be between 0 and " + COUNT_MASK + ": " + maxPerSecond);
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (maxPerSecond == 0 || level != Level.INFO || format == null
+                || logger.getEffectiveLevel().levelInt > Level.INFO_INT
+                || !logger.getName().startsWith(loggerPrefix)
+                || (this.marker != null && (marker == null || !marker.contains(this.marker)))) {
+            return FilterReply.NEUTRAL;
+        }
+        if (tryAcquire(window(format), clock.getAsLong() / 1_000)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    private AtomicLong window(String format) {
+        AtomicLong window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= maxTemplates) {
+                windows.clear(); // Bound memory if messages are built dynamically
+            }
+            window = windows.computeIfAbsent(format, key -> new AtomicLong());
+        }
+        return window;
+    }
+
+    /**
+     * Takes one of the events allowed in {@code second}. The window packs the
+     * second (high bits) and the count so far (low bits) into one long.
+     */
+    private boolean tryAcquire(AtomicLong window, long second) {
+        while (true) {
+            long state = window.get();
+            if (state >>> COUNT_BITS != second) {
+                if (window.compareAndSet(state, second << COUNT_BITS | 1)) {
+                    return true;
+                }
+            } else if ((state & COUNT_MASK) >= maxPerSecond) {
+                return false;
+            } else if (window.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return Events dropped since startup.
+     */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    /**
+     * @param marker Name of the marker of the events to limit; null or empty to
+     *               limit all INFO events of the matching loggers.
+     */
+    public void setMarker(String marker) {
+        this.marker = marker == null || marker.isEmpty() ? null : marker;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setMaxTemplates(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.medicalregister.metrics;
+
+import java.util.Iterator;
+
+import com.example.medicalregister.logging.MeteredAsyncAppender;
+import com.example.medicalregister.logging.RateLimitingTurboFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+
+/**
+ * Publishes the state of the logging pipeline configured in
+ * {@code logback-spring.xml}: queue depth and lost events of each
+ * {@link MeteredAsyncAppender} on the root logger, and events suppressed by
+ * {@link RateLimitingTurboFilter}.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME)
+                .iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                bindAppender(registry, appender);
+            }
+        }
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof RateLimitingTurboFilter rateLimiter) {
+                FunctionCounter.builder("logging.events.suppressed", rateLimiter,
+                        RateLimitingTurboFilter::getSuppressedCount)
+                        .description("Repetitive INFO events dropped by the rate limiter")
+                        .register(registry);
+            }
+        }
+    }
+
+    private static void bindAppender(MeterRegistry registry, MeteredAsyncAppender appender) {
+        Gauge.builder("logging.async.queue.depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                .description("Events waiting to be written")
+                .tag("appender", appender.getName())
+                .register(registry);
+        Gauge.builder("logging.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                .tag("appender", appender.getName())
+                .register(registry);
+        FunctionCounter.builder("logging.async.events.dropped", appender, MeteredAsyncAppender::getDiscardedCount)
+                .description("Events dropped because the queue was (nearly) full")
+                .tag("appender", appender.getName())
+                .register(registry);
+        FunctionCounter.builder("logging.async.events.blocked", appender, MeteredAsyncAppender::getBlockedCount)
+                .description("Events whose producer waited for space in a full queue")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.medicalregister.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import com.example.medicalregister.exception.RecordNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times medical record operations. Each call is recorded in the
+ * {@value #TIMER_NAME} timer, tagged with the operation name and its outcome
+ * ({@code success}, {@code not_found}, {@code access_denied} or
+ * {@code error}). Owner ids and record ids are never used as tags, so the
+ * number of time series stays bounded. Timers are registered on first use
+ * and then reused, so recording an operation does not look up the registry.
+ */
+@Component
+public class RecordOperationMetrics {
+
+    public static final String TIMER_NAME = "medical_records.operation";
+
+    /**
+     * SLO boundaries published as histogram buckets, so that the share of
+     * operations under each threshold can be read directly from Prometheus.
+     */
+    private static final Duration[] SLO_BUCKETS = { Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1) };
+
+    private static final String[] OUTCOMES = { "success", "not_found", "access_denied", "error" };
+    private static final int SUCCESS = 0;
+    private static final int NOT_FOUND = 1;
+    private static final int ACCESS_DENIED = 2;
+    private static final int ERROR = 3;
+
+    private final MeterRegistry registry;
+    /** The timers of each operation, indexed by outcome. */
+    private final ConcurrentMap<String, AtomicReferenceArray<Timer>> timers = new ConcurrentHashMap<>();
+
+    public RecordOperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Runs {@code operation} and records its duration and outcome.
+     *
+     * @param name      Operation name, e.g. {@code find_all}.
+     * @param operation The work to time.
+     * @return The result of {@code operation}.
+     */
+    public <T> T record(String name, Supplier<T> operation) {
+        Timer.Sample sample = Timer.start(registry);
+        int outcome = ERROR;
+        try {
+            T result = operation.get();
+            outcome = SUCCESS;
+            return result;
+        } catch (RecordNotFoundException e) {
+            outcome = NOT_FOUND;
+            throw e;
+        } catch (AccessDeniedException e) {
+            outcome = ACCESS_DENIED;
+            throw e;
+        } finally {
+            sample.stop(timer(name, outcome));
+        }
+    }
+
+    /**
+     * Runs {@code operation} and records its duration and outcome.
+     *
+     * @param name      Operation name, e.g. {@code delete}.
+     * @param operation The work to time.
+     */
+    public void record(String name, Runnable operation) {
+        record(name, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String name, int outcome) {
+        AtomicReferenceArray<Timer> byOutcome = timers.computeIfAbsent(name,
+                key -> new AtomicReferenceArray<>(OUTCOMES.length));
+        Timer timer = byOutcome.get(outcome);
+        if (timer == null) {
+            // Registering is idempotent, so a concurrent first use stores the same timer
+            timer = register(name, OUTCOMES[outcome]);
+            byOutcome.set(outcome, timer);
+        }
+        return timer;
+    }
+
+    private Timer register(String name, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Duration of medical record service operations")
+                .tag("operation", name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(SLO_BUCKETS)
+                .register(registry);
+    }
+}
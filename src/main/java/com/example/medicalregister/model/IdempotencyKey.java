@@ -0,0 +1,68 @@
+package com.example.medicalregister.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * An {@code Idempotency-Key} sent with a write request, and the response to
+ * replay when the request is sent again. Rows are compact: the owner and the
+ * client's key are stored only as a fixed-length hash, and the request only as
+ * a hash of its content.
+ * <p>
+ * A row without a response status is a claim: the request is being executed,
+ * and the row expires after a short lease in case the executing replica dies.
+ * Rows are inserted once and then changed only by the queries of
+ * {@link com.example.medicalregister.repository.IdempotencyKeyRepository}, so
+ * {@link #isNew()} is always true and {@code save} never merges.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at"))
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+
+    /**
+     * SHA-256 of the owner's 'sub' and the client's key, Base64url-encoded.
+     */
+    @Id
+    @Column(length = 43)
+    private String id;
+
+    /**
+     * SHA-256 of the operation and request body, Base64url-encoded.
+     */
+    @Column(name = "request_hash", length = 43, nullable = false)
+    private String requestHash;
+
+    /**
+     * HTTP status of the response; null while the request is executing.
+     */
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_location", length = 2048)
+    private String responseLocation;
+
+    @Column(name = "response_body", length = 1_048_576)
+    private byte[] responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.medicalregister.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.Column;
@@ -8,13 +9,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -29,11 +34,19 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 /**
  * Represents a medical record entity. Includes JPA auditing for
  * creation/modification tracking.
+ * <p>
+ * Every filter of the record list has a composite index starting with the
+ * owner, so a filtered page is one index range scan within the owner's records
+ * (see {@link com.example.medicalregister.dto.RecordFilter}).
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_medical_record_owner_age", columnList = "owner_id, age"),
+        @Index(name = "idx_medical_record_owner_name_key", columnList = "owner_id, name_key"),
+        @Index(name = "idx_medical_record_owner_created_at", columnList = "owner_id, created_at"),
+        @Index(name = "idx_medical_record_owner_updated_at", columnList = "owner_id, updated_at") })
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 @SQLDelete(sql = "UPDATE medical_record SET deleted = true WHERE id = ?") // Soft delete
 @SQLRestriction("deleted = false") // Restrict queries to non-deleted records
@@ -80,4 +93,39 @@ public class MedicalRecord {
 
     @Column(nullable = false)
     private boolean deleted = false; // Flag for soft delete
+
+    /**
+     * The name in lower case, for case-insensitive name prefix filters that can
+     * use an index. Maintained from {@link #name} on every insert and update.
+     */
+    @JsonIgnore
+    @Column(name = "name_key")
+    private String nameKey;
+
+    public MedicalRecord(Long id, String name, Integer age, String medicalHistory, String ownerId, String createdBy,
+            String lastModifiedBy, LocalDateTime createdAt, LocalDateTime updatedAt, boolean deleted) {
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.medicalHistory = medicalHistory;
+        this.ownerId = ownerId;
+        this.createdBy = createdBy;
+        this.lastModifiedBy = lastModifiedBy;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.deleted = deleted;
+    }
+
+    /**
+     * @return The key stored for {@code name}: the name in lower case.
+     */
+    public static String nameKeyOf(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateNameKey() {
+        nameKey = nameKeyOf(name);
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.medicalregister.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One aggregate of an owner's records: the number of records in a bucket of a
+ * dimension, e.g. records aged 30 to 39, or records created on 2025-01-31.
+ * Rows are maintained incrementally with every write, in the write's
+ * transaction, and recomputed from the records by the reconciliation job; both
+ * use SQL (see {@link com.example.medicalregister.statistics.RecordStatistics}).
+ * The entity is mapped so that the table is part of the schema.
+ * <p>
+ * The unique index leads with the owner, so all of an owner's rows are one
+ * index range scan.
+ */
+@Entity
+@Table(name = "owner_record_statistic", indexes = @Index(name = "idx_owner_record_statistic_owner",
+        columnList = "owner_id, dimension, bucket", unique = true))
+@IdClass(OwnerRecordStatistic.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerRecordStatistic {
+
+    @Id
+    @Column(name = "owner_id", nullable = false)
+    private String ownerId;
+
+    /**
+     * {@code total}, {@code age}, {@code created} or {@code updated}.
+     */
+    @Id
+    @Column(length = 16, nullable = false)
+    private String dimension;
+
+    /**
+     * The lower bound of the age bucket, or the ISO date of the day; empty for
+     * the total.
+     */
+    @Id
+    @Column(length = 16, nullable = false)
+    private String bucket;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    /**
+     * Primary key of {@link OwnerRecordStatistic}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String ownerId;
+        private String dimension;
+        private String bucket;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.medicalregister.ratelimit;
+
+/**
+ * Classes of requests with separate rate limits, by how much load one request
+ * puts on the application and its database.
+ */
+public enum EndpointClass {
+
+    /** Requests that only read records (GET, HEAD). */
+    READ,
+
+    /** Requests that create, update or delete one record. */
+    WRITE,
+
+    /** Requests that read or write many records at once (batch endpoints). */
+    BULK;
+
+    /**
+     * @return The lower-case name, used as a metric tag and in properties.
+     */
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
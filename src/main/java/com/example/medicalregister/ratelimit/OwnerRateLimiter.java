@@ -0,0 +1,97 @@
+package com.example.medicalregister.ratelimit;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rate limits requests per owner (the Auth0 'sub') and {@link EndpointClass},
+ * with one {@link TokenBucket} per owner and class.
+ * <p>
+ * Memory is bounded: the buckets of at most {@code maxOwners} owners are kept,
+ * and an owner's buckets are dropped once the owner has been idle for the idle
+ * timeout. The idle timeout is never shorter than the time to refill the
+ * largest bucket, so a dropped owner would have had full buckets anyway. Only
+ * when more than {@code maxOwners} owners are active at once can an owner's
+ * partly used buckets be dropped early, i.e. reset to full.
+ */
+public class OwnerRateLimiter {
+
+    public static final String THROTTLED_COUNTER = "http.server.requests.throttled";
+
+    private final Map<EndpointClass, RateLimit> limits;
+    private final Cache<String, TokenBucket[]> buckets;
+    private final Ticker ticker;
+    private final Map<EndpointClass, Counter> throttled = new EnumMap<>(EndpointClass.class);
+
+    /**
+     * @param limits      Limit of each endpoint class; every class must have one.
+     * @param maxOwners   Upper bound on owners whose buckets are kept.
+     * @param idleTimeout How long an idle owner's buckets are kept.
+     * @param registry    Registry for the throttled-requests counter.
+     */
+    public OwnerRateLimiter(Map<EndpointClass, RateLimit> limits, long maxOwners, Duration idleTimeout,
+            MeterRegistry registry) {
+        this(limits, maxOwners, idleTimeout, registry, Ticker.systemTicker());
+    }
+
+    OwnerRateLimiter(Map<EndpointClass, RateLimit> limits, long maxOwners, Duration idleTimeout,
+            MeterRegistry registry, Ticker ticker) {
+        this.limits = new EnumMap<>(limits);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            if (!this.limits.containsKey(endpointClass)) {
+                throw new IllegalArgumentException("No rate limit for " + endpointClass);
+            }
+            throttled.put(endpointClass, Counter.builder(THROTTLED_COUNTER)
+                    .description("Requests rejected with 429 Too Many Requests by the per-owner rate limit")
+                    .tag("endpoint_class", endpointClass.tagValue())
+                    .register(registry));
+        }
+        Duration longestRefill = this.limits.values().stream().map(RateLimit::refillTime)
+                .max(Duration::compareTo).orElseThrow();
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxOwners)
+                .expireAfterAccess(idleTimeout.compareTo(longestRefill) > 0 ? idleTimeout : longestRefill)
+                .ticker(ticker)
+                .build();
+        Gauge.builder("rate_limit.owners", buckets, Cache::estimatedSize)
+                .description("Owners whose rate limit buckets are kept")
+                .register(registry);
+    }
+
+    /**
+     * Takes a permit for a request of the owner.
+     *
+     * @param ownerId       The owner's 'sub' claim.
+     * @param endpointClass The class of the request.
+     * @return {@link Duration#ZERO} if the request may proceed, otherwise how
+     *         long until it would be permitted.
+     */
+    public Duration tryAcquire(String ownerId, EndpointClass endpointClass) {
+        long now = ticker.read();
+        TokenBucket[] ownerBuckets = buckets.get(ownerId, id -> newBuckets(now));
+        long wait = ownerBuckets[endpointClass.ordinal()].tryAcquire(now);
+        if (wait == 0) {
+            return Duration.ZERO;
+        }
+        throttled.get(endpointClass).increment();
+        return Duration.ofNanos(wait);
+    }
+
+    private TokenBucket[] newBuckets(long now) {
+        TokenBucket[] ownerBuckets = new TokenBucket[EndpointClass.values().length];
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ownerBuckets[endpointClass.ordinal()] = new TokenBucket(limits.get(endpointClass), now);
+        }
+        return ownerBuckets;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.medicalregister.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Rate limit of one {@link EndpointClass}: on average {@code perSecond}
+ * requests per second, with bursts of up to {@code burst} requests.
+ *
+ * @param perSecond Sustained requests per second; may be below 1 (e.g. 0.2 for
+ *                  one request every 5 seconds).
+ * @param burst     Requests allowed at once after an idle period.
+ */
+public record RateLimit(double perSecond, int burst) {
+
+    public RateLimit {
+        if (!(perSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException(
+                    "Rate limit needs perSecond > 0 and burst >= 1, got " + perSecond + " and " + burst);
+        }
+    }
+
+    long refillIntervalNanos() {
+        return Math.max(1, Math.round(1_000_000_000 / perSecond));
+    }
+
+    /**
+     * @return How long an empty bucket takes to fill up.
+     */
+    public Duration refillTime() {
+        return Duration.ofNanos(refillIntervalNanos() * burst);
+    }
+}
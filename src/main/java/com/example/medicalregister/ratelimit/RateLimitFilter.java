@@ -0,0 +1,86 @@
+package com.example.medicalregister.ratelimit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.medicalregister.security.OwnerContext;
+import com.example.medicalregister.security.WarmUpAuthenticationFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects requests of an owner who exceeds the rate limit of the request's
+ * {@link EndpointClass} with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header (whole seconds), before any controller or
+ * database work is done. Requests without an owner (anonymous, or without a
+ * 'sub') and the startup warm-up are not limited.
+ * <p>
+ * Added to the security filter chains after the {@code OwnerContextFilter} by
+ * {@code SecurityConfig}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /**
+     * Deletes from the web UI's record list without JavaScript are GET requests.
+     */
+    private static final RequestMatcher WRITES_BY_GET = new AntPathRequestMatcher("/records/delete/**", "GET");
+
+    private final OwnerRateLimiter limiter;
+    private final List<RequestMatcher> bulkRequests;
+
+    /**
+     * @param limiter   The per-owner buckets.
+     * @param bulkPaths Ant patterns of the {@link EndpointClass#BULK} endpoints.
+     */
+    public RateLimitFilter(OwnerRateLimiter limiter, List<String> bulkPaths) {
+        this.limiter = limiter;
+        this.bulkRequests = bulkPaths.stream().<RequestMatcher>map(AntPathRequestMatcher::new).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String ownerId = OwnerContext.current().sub();
+        if (ownerId == null || WarmUpAuthenticationFilter.SCRATCH_OWNER.equals(ownerId)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        EndpointClass endpointClass = classify(request);
+        Duration wait = limiter.tryAcquire(ownerId, endpointClass);
+        if (!wait.isZero()) {
+            long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+            logger.info("Owner {} exceeded the {} rate limit; rejected {} {} (retry after {} s).", ownerId,
+                    endpointClass.tagValue(), request.getMethod(), request.getRequestURI(), retryAfterSeconds);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests; retry after "
+                    + retryAfterSeconds + " seconds.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        for (RequestMatcher bulk : bulkRequests) {
+            if (bulk.matches(request)) {
+                return EndpointClass.BULK;
+            }
+        }
+        String method = request.getMethod();
+        boolean safe = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        return safe && !WRITES_BY_GET.matches(request) ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.medicalregister.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket holding up to {@code burst} permits and refilled at
+ * a constant rate.
+ * <p>
+ * Instead of a token count and a refill timestamp, the bucket keeps a single
+ * value: the time at which it will be full again (the "theoretical arrival
+ * time" of the generic cell rate algorithm). Taking a permit moves it one
+ * refill interval into the future, so each attempt is a single
+ * compare-and-set, and an idle bucket needs no background refill.
+ */
+final class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param limit The refill rate and capacity.
+     * @param now   Current time in nanoseconds ({@link System#nanoTime()}); the
+     *              bucket starts full.
+     */
+    TokenBucket(RateLimit limit, long now) {
+        this.refillIntervalNanos = limit.refillIntervalNanos();
+        this.burstToleranceNanos = refillIntervalNanos * (limit.burst() - 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @param now Current time in nanoseconds ({@link System#nanoTime()}).
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one will
+     *         be available.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long start = Math.max(current, now); // A bucket full since before now stays full
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, start + refillIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.medicalregister.reporting;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, columnar copy of the non-PHI fields of all records, for
+ * fleet-wide reports. Each column is a primitive array indexed by row, so a
+ * scan reads a few contiguous arrays instead of objects, and the whole snapshot
+ * costs a few bytes per record:
+ * <ul>
+ * <li>{@code ages}: the age, clamped to {@link Short#MAX_VALUE};</li>
+ * <li>{@code createdMonths}: the month the record was created, as months since
+ * January 1970.</li>
+ * </ul>
+ * Distributions that are only queried as percentiles are stored sorted
+ * instead, so a percentile is one array access: the length of each record's
+ * medical history (the length only, never the text), and the number of records
+ * of each owner (owner ids are not kept).
+ */
+public final class RecordSnapshot {
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final short[] ages;
+    private final int[] createdMonths;
+    private final int[] sortedHistoryLengths;
+    private final int[] sortedRecordsPerOwner;
+    private final int minCreatedMonth;
+    private final int maxCreatedMonth;
+    private final Instant builtAt;
+    private final Duration buildTime;
+
+    private RecordSnapshot(short[] ages, int[] createdMonths, int[] sortedHistoryLengths,
+            int[] sortedRecordsPerOwner, int minCreatedMonth, int maxCreatedMonth, Instant builtAt,
+            Duration buildTime) {
+        this.ages = ages;
+        this.createdMonths = createdMonths;
+        this.sortedHistoryLengths = sortedHistoryLengths;
+        this.sortedRecordsPerOwner = sortedRecordsPerOwner;
+        this.minCreatedMonth = minCreatedMonth;
+        this.maxCreatedMonth = maxCreatedMonth;
+        this.builtAt = builtAt;
+        this.buildTime = buildTime;
+    }
+
+    /**
+     * @return The number of records.
+     */
+    public int size() {
+        return ages.length;
+    }
+
+    /**
+     * @return The number of owners with at least one record.
+     */
+    public int owners() {
+        return sortedRecordsPerOwner.length;
+    }
+
+    int age(int row) {
+        return ages[row];
+    }
+
+    int createdMonth(int row) {
+        return createdMonths[row];
+    }
+
+    /**
+     * @return The earliest creation month, as months since January 1970; 0 if
+     *         empty.
+     */
+    public int minCreatedMonth() {
+        return minCreatedMonth;
+    }
+
+    /**
+     * @return The latest creation month, as months since January 1970; 0 if
+     *         empty.
+     */
+    public int maxCreatedMonth() {
+        return maxCreatedMonth;
+    }
+
+    /**
+     * @param fraction The percentile, between 0 and 1.
+     * @return The medical history length at the percentile (nearest rank); 0 if
+     *         empty.
+     */
+    public int historyLengthPercentile(double fraction) {
+        return percentile(sortedHistoryLengths, fraction);
+    }
+
+    /**
+     * @param fraction The percentile, between 0 and 1.
+     * @return The number of records per owner at the percentile (nearest
+     *         rank); 0 if empty.
+     */
+    public int recordsPerOwnerPercentile(double fraction) {
+        return percentile(sortedRecordsPerOwner, fraction);
+    }
+
+    /**
+     * @return When the snapshot was taken.
+     */
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return How long reading the records and building the columns took.
+     */
+    public Duration buildTime() {
+        return buildTime;
+    }
+
+    /**
+     * @return The size of the columns in memory, in bytes.
+     */
+    public long bytes() {
+        return 4L * ARRAY_HEADER_BYTES + 2L * ages.length + 4L * createdMonths.length
+                + 4L * sortedHistoryLengths.length + 4L * sortedRecordsPerOwner.length;
+    }
+
+    private static int percentile(int[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+    }
+
+    /**
+     * Accumulates rows into growable columns. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private short[] ages = new short[1024];
+        private int[] createdMonths = new int[1024];
+        private int[] historyLengths = new int[1024];
+        private final Map<String, int[]> recordsPerOwner = new HashMap<>();
+        private int size;
+        private int minCreatedMonth = Integer.MAX_VALUE;
+        private int maxCreatedMonth = Integer.MIN_VALUE;
+
+        Builder() {
+        }
+
+        /**
+         * @param ownerId       The owner; only used to count records per owner.
+         * @param age           The age.
+         * @param createdMonth  The creation month, as months since January 1970.
+         * @param historyLength The length of the medical history.
+         */
+        public void add(String ownerId, int age, int createdMonth, int historyLength) {
+            if (size == ages.length) {
+                int capacity = size * 2;
+                ages = Arrays.copyOf(ages, capacity);
+                createdMonths = Arrays.copyOf(createdMonths, capacity);
+                historyLengths = Arrays.copyOf(historyLengths, capacity);
+            }
+            ages[size] = (short) Math.max(0, Math.min(age, Short.MAX_VALUE));
+            createdMonths[size] = createdMonth;
+            historyLengths[size] = historyLength;
+            size++;
+            minCreatedMonth = Math.min(minCreatedMonth, createdMonth);
+            maxCreatedMonth = Math.max(maxCreatedMonth, createdMonth);
+            recordsPerOwner.computeIfAbsent(ownerId, id -> new int[1])[0]++;
+        }
+
+        /**
+         * Trims the columns and sorts the percentile columns (in parallel).
+         *
+         * @param builtAt      When reading the records started.
+         * @param startedNanos {@link System#nanoTime()} when reading started.
+         */
+        RecordSnapshot build(Instant builtAt, long startedNanos) {
+            int[] sortedHistoryLengths = Arrays.copyOf(historyLengths, size);
+            Arrays.parallelSort(sortedHistoryLengths);
+            int[] sortedRecordsPerOwner = recordsPerOwner.values().stream().mapToInt(count -> count[0]).toArray();
+            Arrays.parallelSort(sortedRecordsPerOwner);
+            boolean empty = size == 0;
+            return new RecordSnapshot(Arrays.copyOf(ages, size), Arrays.copyOf(createdMonths, size),
+                    sortedHistoryLengths, sortedRecordsPerOwner, empty ? 0 : minCreatedMonth,
+                    empty ? 0 : maxCreatedMonth, builtAt, Duration.ofNanos(System.nanoTime() - startedNanos));
+        }
+    }
+}
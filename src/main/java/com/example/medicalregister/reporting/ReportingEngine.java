@@ -0,0 +1,260 @@
+package com.example.medicalregister.reporting;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.medicalregister.dto.FleetReport;
+import com.example.medicalregister.dto.FleetReport.MonthlyGrowth;
+import com.example.medicalregister.dto.FleetReport.Percentiles;
+import com.example.medicalregister.dto.FleetReport.SnapshotInfo;
+import com.example.medicalregister.dto.RecordStatisticsSummary.AgeBucket;
+import com.example.medicalregister.statistics.RecordStatistics;
+
+/**
+ * Fleet-wide reports over the records of all owners, answered from an
+ * in-memory {@link RecordSnapshot} instead of the records table, so reports
+ * never compete with the application's queries.
+ * <p>
+ * The snapshot is built on the first report and rebuilt periodically, with one
+ * sequential read of the non-PHI columns; the new snapshot replaces the old one
+ * atomically, so reports running meanwhile finish on the old one. Aggregates
+ * are computed by a fork-join scan of the columns on a dedicated pool, split
+ * into ranges of {@link #SCAN_THRESHOLD} rows; percentiles are read from the
+ * sorted columns.
+ */
+public class ReportingEngine implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingEngine.class);
+
+    /**
+     * Rows scanned by one task without splitting further.
+     */
+    static final int SCAN_THRESHOLD = 1 << 16;
+
+    private static final String SNAPSHOT_SQL = "SELECT owner_id, age, created_at, CHAR_LENGTH(medical_history)"
+            + " FROM medical_record WHERE deleted = FALSE";
+
+    private final Consumer<RecordSnapshot.Builder> loader;
+    private final ForkJoinPool pool;
+    private final Clock clock;
+    private final AtomicReference<RecordSnapshot> current = new AtomicReference<>();
+    private final Timer refreshTimer;
+
+    /**
+     * @param loader      Adds every record to the builder.
+     * @param parallelism Threads of the scan pool.
+     * @param clock       Clock for the build time and the current month.
+     * @param registry    Registry for the snapshot size and refresh metrics.
+     */
+    public ReportingEngine(Consumer<RecordSnapshot.Builder> loader, int parallelism, Clock clock,
+            MeterRegistry registry) {
+        this.loader = loader;
+        this.pool = new ForkJoinPool(parallelism);
+        this.clock = clock;
+        this.refreshTimer = Timer.builder("medical_records.reporting.refresh")
+                .description("Duration of building the reporting snapshot from the database")
+                .register(registry);
+        Gauge.builder("medical_records.reporting.snapshot.size", current,
+                reference -> reference.get() != null ? reference.get().bytes() : 0)
+                .description("Memory used by the columns of the reporting snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("medical_records.reporting.snapshot.records", current,
+                reference -> reference.get() != null ? reference.get().size() : 0)
+                .description("Records in the reporting snapshot")
+                .register(registry);
+    }
+
+    /**
+     * Reads the records with one query, streaming the rows into the builder;
+     * the medical history itself is never read, only its length.
+     *
+     * @param jdbcTemplate Template on the application's data source, with the
+     *                     fetch size to stream with.
+     * @return A loader for {@link #ReportingEngine}.
+     */
+    public static Consumer<RecordSnapshot.Builder> jdbcLoader(JdbcTemplate jdbcTemplate) {
+        return builder -> jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+            builder.add(rs.getString(1), rs.getInt(2), monthOf(rs.getTimestamp(3).toLocalDateTime()), rs.getInt(4));
+        });
+    }
+
+    /**
+     * Builds a new snapshot and replaces the current one. On failure, the
+     * current snapshot is kept.
+     */
+    @Scheduled(fixedDelayString = "${medical-register.reporting.refresh-interval:PT15M}",
+            initialDelayString = "${medical-register.reporting.refresh-initial-delay:PT2M}")
+    public void refresh() {
+        try {
+            build();
+        } catch (RuntimeException e) {
+            logger.error("Could not refresh the reporting snapshot; keeping the one built at {}.",
+                    current.get() != null ? current.get().builtAt() : null, e);
+        }
+    }
+
+    /**
+     * @return The current snapshot, built now if there is none yet.
+     */
+    public RecordSnapshot snapshot() {
+        RecordSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : build();
+        }
+    }
+
+    private synchronized RecordSnapshot build() {
+        Instant builtAt = clock.instant();
+        long started = System.nanoTime();
+        RecordSnapshot snapshot = refreshTimer.record(() -> {
+            RecordSnapshot.Builder builder = new RecordSnapshot.Builder();
+            loader.accept(builder);
+            return builder.build(builtAt, started);
+        });
+        current.set(snapshot);
+        logger.info("Built the reporting snapshot of {} records in {} ms ({} bytes).", snapshot.size(),
+                snapshot.buildTime().toMillis(), snapshot.bytes());
+        return snapshot;
+    }
+
+    /**
+     * Computes the report from the current snapshot.
+     *
+     * @param months The number of months of growth to return, up to and
+     *               including the current one.
+     * @return The report.
+     */
+    public FleetReport report(int months) {
+        RecordSnapshot snapshot = snapshot();
+        Partial scan = pool.invoke(new ScanTask(snapshot, 0, snapshot.size()));
+
+        List<AgeBucket> ageHistogram = new ArrayList<>(RecordStatistics.AGE_BUCKETS);
+        for (int i = 0; i < RecordStatistics.AGE_BUCKETS; i++) {
+            Integer maxAge = i < RecordStatistics.AGE_BUCKETS - 1 ? (i + 1) * RecordStatistics.AGE_BUCKET_WIDTH - 1
+                    : null;
+            ageHistogram.add(new AgeBucket(i * RecordStatistics.AGE_BUCKET_WIDTH, maxAge, scan.ages[i]));
+        }
+
+        int lastMonth = monthOf(LocalDateTime.now(clock));
+        int firstMonth = lastMonth - months + 1;
+        long cumulative = 0;
+        for (int month = snapshot.minCreatedMonth(); month < firstMonth && month <= snapshot.maxCreatedMonth();
+                month++) {
+            cumulative += scan.createdIn(snapshot, month);
+        }
+        List<MonthlyGrowth> growth = new ArrayList<>(months);
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            long created = scan.createdIn(snapshot, month);
+            cumulative += created;
+            growth.add(new MonthlyGrowth(yearMonthOf(month), created, cumulative));
+        }
+
+        return new FleetReport(
+                new SnapshotInfo(snapshot.builtAt(), snapshot.buildTime().toMillis(), snapshot.bytes()),
+                snapshot.size(), snapshot.owners(), ageHistogram, growth,
+                new Percentiles(snapshot.historyLengthPercentile(0.5), snapshot.historyLengthPercentile(0.9),
+                        snapshot.historyLengthPercentile(0.99), snapshot.historyLengthPercentile(1)),
+                new Percentiles(snapshot.recordsPerOwnerPercentile(0.5), snapshot.recordsPerOwnerPercentile(0.9),
+                        snapshot.recordsPerOwnerPercentile(0.99), snapshot.recordsPerOwnerPercentile(1)));
+    }
+
+    /**
+     * Shuts the scan pool down.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    static int monthOf(LocalDateTime dateTime) {
+        return (dateTime.getYear() - 1970) * 12 + dateTime.getMonthValue() - 1;
+    }
+
+    static YearMonth yearMonthOf(int month) {
+        return YearMonth.of(1970 + Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1);
+    }
+
+    /**
+     * Counts of a range of rows: per age bucket, and per creation month from
+     * the snapshot's earliest month.
+     */
+    private static final class Partial {
+
+        private final long[] ages = new long[RecordStatistics.AGE_BUCKETS];
+        private final long[] createdMonths;
+
+        private Partial(RecordSnapshot snapshot) {
+            createdMonths = new long[snapshot.size() > 0 ? snapshot.maxCreatedMonth() - snapshot.minCreatedMonth() + 1
+                    : 0];
+        }
+
+        private long createdIn(RecordSnapshot snapshot, int month) {
+            int index = month - snapshot.minCreatedMonth();
+            return index >= 0 && index < createdMonths.length ? createdMonths[index] : 0;
+        }
+
+        private Partial add(Partial other) {
+            for (int i = 0; i < ages.length; i++) {
+                ages[i] += other.ages[i];
+            }
+            for (int i = 0; i < createdMonths.length; i++) {
+                createdMonths[i] += other.createdMonths[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Partial> {
+
+        private final RecordSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private ScanTask(RecordSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > SCAN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ScanTask left = new ScanTask(snapshot, from, middle);
+                left.fork();
+                Partial right = new ScanTask(snapshot, middle, to).compute();
+                return left.join().add(right);
+            }
+            Partial partial = new Partial(snapshot);
+            int lastBucket = RecordStatistics.AGE_BUCKETS - 1;
+            int minMonth = snapshot.minCreatedMonth();
+            for (int row = from; row < to; row++) {
+                partial.ages[Math.min(snapshot.age(row) / RecordStatistics.AGE_BUCKET_WIDTH, lastBucket)]++;
+                partial.createdMonths[snapshot.createdMonth(row) - minMonth]++;
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.model.IdempotencyKey;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for {@link IdempotencyKey} rows. Expired rows are
+ * deleted in batches by the {@code IdempotencyKeyCleaner}.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Stores the response of a claimed key and extends its expiry. A claim is
+     * identified by its lease expiry, so a claim that expired and was taken
+     * over by another request is not completed.
+     *
+     * @return The number of rows updated: 0 if the claim no longer exists.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseStatus = :status, k.responseLocation = :location,"
+            + " k.responseBody = :body, k.expiresAt = :expiresAt"
+            + " WHERE k.id = :id AND k.expiresAt = :leasedUntil AND k.responseStatus IS NULL")
+    int complete(@Param("id") String id, @Param("leasedUntil") Instant leasedUntil, @Param("status") int status,
+            @Param("location") String location, @Param("body") byte[] body, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Deletes a claim whose request failed, so that it can be retried. Like
+     * {@link #complete}, only the claim with the given lease expiry is deleted.
+     *
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k"
+            + " WHERE k.id = :id AND k.expiresAt = :leasedUntil AND k.responseStatus IS NULL")
+    int release(@Param("id") String id, @Param("leasedUntil") Instant leasedUntil);
+
+    /**
+     * Deletes the key if it has expired but was not yet cleaned up.
+     *
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.expiresAt < :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") Instant now);
+}
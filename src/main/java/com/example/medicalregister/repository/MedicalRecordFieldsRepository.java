@@ -0,0 +1,42 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.model.MedicalRecord;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Queries of {@link MedicalRecord}s that select only some of their columns,
+ * for sparse fieldsets of the API ({@code ?fields=name,age}). Part of
+ * {@link MedicalRecordRepository}.
+ */
+public interface MedicalRecordFieldsRepository {
+
+    /**
+     * Finds a page of the records matching a specification, selecting only
+     * some of their attributes.
+     *
+     * @param spec       The records to find.
+     * @param attributes The names of the attributes to select.
+     * @param pageable   Pagination and sorting information.
+     * @return A page of rows, each mapping the attribute names to their values
+     *         in the order of {@code attributes}.
+     */
+    Page<Map<String, Object>> findFields(Specification<MedicalRecord> spec, List<String> attributes,
+            Pageable pageable);
+
+    /**
+     * Finds all records matching a specification, selecting only some of their
+     * attributes.
+     *
+     * @param spec       The records to find.
+     * @param attributes The names of the attributes to select.
+     * @return The rows, each mapping the attribute names to their values in the
+     *         order of {@code attributes}, in no particular order.
+     */
+    List<Map<String, Object>> findFields(Specification<MedicalRecord> spec, List<String> attributes);
+}
@@ -0,0 +1,96 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.model.MedicalRecord;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Implements {@link MedicalRecordFieldsRepository} with criteria queries whose
+ * select list holds only the requested attributes, so the columns that are not
+ * requested (typically the medical history) are not read from the database.
+ * Rows are returned as maps rather than entities: a partially loaded
+ * {@link MedicalRecord} would look like a record with empty fields, and would
+ * be managed by the persistence context.
+ * <p>
+ * The entity's {@code @SQLRestriction} applies as to any query of the entity,
+ * so soft-deleted records are not found.
+ */
+class MedicalRecordFieldsRepositoryImpl implements MedicalRecordFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    MedicalRecordFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<MedicalRecord> spec, List<String> attributes,
+            Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<MedicalRecord> root = select(query, spec, attributes);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> rows = toRows(typedQuery.getResultList(), attributes);
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<MedicalRecord> spec, List<String> attributes) {
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        select(query, spec, attributes);
+        return toRows(entityManager.createQuery(query).getResultList(), attributes);
+    }
+
+    private Root<MedicalRecord> select(CriteriaQuery<Tuple> query, Specification<MedicalRecord> spec,
+            List<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Root<MedicalRecord> root = query.from(MedicalRecord.class);
+        List<Selection<?>> selections = attributes.stream()
+                .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+                .toList();
+        query.multiselect(selections);
+        query.where(spec.toPredicate(root, query, cb));
+        return root;
+    }
+
+    private long count(Specification<MedicalRecord> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<MedicalRecord> root = query.from(MedicalRecord.class);
+        query.select(cb.count(root)).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> attributes) {
+        return tuples.stream().map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String attribute : attributes) {
+                row.put(attribute, tuple.get(attribute));
+            }
+            return row;
+        }).toList();
+    }
+}
@@ -2,19 +2,30 @@ package com.example.medicalregister.repository;
 
 import com.example.medicalregister.model.MedicalRecord;
 
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for {@link MedicalRecord} entities. Provides CRUD
- * operations and custom finder methods.
+ * operations and custom finder methods; filtered queries are built with
+ * {@link MedicalRecordSpecifications}, and queries selecting only some columns
+ * in {@link MedicalRecordFieldsRepository}.
  */
 @Repository
-public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
+public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long>,
+        JpaSpecificationExecutor<MedicalRecord>, MedicalRecordFieldsRepository {
     /**
      * Finds a page of medical records owned by a specific user.
      * 
@@ -35,6 +46,19 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
      */
     Optional<MedicalRecord> findByIdAndOwnerId(Long id, String ownerId);
 
+    /**
+     * Finds a specific medical record owned by the specified user, and locks
+     * its row until the transaction ends, so that concurrent writes of the
+     * record are serialized.
+     * 
+     * @param id      The ID of the medical record.
+     * @param ownerId The identifier of the owner.
+     * @return An {@link Optional} containing the medical record if found and owned,
+     *         otherwise empty.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<MedicalRecord> findLockedByIdAndOwnerId(Long id, String ownerId);
+
     /**
      * Checks if a medical record exists with the given ID and is owned by the
      * specified user.
@@ -44,4 +68,25 @@ public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Lo
      * @return True if such a record exists, false otherwise.
      */
     boolean existsByIdAndOwnerId(Long id, String ownerId);
+
+    /**
+     * Finds the names of all medical records owned by a specific user, for the
+     * name suggestion index.
+     *
+     * @param ownerId The identifier of the owner.
+     * @return The names, in no particular order and with duplicates.
+     */
+    @Query("SELECT r.name FROM MedicalRecord r WHERE r.ownerId = :ownerId")
+    List<String> findNamesByOwnerId(String ownerId);
+
+    /**
+     * Sets the name key of records stored before it existed (or written by
+     * other means than JPA), including soft-deleted ones.
+     *
+     * @return The number of records updated.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE medical_record SET name_key = LOWER(name) WHERE name_key IS NULL", nativeQuery = true)
+    int backfillNameKeys();
 }
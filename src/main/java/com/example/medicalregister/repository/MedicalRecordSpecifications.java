@@ -0,0 +1,95 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.model.MedicalRecord;
+
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Query specifications for {@link MedicalRecord}s. Every predicate is a range
+ * on a column that has a composite index starting with the owner, so a query
+ * is an index range scan within the owner's records.
+ */
+public final class MedicalRecordSpecifications {
+
+    private MedicalRecordSpecifications() {
+    }
+
+    /**
+     * Matches the owner's records that match the filter.
+     * <p>
+     * The name prefix is matched as a range on the lower-case name key
+     * ({@code prefix <= nameKey < next prefix}) rather than with {@code LIKE},
+     * so the index is used with a bound parameter and no wildcard in the name
+     * needs escaping.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param filter  The filter.
+     * @return The specification.
+     */
+    public static Specification<MedicalRecord> matching(String ownerId, RecordFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("ownerId"), ownerId));
+            if (filter.ageMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("age"), filter.ageMin()));
+            }
+            if (filter.ageMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("age"), filter.ageMax()));
+            }
+            if (filter.name() != null) {
+                String prefix = MedicalRecord.nameKeyOf(filter.name());
+                predicates.add(cb.greaterThanOrEqualTo(root.get("nameKey"), prefix));
+                String upperBound = prefixUpperBound(prefix);
+                if (upperBound != null) {
+                    predicates.add(cb.lessThan(root.get("nameKey"), upperBound));
+                }
+            }
+            if (filter.createdFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+            }
+            if (filter.createdTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.createdTo()));
+            }
+            if (filter.updatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filter.updatedFrom()));
+            }
+            if (filter.updatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("updatedAt"), filter.updatedTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Matches the owner's records with the given ids, by primary key.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param ids     The ids; must not be empty.
+     * @return The specification.
+     */
+    public static Specification<MedicalRecord> ownedWithIds(String ownerId, Collection<Long> ids) {
+        return (root, query, cb) -> cb.and(root.get("id").in(ids), cb.equal(root.get("ownerId"), ownerId));
+    }
+
+    /**
+     * @return The smallest string greater than every string starting with
+     *         {@code prefix}, or null if there is none.
+     */
+    static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+}
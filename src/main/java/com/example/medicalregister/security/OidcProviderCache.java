@@ -0,0 +1,277 @@
+package com.example.medicalregister.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+/**
+ * Cache of the identity provider's OpenID Connect metadata (discovery
+ * document) and signing keys (JWK set), persisted to a file so that the
+ * application can start, and validate tokens, without reaching the provider.
+ * <ul>
+ * <li>On startup, the cache file is loaded if present and refreshed in the
+ * background; only when there is no usable file is the provider contacted
+ * synchronously.</li>
+ * <li>Reads never wait for the network: once the data is older than
+ * {@code refreshInterval}, it is still returned and a background refresh is
+ * started (stale-while-revalidate).</li>
+ * <li>A token signed with a key that is not in the cached set (e.g. after key
+ * rotation) triggers an immediate refresh, at most once per
+ * {@code minRefreshInterval}.</li>
+ * <li>A failed refresh keeps the cached data.</li>
+ * </ul>
+ * Implements {@link JWKSource}, so it serves keys to the JWT decoders for ID
+ * tokens and API bearer tokens.
+ */
+public class OidcProviderCache implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OidcProviderCache.class);
+
+    private final String issuerUri;
+    private final Path cacheFile;
+    private final RestClient restClient;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oidc-provider-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+    private volatile long lastRefreshNanos;
+
+    /**
+     * @param issuerUri          Issuer; the discovery document is read from
+     *                           {@code <issuer>/.well-known/openid-configuration}.
+     * @param cacheDirectory     Directory of the cache file, created if missing.
+     * @param restClient         Client for the provider, with timeouts.
+     * @param refreshInterval    Age from which cached data is refreshed.
+     * @param minRefreshInterval Minimum time between refreshes triggered by
+     *                           unknown keys.
+     */
+    public OidcProviderCache(String issuerUri, Path cacheDirectory, RestClient restClient, Duration refreshInterval,
+            Duration minRefreshInterval) {
+        this.issuerUri = issuerUri;
+        this.cacheFile = cacheDirectory.resolve("oidc-provider-" + hash(issuerUri) + ".json");
+        this.restClient = restClient;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    /**
+     * Loads the cache file, or fetches from the provider if there is none.
+     *
+     * @throws IllegalStateException if there is no cache file and the provider
+     *                               cannot be reached.
+     */
+    public void initialize() {
+        Snapshot cached = load();
+        if (cached == null) {
+            refresh();
+            return;
+        }
+        snapshot = cached;
+        logger.info("Loaded OIDC provider metadata for {} from {} (fetched {}).", issuerUri, cacheFile,
+                cached.fetchedAt());
+        refreshInBackground();
+    }
+
+    /**
+     * @return The discovery document; never waits for the network.
+     */
+    public Map<String, Object> configuration() {
+        return current().configuration();
+    }
+
+    /**
+     * @return The issuer this cache is for.
+     */
+    public String getIssuerUri() {
+        return issuerUri;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(current().jwkSet());
+        if (keys.isEmpty() && System.nanoTime() - lastRefreshNanos >= minRefreshInterval.toNanos()) {
+            // Unknown key: the provider may have rotated its keys
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.warn("Could not refresh the JWK set of {}: {}", issuerUri, e.getMessage());
+            }
+            keys = jwkSelector.select(snapshot.jwkSet());
+        }
+        return keys;
+    }
+
+    /**
+     * Starts a background refresh if the cached data is older than the refresh
+     * interval, even when nothing reads it.
+     */
+    @Scheduled(fixedDelayString = "${medical-register.oidc.refresh-check-interval:PT5M}",
+            initialDelayString = "${medical-register.oidc.refresh-check-interval:PT5M}")
+    public void refreshIfStale() {
+        current();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current.fetchedAt().plus(refreshInterval).isBefore(Instant.now())) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    /**
+     * Starts a refresh on the background thread unless one is running.
+     *
+     * @return Whether a refresh was started.
+     */
+    public boolean refreshInBackground() {
+        if (refresher.isShutdown() || !refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        refresher.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.warn("Could not refresh OIDC provider metadata for {}; keeping data fetched {}: {}",
+                        issuerUri, snapshot.fetchedAt(), e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Stops background refreshes, waiting briefly for a running one to finish.
+     */
+    @Override
+    public void close() {
+        refresher.shutdown();
+        try {
+            refresher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetches the discovery document and JWK set and persists them.
+     *
+     * @throws IllegalStateException if the provider cannot be reached or returns
+     *                               invalid data.
+     */
+    public synchronized void refresh() {
+        lastRefreshNanos = System.nanoTime();
+        try {
+            Map<String, Object> configuration = restClient.get()
+                    .uri(issuerUri.endsWith("/") ? issuerUri + ".well-known/openid-configuration"
+                            : issuerUri + "/.well-known/openid-configuration")
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<Map<String, Object>>() {
+                    });
+            if (configuration == null || !issuerUri.equals(configuration.get("issuer"))) {
+                throw new IllegalStateException("Issuer in discovery document does not match " + issuerUri);
+            }
+            String jwks = restClient.get()
+                    .uri(String.valueOf(configuration.get("jwks_uri")))
+                    .retrieve()
+                    .body(String.class);
+            Snapshot fetched = new Snapshot(configuration, JWKSet.parse(jwks), Instant.now());
+            snapshot = fetched;
+            logger.debug("Fetched OIDC provider metadata and {} keys for {}.", fetched.jwkSet().size(), issuerUri);
+            persist(fetched);
+        } catch (RestClientException | ParseException e) {
+            throw new IllegalStateException("Could not fetch OIDC provider metadata from " + issuerUri, e);
+        }
+    }
+
+    private void persist(Snapshot fetched) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("issuer", issuerUri);
+        content.put("fetchedAt", fetched.fetchedAt().toString());
+        content.put("configuration", fetched.configuration());
+        content.put("jwks", fetched.jwkSet().toJSONObject(true)); // Public keys only
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temporary = Files.createTempFile(cacheFile.getParent(), "oidc-provider", ".tmp");
+            Files.write(temporary, objectMapper.writeValueAsBytes(content));
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write OIDC provider cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private Snapshot load() {
+        if (!Files.isReadable(cacheFile)) {
+            return null;
+        }
+        try {
+            Map<String, Object> content = objectMapper.readValue(cacheFile.toFile(),
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            if (!issuerUri.equals(content.get("issuer"))) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> configuration = (Map<String, Object>) content.get("configuration");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> jwks = (Map<String, Object>) content.get("jwks");
+            return new Snapshot(configuration, JWKSet.parse(jwks), Instant.parse((String) content.get("fetchedAt")));
+        } catch (IOException | ParseException | RuntimeException e) {
+            logger.warn("Ignoring unreadable OIDC provider cache {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Discovery document and keys as fetched at one point in time.
+     */
+    private record Snapshot(Map<String, Object> configuration, JWKSet jwkSet, Instant fetchedAt) {
+    }
+}
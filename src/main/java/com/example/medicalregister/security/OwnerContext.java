@@ -0,0 +1,104 @@
+package com.example.medicalregister.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Access to the {@link ResolvedOwner} of the current request. The owner is
+ * resolved from the security context once per request by
+ * {@link OwnerContextFilter} and held for the rest of the request on the
+ * request thread. Outside a request (or before the filter has run), it is
+ * resolved from {@link SecurityContextHolder} on every call.
+ * <p>
+ * Each thread keeps one {@link Slot} for its whole life, and a slot remembers
+ * the last {@link Authentication} it resolved. A logged-in user's
+ * authentication is the same object on every request of the session, so most
+ * requests reuse the resolved owner and bind it without allocating.
+ */
+public final class OwnerContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerContext.class);
+
+    private static final ThreadLocal<Slot> CURRENT = ThreadLocal.withInitial(Slot::new);
+
+    private OwnerContext() {
+    }
+
+    /**
+     * @return The owner of the current request, or {@link ResolvedOwner#ANONYMOUS}
+     *         if there is no authenticated user. Never null.
+     */
+    public static ResolvedOwner current() {
+        Slot slot = CURRENT.get();
+        return slot.bound ? slot.owner : resolve(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    /**
+     * Holds the owner of {@code authentication} for the current thread until
+     * {@link #unbind()}, so that calls to {@link #current()} during the request
+     * do not resolve it again. It is only resolved if the thread's previous
+     * request had a different authentication.
+     */
+    static void bind(Authentication authentication) {
+        Slot slot = CURRENT.get();
+        if (slot.owner == null || slot.authentication != authentication) {
+            slot.owner = resolve(authentication);
+            slot.authentication = authentication;
+        }
+        slot.bound = true;
+    }
+
+    static void unbind() {
+        CURRENT.get().bound = false;
+    }
+
+    /**
+     * Resolves the owner from an {@link Authentication}. This is the only place
+     * that reads the OAuth2 user's attributes or the bearer token's claims.
+     *
+     * @param authentication The current authentication, possibly null.
+     * @return The resolved owner, never null.
+     */
+    public static ResolvedOwner resolve(Authentication authentication) {
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return ResolvedOwner.ANONYMOUS;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof OAuth2User oauth2User) {
+            String sub = oauth2User.getAttribute("sub");
+            if (sub == null) {
+                logger.warn("'sub' attribute is null for OAuth2User. Available attributes: {}",
+                        oauth2User.getAttributes().keySet());
+            }
+            return new ResolvedOwner(sub, oauth2User.getAttribute("name"),
+                    authentication.isAuthenticated() ? sub : null, true);
+        }
+        if (principal instanceof Jwt jwt) {
+            // Stateless API request authenticated with a bearer token
+            String sub = jwt.getSubject();
+            return new ResolvedOwner(sub, jwt.getClaimAsString("name"), authentication.isAuthenticated() ? sub : null,
+                    true);
+        }
+        // Not an OAuth2 user: there is no 'sub', but auditing falls back to the
+        // principal's name.
+        logger.debug("Principal is not an OAuth2User. Principal type: {}.",
+                principal != null ? principal.getClass().getName() : "null");
+        boolean authenticated = authentication.isAuthenticated() && !"anonymousUser".equals(principal);
+        return new ResolvedOwner(null, null, authenticated ? authentication.getName() : null, false);
+    }
+
+    /**
+     * The owner bound to a thread, and the authentication it was resolved from.
+     */
+    private static final class Slot {
+
+        private Authentication authentication;
+        private ResolvedOwner owner;
+        private boolean bound;
+    }
+}
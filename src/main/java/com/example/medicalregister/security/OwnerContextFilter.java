@@ -0,0 +1,31 @@
+package com.example.medicalregister.security;
+
+import java.io.IOException;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+/**
+ * Resolves the {@link ResolvedOwner} of each request once, after
+ * authentication, and holds it for {@link OwnerContext} while the rest of the
+ * request is handled. Added to the security filter chain by
+ * {@code SecurityConfig}.
+ */
+public class OwnerContextFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        OwnerContext.bind(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            OwnerContext.unbind();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.medicalregister.security;
+
+/**
+ * The authenticated user as seen by the application, resolved once per request
+ * by {@link OwnerContextFilter} and shared by the service, auditing and
+ * controllers through {@link OwnerContext#current()}.
+ *
+ * @param sub        The 'sub' claim, used as the owner id of medical records;
+ *                   null if the principal is not an OAuth2 user or has no 'sub'.
+ * @param name       The 'name' attribute of the OAuth2 user (or claim of the
+ *                   bearer token), if any.
+ * @param auditor    The identifier written to {@code createdBy} and
+ *                   {@code lastModifiedBy}; null if there is no authenticated
+ *                   user.
+ * @param oauth2User Whether the principal is an OAuth2 user, either logged in
+ *                   or authenticated with a JWT bearer token.
+ */
+public record ResolvedOwner(String sub, String name, String auditor, boolean oauth2User) {
+
+    /**
+     * No authentication, or an anonymous one.
+     */
+    public static final ResolvedOwner ANONYMOUS = new ResolvedOwner(null, null, null, false);
+
+    /**
+     * @return The 'name' attribute, or "User" if it is missing.
+     */
+    public String displayName() {
+        return name != null ? name : "User";
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.medicalregister.security;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.medicalregister.startup.WarmUpToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates the warm-up requests of {@code WarmUpRunner} as the
+ * {@value #SCRATCH_OWNER} owner, who has no records. A request is only
+ * authenticated if it comes from the loopback interface and carries the
+ * current {@link WarmUpToken}, which exists only while the warm-up runs,
+ * before the application reports itself ready.
+ */
+public class WarmUpAuthenticationFilter extends OncePerRequestFilter {
+
+    /**
+     * 'sub' of the owner the warm-up requests act as.
+     */
+    public static final String SCRATCH_OWNER = "warm-up|scratch";
+
+    private static final Set<GrantedAuthority> AUTHORITIES = Set.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final WarmUpToken token;
+
+    public WarmUpAuthenticationFilter(WarmUpToken token) {
+        this.token = token;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (token.matches(request.getHeader(WarmUpToken.HEADER)) && isLoopback(request.getRemoteAddr())) {
+            OAuth2User principal = new DefaultOAuth2User(AUTHORITIES,
+                    Map.of("sub", SCRATCH_OWNER, "name", "Warm-up"), "sub");
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new OAuth2AuthenticationToken(principal, AUTHORITIES, "auth0"));
+            SecurityContextHolder.setContext(context);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isLoopback(String remoteAddress) throws IOException {
+        // The remote address is an IP literal, so this does not look up a host name
+        return remoteAddress != null && InetAddress.getByName(remoteAddress).isLoopbackAddress();
+    }
+}
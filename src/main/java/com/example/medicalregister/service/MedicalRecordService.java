@@ -1,20 +1,37 @@
 package com.example.medicalregister.service;
 
+import com.example.medicalregister.dto.RecordBatchRequest;
+import com.example.medicalregister.dto.RecordFields;
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.exception.InvalidQueryException;
 import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.logging.LogMarkers;
+import com.example.medicalregister.metrics.RecordOperationMetrics;
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.repository.MedicalRecordSpecifications;
+import com.example.medicalregister.security.OwnerContext;
+import com.example.medicalregister.statistics.RecordStatistics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
 /**
  * Service layer for managing medical records. Handles business logic, data
  * access, and security checks related to medical records.
@@ -24,41 +41,118 @@ import org.springframework.transaction.annotation.Transactional;
 public class MedicalRecordService {
     private static final Logger logger = LoggerFactory.getLogger(MedicalRecordService.class);
 
+    /**
+     * Upper bound on the names returned by {@link #suggestNames(String, int)}.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    /**
+     * Upper bound on the days of activity returned by
+     * {@link #getStatistics(int)}.
+     */
+    public static final int MAX_STATISTICS_DAYS = 90;
+
     private final MedicalRecordRepository medicalRecordRepository;
+    private final RecordOperationMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadCoalescer readCoalescer;
+    private final NameSuggestionIndex nameSuggestionIndex;
+    private final RecordStatistics recordStatistics;
 
     /**
      * Constructs the service with the medical record repository.
      * 
      * @param medicalRecordRepository The repository for data access.
+     * @param metrics                 Timers for each record operation.
+     * @param eventPublisher          Publishes a {@link RecordChangedEvent} after
+     *                                each write.
+     * @param readCoalescer           Lets identical concurrent reads share one
+     *                                query.
+     * @param nameSuggestionIndex     In-memory index of record names, for name
+     *                                suggestions.
+     * @param recordStatistics        Per-owner aggregates, updated with each
+     *                                write.
      */
-    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository) {
+    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository, RecordOperationMetrics metrics,
+            ApplicationEventPublisher eventPublisher, ReadCoalescer readCoalescer,
+            NameSuggestionIndex nameSuggestionIndex, RecordStatistics recordStatistics) {
         this.medicalRecordRepository = medicalRecordRepository;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.readCoalescer = readCoalescer;
+        this.nameSuggestionIndex = nameSuggestionIndex;
+        this.recordStatistics = recordStatistics;
     }
 
     /**
      * Retrieves all medical records for the currently authenticated user.
+     * Identical concurrent calls of the same user share one query (see
+     * {@link ReadCoalescer}); they do not open a transaction themselves, so
+     * waiting callers hold no database connection.
      *
      * @param pageable Pagination and sorting information.
      * @return A {@link Page} of {@link MedicalRecord}s.
      * @throws AccessDeniedException if the user is not authenticated or lacks a
      *                               'sub' claim.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Page<MedicalRecord> findAllRecords(Pageable pageable) {
-        String ownerId = getCurrentUserSub();
-        if (ownerId == null) {
-            logger.warn("Attempt to find all records without authenticated user or user without 'sub' claim.");
-            throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+        return metrics.record("find_all", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find all records without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            Page<MedicalRecord> records = readCoalescer.execute("find_all", ownerId, pageable,
+                    () -> medicalRecordRepository.findByOwnerId(ownerId, pageable));
+            logger.info(LogMarkers.ACCESS, "User {} retrieved page {} of {} records (total {} records).", ownerId,
+                    records.getNumber(), records.getNumberOfElements(), records.getTotalElements());
+            return records;
+        });
+    }
+
+    /**
+     * Retrieves the medical records of the currently authenticated user that
+     * match a filter. The filter is executed as a range scan on one of the
+     * owner-scoped composite indexes, so it may only constrain one column (see
+     * {@link RecordFilter}). Identical concurrent calls of the same user share
+     * one query.
+     *
+     * @param filter   The filter; if empty, all records are retrieved.
+     * @param pageable Pagination and sorting information.
+     * @return A {@link Page} of matching {@link MedicalRecord}s.
+     * @throws InvalidQueryException if the filter constrains several columns,
+     *                               has an empty range or a name prefix that is
+     *                               too long.
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<MedicalRecord> findRecords(RecordFilter filter, Pageable pageable) {
+        if (filter.isEmpty()) {
+            return findAllRecords(pageable);
         }
-        Page<MedicalRecord> records = medicalRecordRepository.findByOwnerId(ownerId, pageable);
-        logger.info("User {} retrieved page {} of {} records (total {} records).", ownerId, records.getNumber(),
-                records.getNumberOfElements(), records.getTotalElements());
-        return records;
+        return metrics.record("find_filtered", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find records without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            checkIndexable(filter);
+            Page<MedicalRecord> records = readCoalescer.execute("find_filtered", ownerId, List.of(filter, pageable),
+                    () -> medicalRecordRepository.findAll(MedicalRecordSpecifications.matching(ownerId, filter),
+                            pageable));
+            logger.info(LogMarkers.ACCESS,
+                    "User {} retrieved page {} of {} records filtered by {} (total {} records).", ownerId,
+                    records.getNumber(), records.getNumberOfElements(), filter.filteredColumns(),
+                    records.getTotalElements());
+            return records;
+        });
     }
 
     /**
      * Finds a specific medical record by its ID for the currently authenticated
-     * user.
+     * user. Identical concurrent calls of the same user share one query.
      * 
      * @param id The ID of the record to find.
      * @return The {@link MedicalRecord}.
@@ -66,20 +160,228 @@ public class MedicalRecordService {
      * @throws AccessDeniedException   if the user is not authenticated or lacks a
      *                                 'sub' claim.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public MedicalRecord findRecordById(Long id) {
-        String ownerId = getCurrentUserSub();
-        if (ownerId == null) {
-            logger.warn("Attempt to find record by id {} without authenticated user or user without 'sub' claim.", id);
-            throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view this record.");
-        }
-        MedicalRecord record = medicalRecordRepository.findByIdAndOwnerId(id, ownerId)
-                .orElseThrow(() -> {
-                    logger.warn("Record with ID {} not found for ownerId {}", id, ownerId);
-                    return new RecordNotFoundException("Medical record not found.");
-                });
-        logger.info("User {} retrieved medical record with ID: {}.", ownerId, id);
-        return record;
+        return metrics.record("find_by_id", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find record by id {} without authenticated user or user without 'sub' claim.",
+                        id);
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view this record.");
+            }
+            MedicalRecord record = readCoalescer.execute("find_by_id", ownerId, id,
+                    () -> medicalRecordRepository.findByIdAndOwnerId(id, ownerId))
+                    .orElseThrow(() -> {
+                        logger.warn("Record with ID {} not found for ownerId {}", id, ownerId);
+                        return new RecordNotFoundException("Medical record not found.");
+                    });
+            logger.info(LogMarkers.ACCESS, "User {} retrieved medical record with ID: {}.", ownerId, id);
+            return record;
+        });
+    }
+
+    /**
+     * Retrieves some properties of the currently authenticated user's records
+     * that match a filter, like {@link #findRecords(RecordFilter, Pageable)}.
+     * Only the columns of these properties are selected from the database.
+     *
+     * @param filter   The filter; if empty, all records are retrieved.
+     * @param pageable Pagination and sorting information.
+     * @param fields   The properties to retrieve.
+     * @return A {@link Page} of the matching records' properties, each mapping
+     *         the property names to their values.
+     * @throws InvalidQueryException if the filter cannot be executed (see
+     *                               {@link #findRecords(RecordFilter, Pageable)}).
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<Map<String, Object>> findRecordFields(RecordFilter filter, Pageable pageable, RecordFields fields) {
+        String operation = filter.isEmpty() ? "find_all" : "find_filtered";
+        return metrics.record(operation, () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find records without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            checkIndexable(filter);
+            Page<Map<String, Object>> records = readCoalescer.execute(operation, ownerId,
+                    List.of(filter, pageable, fields),
+                    () -> medicalRecordRepository.findFields(MedicalRecordSpecifications.matching(ownerId, filter),
+                            fields.names(), pageable));
+            logger.info(LogMarkers.ACCESS,
+                    "User {} retrieved fields {} of page {} of {} records filtered by {} (total {} records).",
+                    ownerId, fields, records.getNumber(), records.getNumberOfElements(), filter.filteredColumns(),
+                    records.getTotalElements());
+            return records;
+        });
+    }
+
+    /**
+     * Retrieves some properties of a specific medical record of the currently
+     * authenticated user, like {@link #findRecordById(Long)}. Only the columns
+     * of these properties are selected from the database.
+     *
+     * @param id     The ID of the record to find.
+     * @param fields The properties to retrieve.
+     * @return The record's properties, mapping their names to their values.
+     * @throws RecordNotFoundException if the record is not found for the user.
+     * @throws AccessDeniedException   if the user is not authenticated or lacks a
+     *                                 'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Object> findRecordFieldsById(Long id, RecordFields fields) {
+        return metrics.record("find_by_id", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find record by id {} without authenticated user or user without 'sub' claim.",
+                        id);
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view this record.");
+            }
+            List<Map<String, Object>> rows = readCoalescer.execute("find_by_id", ownerId, List.of(id, fields),
+                    () -> medicalRecordRepository.findFields(
+                            MedicalRecordSpecifications.ownedWithIds(ownerId, List.of(id)), fields.names()));
+            if (rows.isEmpty()) {
+                logger.warn("Record with ID {} not found for ownerId {}", id, ownerId);
+                throw new RecordNotFoundException("Medical record not found.");
+            }
+            logger.info(LogMarkers.ACCESS, "User {} retrieved fields {} of medical record with ID: {}.", ownerId,
+                    fields, id);
+            return rows.get(0);
+        });
+    }
+
+    /**
+     * Retrieves several medical records of the currently authenticated user by
+     * their IDs, with one query. IDs of records that do not exist or belong to
+     * another user are left out rather than failing the request.
+     *
+     * @param ids The IDs, at most {@value RecordBatchRequest#MAX_RECORDS};
+     *            duplicates are ignored.
+     * @return The records found, in the order of their first ID in {@code ids}.
+     * @throws InvalidQueryException if there are no IDs or too many.
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<MedicalRecord> findRecordsByIds(List<Long> ids) {
+        return metrics.record("find_by_ids", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find records by ids without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            List<Long> distinctIds = distinctIds(ids);
+            List<MedicalRecord> records = inOrderOf(distinctIds, medicalRecordRepository.findAll(
+                    MedicalRecordSpecifications.ownedWithIds(ownerId, distinctIds)), MedicalRecord::getId);
+            logger.info(LogMarkers.ACCESS, "User {} retrieved {} of {} requested medical records.", ownerId,
+                    records.size(), distinctIds.size());
+            return records;
+        });
+    }
+
+    /**
+     * Retrieves some properties of several medical records of the currently
+     * authenticated user by their IDs, like {@link #findRecordsByIds(List)}.
+     * Only the columns of these properties are selected from the database.
+     *
+     * @param ids    The IDs, at most {@value RecordBatchRequest#MAX_RECORDS};
+     *               duplicates are ignored.
+     * @param fields The properties to retrieve.
+     * @return The properties of the records found, each mapping the property
+     *         names to their values, in the order of their first ID in
+     *         {@code ids}.
+     * @throws InvalidQueryException if there are no IDs or too many.
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Map<String, Object>> findRecordFieldsByIds(List<Long> ids, RecordFields fields) {
+        return metrics.record("find_by_ids", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to find records by ids without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            List<Long> distinctIds = distinctIds(ids);
+            List<Map<String, Object>> records = inOrderOf(distinctIds, medicalRecordRepository.findFields(
+                    MedicalRecordSpecifications.ownedWithIds(ownerId, distinctIds), fields.names()),
+                    row -> (Long) row.get("id"));
+            logger.info(LogMarkers.ACCESS, "User {} retrieved fields {} of {} of {} requested medical records.",
+                    ownerId, fields, records.size(), distinctIds.size());
+            return records;
+        });
+    }
+
+    /**
+     * Suggests names of the currently authenticated user's records that start
+     * with a prefix, ignoring case, for type-ahead while entering a name. The
+     * names come from the in-memory {@link NameSuggestionIndex}; only the first
+     * lookup after a write queries the database.
+     *
+     * @param prefix The prefix typed so far; if blank, nothing is suggested.
+     * @param limit  The maximum number of names, at most
+     *               {@value #MAX_SUGGESTIONS}.
+     * @return The distinct matching names, in alphabetical order.
+     * @throws InvalidQueryException if the prefix is longer than
+     *                               {@link RecordFilter#MAX_NAME_PREFIX_LENGTH}
+     *                               or the limit is out of range.
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<String> suggestNames(String prefix, int limit) {
+        return metrics.record("suggest", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to suggest names without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            if (prefix != null && prefix.length() > RecordFilter.MAX_NAME_PREFIX_LENGTH) {
+                throw new InvalidQueryException(
+                        "The prefix must be at most " + RecordFilter.MAX_NAME_PREFIX_LENGTH + " characters.");
+            }
+            if (limit < 1 || limit > MAX_SUGGESTIONS) {
+                throw new InvalidQueryException("The limit must be between 1 and " + MAX_SUGGESTIONS + ".");
+            }
+            if (prefix == null || prefix.isBlank()) {
+                return List.of();
+            }
+            List<String> names = nameSuggestionIndex.suggest(ownerId, prefix.stripLeading(), limit);
+            logger.debug("User {} got {} name suggestions.", ownerId, names.size());
+            return names;
+        });
+    }
+
+    /**
+     * Retrieves aggregates of the currently authenticated user's records: their
+     * number, an age histogram and the records created and last updated per
+     * day. The aggregates are maintained with every write (see
+     * {@link RecordStatistics}), so reading them does not scan the records.
+     *
+     * @param days The number of days of activity, up to and including today;
+     *             at most {@value #MAX_STATISTICS_DAYS}.
+     * @return The aggregates.
+     * @throws InvalidQueryException if the number of days is out of range.
+     * @throws AccessDeniedException if the user is not authenticated or lacks a
+     *                               'sub' claim.
+     */
+    @Transactional(readOnly = true)
+    public RecordStatisticsSummary getStatistics(int days) {
+        return metrics.record("statistics", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to get statistics without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to view records.");
+            }
+            if (days < 1 || days > MAX_STATISTICS_DAYS) {
+                throw new InvalidQueryException("The number of days must be between 1 and " + MAX_STATISTICS_DAYS
+                        + ".");
+            }
+            RecordStatisticsSummary summary = recordStatistics.summary(ownerId, days);
+            logger.debug("User {} retrieved statistics of {} records.", ownerId, summary.totalRecords());
+            return summary;
+        });
     }
 
     /**
@@ -93,27 +395,73 @@ public class MedicalRecordService {
      *                               don't own.
      */
     public MedicalRecord saveRecord(MedicalRecord record) {
-        String ownerId = getCurrentUserSub();
-        if (ownerId == null) {
-            logger.warn("Attempt to save record without authenticated user or user without 'sub' claim.");
-            throw new AccessDeniedException("User must be authenticated with a 'sub' claim to save records.");
-        }
+        return metrics.record("save", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to save record without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to save records.");
+            }
 
-        boolean isNewRecord = record.getId() == null;
-        if (record.getId() != null) { // Existing record, check ownership
-            if (!medicalRecordRepository.existsByIdAndOwnerId(record.getId(), ownerId)) {
-                logger.warn("User {} attempted to update record {} they do not own.", ownerId, record.getId());
-                throw new AccessDeniedException("You do not have permission to update this record.");
+            boolean isNewRecord = record.getId() == null;
+            RecordStatistics.Snapshot before = null;
+            if (record.getId() != null) { // Existing record, check ownership
+                before = findOwnedSnapshot(record.getId(), ownerId)
+                        .orElseThrow(() -> {
+                            logger.warn("User {} attempted to update record {} they do not own.", ownerId,
+                                    record.getId());
+                            return new AccessDeniedException("You do not have permission to update this record.");
+                        });
             }
-        }
-        record.setOwnerId(ownerId); // Ensure ownerId is set to the current authenticated user
-        MedicalRecord savedRecord = medicalRecordRepository.save(record);
-        if (isNewRecord) {
-            logger.info("User {} created new medical record with ID: {}.", ownerId, savedRecord.getId());
-        } else {
-            logger.info("User {} updated medical record with ID: {}.", ownerId, savedRecord.getId());
-        }
-        return savedRecord;
+            record.setOwnerId(ownerId); // Ensure ownerId is set to the current authenticated user
+            MedicalRecord savedRecord = medicalRecordRepository.save(record);
+            recordStatistics.recordSaved(ownerId, before, savedRecord);
+            eventPublisher.publishEvent(new RecordChangedEvent(ownerId));
+            if (isNewRecord) {
+                logger.info("User {} created new medical record with ID: {}.", ownerId, savedRecord.getId());
+            } else {
+                logger.info("User {} updated medical record with ID: {}.", ownerId, savedRecord.getId());
+            }
+            return savedRecord;
+        });
+    }
+
+    /**
+     * Saves several medical records (creates new or updates existing) in one
+     * transaction: either all of them are saved, or none.
+     *
+     * @param records The {@link MedicalRecord}s to save.
+     * @return The saved {@link MedicalRecord}s, in the same order.
+     * @throws AccessDeniedException if the user is not authenticated, lacks a 'sub'
+     *                               claim, or attempts to update a record they
+     *                               don't own.
+     */
+    public List<MedicalRecord> saveRecords(List<MedicalRecord> records) {
+        return metrics.record("save_batch", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to save records without authenticated user or user without 'sub' claim.");
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to save records.");
+            }
+            List<RecordStatistics.Snapshot> before = new ArrayList<>(records.size());
+            for (MedicalRecord record : records) {
+                if (record.getId() == null) {
+                    before.add(null);
+                } else {
+                    before.add(findOwnedSnapshot(record.getId(), ownerId).orElseThrow(() -> {
+                        logger.warn("User {} attempted to update record {} they do not own.", ownerId,
+                                record.getId());
+                        return new AccessDeniedException("You do not have permission to update record "
+                                + record.getId() + ".");
+                    }));
+                }
+                record.setOwnerId(ownerId);
+            }
+            List<MedicalRecord> savedRecords = medicalRecordRepository.saveAll(records);
+            recordStatistics.recordsSaved(ownerId, before, savedRecords);
+            eventPublisher.publishEvent(new RecordChangedEvent(ownerId));
+            logger.info("User {} saved a batch of {} medical records.", ownerId, savedRecords.size());
+            return savedRecords;
+        });
     }
 
     /**
@@ -126,59 +474,114 @@ public class MedicalRecordService {
      *                                 'sub' claim, or does not own the record.
      */
     public void deleteRecordById(Long id) {
-        String ownerId = getCurrentUserSub();
-        if (ownerId == null) {
-            logger.warn("Attempt to delete record {} by unauthenticated user or user without 'sub' claim.", id);
-            throw new AccessDeniedException("User must be authenticated with a 'sub' claim to delete records.");
+        metrics.record("delete", () -> {
+            String ownerId = getCurrentUserSub();
+            if (ownerId == null) {
+                logger.warn("Attempt to delete record {} by unauthenticated user or user without 'sub' claim.", id);
+                throw new AccessDeniedException("User must be authenticated with a 'sub' claim to delete records.");
+            }
+            // First, load and lock the record if it belongs to the current user
+            Optional<RecordStatistics.Snapshot> before = findOwnedSnapshot(id, ownerId);
+            if (before.isEmpty()) {
+                // Then, tell a missing record from another user's.
+                // medicalRecordRepository.existsById(id) will respect the
+                // @Where(clause="deleted = false")
+                if (!medicalRecordRepository.existsById(id)) {
+                    logger.warn("Attempt by user {} to delete record ID {}: Record not found or already marked as "
+                            + "deleted.", ownerId, id);
+                    throw new RecordNotFoundException(
+                            "Medical record not found or has already been deleted with ID: " + id);
+                }
+                logger.warn("User {} attempted to delete record {} they do not own.", ownerId, id);
+                throw new AccessDeniedException("You do not have permission to delete this medical record.");
+            }
+
+            medicalRecordRepository.deleteById(id);
+            recordStatistics.recordDeleted(ownerId, before.get());
+            eventPublisher.publishEvent(new RecordChangedEvent(ownerId));
+            logger.info("User {} successfully soft-deleted medical record with ID: {}", ownerId, id);
+        });
+    }
+
+    /**
+     * Loads a record of the owner, for the values the statistics depend on
+     * before it is written. This is also the ownership check; the loaded record
+     * stays in the persistence context, so the following {@code save} or
+     * {@code deleteById} does not load it again. The record's row stays locked
+     * until the transaction ends: a concurrent update or delete of the record
+     * waits, and then sees this write, so both never apply their statistics
+     * deltas to the same values.
+     *
+     * @return The record's values, or empty if the owner has no such record.
+     */
+    private Optional<RecordStatistics.Snapshot> findOwnedSnapshot(Long id, String ownerId) {
+        return medicalRecordRepository.findLockedByIdAndOwnerId(id, ownerId).map(RecordStatistics.Snapshot::of);
+    }
+
+    /**
+     * @return The IDs without nulls and duplicates, in their order.
+     * @throws InvalidQueryException if there are none or more than
+     *                               {@value RecordBatchRequest#MAX_RECORDS}.
+     */
+    private static List<Long> distinctIds(List<Long> ids) {
+        List<Long> distinct = ids == null ? List.of()
+                : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            throw new InvalidQueryException("At least one id is required.");
         }
-        // First, check if the record exists and is not already soft-deleted.
-        // medicalRecordRepository.existsById(id) will respect the
-        // @Where(clause="deleted = false")
-        if (!medicalRecordRepository.existsById(id)) {
-            logger.warn("Attempt by user {} to delete record ID {}: Record not found or already marked as deleted.",
-                    ownerId, id);
-            throw new RecordNotFoundException("Medical record not found or has already been deleted with ID: " + id);
+        if (distinct.size() > RecordBatchRequest.MAX_RECORDS) {
+            throw new InvalidQueryException("At most " + RecordBatchRequest.MAX_RECORDS + " ids are allowed.");
         }
+        return distinct;
+    }
 
-        // Then, check if the record belongs to the current user
-        if (!medicalRecordRepository.existsByIdAndOwnerId(id, ownerId)) {
-            logger.warn("User {} attempted to delete record {} they do not own.", ownerId, id);
-            throw new AccessDeniedException("You do not have permission to delete this medical record.");
+    /**
+     * @return The found items in the order of their IDs in {@code ids}.
+     */
+    private static <T> List<T> inOrderOf(List<Long> ids, List<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T item : found) {
+            byId.put(idOf.apply(item), item);
         }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 
-        medicalRecordRepository.deleteById(id);
-        logger.info("User {} successfully soft-deleted medical record with ID: {}", ownerId, id);
+    /**
+     * Rejects filters that cannot be executed as a single index range scan.
+     */
+    private static void checkIndexable(RecordFilter filter) {
+        List<String> columns = filter.filteredColumns();
+        if (columns.size() > 1) {
+            throw new InvalidQueryException("Filters on " + String.join(" and ", columns)
+                    + " cannot be combined; filter on one of them at a time.");
+        }
+        if (filter.ageMin() != null && filter.ageMax() != null && filter.ageMin() > filter.ageMax()) {
+            throw new InvalidQueryException("ageMin must not be greater than ageMax.");
+        }
+        if (filter.createdFrom() != null && filter.createdTo() != null
+                && !filter.createdFrom().isBefore(filter.createdTo())) {
+            throw new InvalidQueryException("createdFrom must be before createdTo.");
+        }
+        if (filter.updatedFrom() != null && filter.updatedTo() != null
+                && !filter.updatedFrom().isBefore(filter.updatedTo())) {
+            throw new InvalidQueryException("updatedFrom must be before updatedTo.");
+        }
+        if (filter.name() != null && filter.name().length() > RecordFilter.MAX_NAME_PREFIX_LENGTH) {
+            throw new InvalidQueryException(
+                    "The name prefix must be at most " + RecordFilter.MAX_NAME_PREFIX_LENGTH + " characters.");
+        }
     }
 
     /**
      * Helper method to retrieve the 'sub' (subject) claim of the currently
      * authenticated OAuth2User. This 'sub' claim is used as the unique owner
-     * identifier for medical records.
+     * identifier for medical records. The owner is resolved once per request (see
+     * {@link OwnerContext}).
      * 
      * @return The 'sub' claim string, or null if not available or user not
      *         authenticated.
      */
     private String getCurrentUserSub() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) {
-            logger.warn("Authentication object is null in SecurityContextHolder.");
-            return null;
-        }
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof OAuth2User) {
-            OAuth2User oauth2User = (OAuth2User) principal;
-            logger.debug("OAuth2User principal found. Attributes: {}", oauth2User.getAttributes());
-            String sub = oauth2User.getAttribute("sub");
-            if (sub == null) {
-                logger.warn("'sub' attribute is null for OAuth2User. Available attributes: {}",
-                        oauth2User.getAttributes().keySet());
-            }
-            return sub;
-        } else {
-            logger.warn(
-                    "Could not get 'sub' claim, principal is not OAuth2User. Principal type: {}. Principal details: {}",
-                    principal != null ? principal.getClass().getName() : "null", principal);
-        }
-        return null;
+        return OwnerContext.current().sub();
     }
 }
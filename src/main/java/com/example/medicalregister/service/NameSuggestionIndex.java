@@ -0,0 +1,200 @@
+package com.example.medicalregister.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-memory prefix index of record names, per owner, for name suggestions
+ * while typing. An owner's index is a sorted array of their distinct names,
+ * searched by binary search, so a lookup never touches the database.
+ * <p>
+ * An owner's index is built on their first lookup, from one query for their
+ * names, and dropped whenever one of their records is written (see
+ * {@link RecordChangedEvent}), to be built again on the next lookup. As in
+ * {@link ReadCoalescer}, it is dropped both when the event is published and
+ * again when the transaction completes; dropping waits for a build that is
+ * running, so an index built from names read before the commit is never kept.
+ * <p>
+ * Indexes are evicted when their owner has not looked anything up for a
+ * while, and the least recently used ones when the total (estimated) size
+ * exceeds the limit.
+ */
+public class NameSuggestionIndex {
+
+    public static final String CACHE_NAME = "medical_records.suggestions";
+
+    private final Function<String, Collection<String>> nameLoader;
+    private final Cache<String, OwnerNames> indexes;
+    private final Timer lookupTimer;
+    private final Timer loadTimer;
+
+    /**
+     * @param nameLoader  Loads the names of an owner's records.
+     * @param maxBytes    Upper bound on the estimated size of all indexes.
+     * @param idleTimeout How long an owner's index is kept after their last
+     *                    lookup.
+     * @param registry    Registry for the lookup, build and cache metrics.
+     */
+    public NameSuggestionIndex(Function<String, Collection<String>> nameLoader, long maxBytes, Duration idleTimeout,
+            MeterRegistry registry) {
+        this.nameLoader = nameLoader;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String ownerId, OwnerNames names) -> names.weight())
+                .expireAfterAccess(idleTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        this.lookupTimer = Timer.builder(CACHE_NAME + ".lookup")
+                .description("Duration of name suggestion lookups in a built index")
+                .serviceLevelObjectives(Duration.ofNanos(100_000), Duration.ofNanos(250_000),
+                        Duration.ofNanos(500_000), Duration.ofMillis(1))
+                .register(registry);
+        this.loadTimer = Timer.builder(CACHE_NAME + ".load")
+                .description("Duration of building a name suggestion index from the database")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, indexes, CACHE_NAME);
+    }
+
+    /**
+     * Returns the owner's distinct record names starting with {@code prefix},
+     * ignoring case, in alphabetical order.
+     *
+     * @param ownerId The owner's 'sub' claim; never null.
+     * @param prefix  The prefix typed so far.
+     * @param limit   The maximum number of names to return.
+     * @return The matching names.
+     */
+    public List<String> suggest(String ownerId, String prefix, int limit) {
+        OwnerNames names = indexes.get(ownerId, this::load);
+        long started = System.nanoTime();
+        List<String> suggestions = names.startingWith(MedicalRecord.nameKeyOf(prefix), limit);
+        lookupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    /**
+     * Drops the owner's index as soon as a record is written, covering lookups
+     * within the same transaction.
+     */
+    @EventListener
+    public void onRecordChanged(RecordChangedEvent event) {
+        invalidate(event.ownerId());
+    }
+
+    /**
+     * Drops the owner's index again once the write is committed (or rolled
+     * back): an index built by another request before the commit may contain
+     * the names as they were.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onRecordChangeCompleted(RecordChangedEvent event) {
+        invalidate(event.ownerId());
+    }
+
+    private void invalidate(String ownerId) {
+        if (ownerId != null) {
+            indexes.invalidate(ownerId);
+        }
+    }
+
+    private OwnerNames load(String ownerId) {
+        return loadTimer.record(() -> OwnerNames.of(nameLoader.apply(ownerId)));
+    }
+
+    /**
+     * One owner's distinct names, sorted by their lower-case key. A name that
+     * is already in lower case is its own key, so it is stored once.
+     */
+    static final class OwnerNames {
+
+        private static final int ARRAY_BYTES = 16;
+        private static final int REFERENCE_BYTES = 8;
+        private static final int STRING_BYTES = 40;
+
+        private final String[] keys;
+        private final String[] names;
+        private final int weight;
+
+        private OwnerNames(String[] keys, String[] names, int weight) {
+            this.keys = keys;
+            this.names = names;
+            this.weight = weight;
+        }
+
+        static OwnerNames of(Collection<String> recordNames) {
+            String[] distinct = recordNames.stream()
+                    .filter(name -> name != null && !name.isEmpty())
+                    .distinct()
+                    .toArray(String[]::new);
+            String[] keys = new String[distinct.length];
+            for (int i = 0; i < distinct.length; i++) {
+                String key = MedicalRecord.nameKeyOf(distinct[i]);
+                keys[i] = key.equals(distinct[i]) ? distinct[i] : key;
+            }
+            Integer[] order = new Integer[distinct.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.<Integer, String>comparing(i -> keys[i]).thenComparing(i -> distinct[i]));
+
+            String[] sortedKeys = new String[order.length];
+            String[] sortedNames = new String[order.length];
+            long bytes = 2L * ARRAY_BYTES;
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys[order[i]];
+                sortedNames[i] = distinct[order[i]];
+                bytes += 2 * REFERENCE_BYTES + STRING_BYTES + 2L * sortedNames[i].length();
+                if (sortedKeys[i] != sortedNames[i]) {
+                    bytes += STRING_BYTES + 2L * sortedKeys[i].length();
+                }
+            }
+            return new OwnerNames(sortedKeys, sortedNames, (int) Math.min(Integer.MAX_VALUE, bytes));
+        }
+
+        List<String> startingWith(String prefixKey, int limit) {
+            List<String> matches = new ArrayList<>(Math.min(limit, 16));
+            for (int i = lowerBound(prefixKey); i < keys.length && matches.size() < limit
+                    && keys[i].startsWith(prefixKey); i++) {
+                matches.add(names[i]);
+            }
+            return matches;
+        }
+
+        /**
+         * @return The index of the first key not less than {@code key}.
+         */
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
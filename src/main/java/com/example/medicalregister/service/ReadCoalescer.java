@@ -0,0 +1,173 @@
+package com.example.medicalregister.service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Coalesces identical concurrent reads ("single flight"): while a query for an
+ * owner, operation and arguments is running, callers asking for the same
+ * result wait for it instead of running the query again. Nothing is cached;
+ * once the query is done, the next caller runs it again.
+ * <p>
+ * Keys always include the owner, so a caller can only ever join a query that
+ * is scoped to its own records. A caller arriving after one of the owner's
+ * records was written never joins a query started before the write: the
+ * owner's running queries are forgotten when a {@link RecordChangedEvent} is
+ * published and again when its transaction completes.
+ * <p>
+ * Each query runs in a read-only transaction, so a page and its count see the
+ * same data. The entities of a result shared with other callers are detached
+ * from the persistence context of the request that ran the query (which open
+ * session in view keeps open), so no thread uses another request's managed
+ * entities. A read within a transaction that is already running is never
+ * coalesced: it must see that transaction's own writes.
+ */
+public class ReadCoalescer {
+
+    public static final String COALESCED_COUNTER = "medical_records.reads.coalesced";
+
+    private final boolean enabled;
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final TransactionOperations readTransaction;
+    private final EntityManager entityManager;
+
+    /**
+     * @param enabled         Whether reads are coalesced; if not, every caller
+     *                        runs its own query.
+     * @param registry        Registry for the coalesced-reads counter.
+     * @param readTransaction Read-only transaction in which queries run.
+     * @param entityManager   Detaches the entities of shared results.
+     */
+    public ReadCoalescer(boolean enabled, MeterRegistry registry, TransactionOperations readTransaction,
+            EntityManager entityManager) {
+        this.enabled = enabled;
+        this.registry = registry;
+        this.readTransaction = readTransaction;
+        this.entityManager = entityManager;
+        Gauge.builder("medical_records.reads.in_flight", inFlight, ConcurrentMap::size)
+                .description("Distinct coalescable reads currently running")
+                .register(registry);
+    }
+
+    /**
+     * Runs the query, or waits for an identical one already running and returns
+     * its result (or throws its exception).
+     *
+     * @param operation Name of the read, also the metric tag (e.g.
+     *                  {@code find_all}).
+     * @param ownerId   The owner the query is scoped to; never null.
+     * @param arguments The query's arguments; must implement {@code equals}
+     *                  and {@code hashCode}.
+     * @param query     Runs the query.
+     * @return The query's result, shared with all coalesced callers; its
+     *         entities are detached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String ownerId, Object arguments, Supplier<T> query) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return readTransaction.execute(status -> query.get());
+        }
+        Key key = new Key(operation, ownerId, arguments);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            Counter.builder(COALESCED_COUNTER)
+                    .description("Reads served by an identical read of another caller that was already running")
+                    .tag("operation", operation)
+                    .register(registry)
+                    .increment();
+            return (T) await(running);
+        }
+        try {
+            T result = readTransaction.execute(status -> detach(query.get()));
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight); // May already be forgotten after a write
+        }
+    }
+
+    /**
+     * Forgets the owner's running reads as soon as a record is written, so reads
+     * within the same transaction do not join them.
+     */
+    @EventListener
+    public void onRecordChanged(RecordChangedEvent event) {
+        forget(event.ownerId());
+    }
+
+    /**
+     * Forgets the owner's running reads again once the write is committed (or
+     * rolled back): a read started by another request before the commit may
+     * return the records as they were.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onRecordChangeCompleted(RecordChangedEvent event) {
+        forget(event.ownerId());
+    }
+
+    private void forget(String ownerId) {
+        if (ownerId != null) {
+            inFlight.keySet().removeIf(key -> key.ownerId().equals(ownerId));
+        }
+    }
+
+    /**
+     * Detaches the entities of a result: an entity, an {@link Optional} of one,
+     * or an {@link Iterable} (e.g. a page) of them. Other values are returned
+     * as they are.
+     */
+    private <T> T detach(T result) {
+        if (result instanceof Optional<?> optional) {
+            optional.ifPresent(this::detachEntity);
+        } else if (result instanceof Iterable<?> elements) {
+            elements.forEach(this::detachEntity);
+        } else {
+            detachEntity(result);
+        }
+        return result;
+    }
+
+    private void detachEntity(Object value) {
+        if (value != null && value.getClass().isAnnotationPresent(Entity.class)) {
+            entityManager.detach(value);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String operation, String ownerId, Object arguments) {
+    }
+}
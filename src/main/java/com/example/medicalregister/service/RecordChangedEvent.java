@@ -0,0 +1,11 @@
+package com.example.medicalregister.service;
+
+/**
+ * Published by {@link MedicalRecordService} after it creates, updates or
+ * deletes a medical record, so that views derived from an owner's records can
+ * be invalidated.
+ *
+ * @param ownerId The 'sub' claim of the owner whose records changed.
+ */
+public record RecordChangedEvent(String ownerId) {
+}
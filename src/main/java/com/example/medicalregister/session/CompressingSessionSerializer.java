@@ -0,0 +1,111 @@
+package com.example.medicalregister.session;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+/**
+ * Serializes session attributes for the JDBC session store. Attributes are
+ * Java-serialized, as Spring Session does by default, and the result is
+ * deflated when it is at least {@code compressionThreshold} bytes long. The
+ * security context of an OAuth2 login (ID token, user attributes) is by far the
+ * largest attribute and typically shrinks to less than half.
+ * <p>
+ * Deflated values start with a one-byte marker; plain Java serialization
+ * always starts with {@code 0xACED}, so values written without compression
+ * (including by the default Spring Session serializer) remain readable.
+ * <p>
+ * Stored sizes are recorded in the {@value #SIZE_METRIC} summary, tagged by
+ * {@code encoding}.
+ */
+public class CompressingSessionSerializer implements Serializer<Object>, Deserializer<Object> {
+
+    public static final String SIZE_METRIC = "http.sessions.attribute.size";
+
+    private static final int DEFLATED = 0x01;
+
+    private final Serializer<Object> serializer = new DefaultSerializer();
+    private final Deserializer<Object> deserializer;
+    private final int compressionThreshold;
+    private final DistributionSummary plainSizes;
+    private final DistributionSummary deflatedSizes;
+
+    /**
+     * @param classLoader          Class loader for deserialization.
+     * @param compressionThreshold Serialized size from which values are deflated.
+     * @param registry             Registry for the size summary.
+     */
+    public CompressingSessionSerializer(ClassLoader classLoader, int compressionThreshold, MeterRegistry registry) {
+        this.deserializer = new DefaultDeserializer(classLoader);
+        this.compressionThreshold = compressionThreshold;
+        this.plainSizes = sizeSummary(registry, "java");
+        this.deflatedSizes = sizeSummary(registry, "deflate");
+    }
+
+    private static DistributionSummary sizeSummary(MeterRegistry registry, String encoding) {
+        return DistributionSummary.builder(SIZE_METRIC)
+                .description("Stored size of a session attribute")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(registry);
+    }
+
+    @Override
+    public void serialize(Object object, OutputStream outputStream) throws IOException {
+        byte[] serialized = serializer.serializeToByteArray(object);
+        if (serialized.length < compressionThreshold) {
+            plainSizes.record(serialized.length);
+            outputStream.write(serialized);
+            return;
+        }
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(serialized.length / 2);
+        deflated.write(DEFLATED);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(deflated, deflater)) {
+            out.write(serialized);
+        } finally {
+            deflater.end();
+        }
+        deflatedSizes.record(deflated.size());
+        deflated.writeTo(outputStream);
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException {
+        InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        in.mark(1);
+        if (in.read() != DEFLATED) {
+            in.reset();
+            return deserializer.deserialize(in);
+        }
+        try (InflaterInputStream inflated = new InflaterInputStream(in)) {
+            return deserializer.deserialize(inflated);
+        }
+    }
+
+    @Override
+    public byte[] serializeToByteArray(Object object) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        serialize(object, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserializeFromByteArray(byte[] serialized) throws IOException {
+        return deserialize(new ByteArrayInputStream(serialized));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.medicalregister.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Deletes expired sessions from the JDBC session store in small batches. Each
+ * batch is its own statement and transaction, so cleaning up a large backlog
+ * (e.g. after downtime) never holds locks on many rows at once or blocks
+ * session reads and writes for long. Attribute rows are removed by the
+ * {@code ON DELETE CASCADE} foreign key.
+ * <p>
+ * Every replica runs the cleaner; the deletes are idempotent, so this is safe.
+ */
+public class ExpiredSessionCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredSessionCleaner.class);
+
+    private static final String DELETE_EXPIRED_BATCH_SQL = "DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN"
+            + " (SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? FETCH FIRST ? ROWS ONLY)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter deleted;
+
+    /**
+     * @param jdbcTemplate     Template on the session store's data source.
+     * @param batchSize        Sessions deleted per statement.
+     * @param maxBatchesPerRun Upper bound on statements per run; the rest is
+     *                         left for the next run.
+     * @param registry         Registry for the deleted-sessions counter.
+     */
+    public ExpiredSessionCleaner(JdbcTemplate jdbcTemplate, int batchSize, int maxBatchesPerRun,
+            MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.deleted = Counter.builder("http.sessions.expired.deleted")
+                .description("Expired sessions deleted from the session store")
+                .register(registry);
+    }
+
+    /**
+     * Deletes sessions that expired before now.
+     *
+     * @return The number of sessions deleted.
+     */
+    @Scheduled(fixedDelayString = "${medical-register.session.cleanup-interval:PT1M}",
+            initialDelayString = "${medical-register.session.cleanup-interval:PT1M}")
+    public int deleteExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int count = jdbcTemplate.update(DELETE_EXPIRED_BATCH_SQL, now, batchSize);
+            total += count;
+            deleted.increment(count);
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.debug("Deleted {} expired sessions.", total);
+        }
+        return total;
+    }
+}
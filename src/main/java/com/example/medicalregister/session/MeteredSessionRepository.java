@@ -0,0 +1,70 @@
+package com.example.medicalregister.session;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+/**
+ * Times the reads and writes of a session repository. Each call is recorded in
+ * the {@value #TIMER_NAME} timer, tagged with the operation ({@code find},
+ * {@code save}, {@code delete} or {@code find_by_index}).
+ *
+ * @param <S> Session type of the repository.
+ */
+public class MeteredSessionRepository<S extends Session> implements FindByIndexNameSessionRepository<S> {
+
+    public static final String TIMER_NAME = "http.sessions.repository";
+
+    private final FindByIndexNameSessionRepository<S> delegate;
+    private final Timer findTimer;
+    private final Timer saveTimer;
+    private final Timer deleteTimer;
+    private final Timer findByIndexTimer;
+
+    public MeteredSessionRepository(FindByIndexNameSessionRepository<S> delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.findTimer = timer(registry, "find");
+        this.saveTimer = timer(registry, "save");
+        this.deleteTimer = timer(registry, "delete");
+        this.findByIndexTimer = timer(registry, "find_by_index");
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder(TIMER_NAME)
+                .description("Duration of session store reads and writes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public S createSession() {
+        return delegate.createSession(); // In memory until saved
+    }
+
+    @Override
+    public void save(S session) {
+        saveTimer.record(() -> delegate.save(session));
+    }
+
+    @Override
+    public S findById(String id) {
+        return findTimer.record((Supplier<S>) () -> delegate.findById(id));
+    }
+
+    @Override
+    public void deleteById(String id) {
+        deleteTimer.record(() -> delegate.deleteById(id));
+    }
+
+    @Override
+    public Map<String, S> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        return findByIndexTimer.record(
+                (Supplier<Map<String, S>>) () -> delegate.findByIndexNameAndIndexValue(indexName, indexValue));
+    }
+}
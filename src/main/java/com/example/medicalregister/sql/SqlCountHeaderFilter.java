@@ -0,0 +1,85 @@
+package com.example.medicalregister.sql;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Adds an {@value #HEADER} response header with the number of SQL statements
+ * executed while handling the request, e.g. {@code select=2, insert=0,
+ * update=1, delete=0, other=0}. The response body is buffered so that the
+ * header can still be set after the view has rendered, which is why this filter
+ * is for development only; it is enabled by
+ * {@code medical-register.sql.count-header.enabled}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "medical-register.sql.count-header.enabled", havingValue = "true")
+public class SqlCountHeaderFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlCountHeaderFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        CountingResponseWrapper wrapper = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.addCountHeader();
+            wrapper.copyBodyToResponse();
+        } finally {
+            logger.debug("{} {}: {} SQL statements ({}).", request.getMethod(), request.getRequestURI(),
+                    SqlStatementCounter.current().total(), SqlStatementCounter.current());
+            SqlStatementCounter.clear();
+        }
+    }
+
+    /**
+     * Sets the header before redirects and errors, which commit the response.
+     */
+    private static final class CountingResponseWrapper extends ContentCachingResponseWrapper {
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        void addCountHeader() {
+            if (!isCommitted()) {
+                setHeader(HEADER, SqlStatementCounter.current().toString());
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addCountHeader();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addCountHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addCountHeader();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.medicalregister.sql;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application {@link DataSource} in a datasource-proxy
+ * {@link ProxyDataSource} so that every statement passes through a
+ * {@link SqlStatementListener}.
+ */
+@Component
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlCountingDataSourcePostProcessor.class);
+
+    private final Environment environment;
+
+    // A BeanPostProcessor is created before @Value injection is available, so
+    // properties are read from the Environment when the DataSource is wrapped.
+    public SqlCountingDataSourcePostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            Duration threshold = environment.getProperty("medical-register.sql.slow-query-threshold", Duration.class,
+                    Duration.ofMillis(500));
+            logger.info("Counting SQL statements on DataSource '{}' (slow-query threshold {} ms).", beanName,
+                    threshold.toMillis());
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new SqlStatementListener(threshold))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.medicalregister.sql;
+
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Counts the SQL statements executed on the current thread, by statement type.
+ * Counts are accumulated by {@link SqlStatementListener} and reset at the start
+ * of each HTTP request by {@link SqlCountHeaderFilter}; tests reset them around
+ * the operation under test.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Resets the counts of the current thread to zero.
+     */
+    public static void reset() {
+        COUNTS.get().clear();
+    }
+
+    /**
+     * @return A snapshot of the counts of the current thread.
+     */
+    public static SqlStatementCounts current() {
+        Counts counts = COUNTS.get();
+        return new SqlStatementCounts(counts.select, counts.insert, counts.update, counts.delete, counts.other);
+    }
+
+    /**
+     * Removes the counts of the current thread (pooled threads are reused).
+     */
+    public static void clear() {
+        COUNTS.remove();
+    }
+
+    static void increment(QueryType type) {
+        Counts counts = COUNTS.get();
+        switch (type) {
+            case SELECT -> counts.select++;
+            case INSERT -> counts.insert++;
+            case UPDATE -> counts.update++;
+            case DELETE -> counts.delete++;
+            default -> counts.other++;
+        }
+    }
+
+    private static final class Counts {
+        private int select;
+        private int insert;
+        private int update;
+        private int delete;
+        private int other;
+
+        private void clear() {
+            select = 0;
+            insert = 0;
+            update = 0;
+            delete = 0;
+            other = 0;
+        }
+    }
+}
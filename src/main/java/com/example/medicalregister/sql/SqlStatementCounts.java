@@ -0,0 +1,20 @@
+package com.example.medicalregister.sql;
+
+/**
+ * Number of SQL statements executed, by type.
+ */
+public record SqlStatementCounts(int select, int insert, int update, int delete, int other) {
+
+    /**
+     * @return The number of statements of all types.
+     */
+    public int total() {
+        return select + insert + update + delete + other;
+    }
+
+    @Override
+    public String toString() {
+        return "select=" + select + ", insert=" + insert + ", update=" + update + ", delete=" + delete + ", other="
+                + other;
+    }
+}
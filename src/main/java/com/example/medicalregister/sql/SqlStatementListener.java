@@ -0,0 +1,49 @@
+package com.example.medicalregister.sql;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Datasource-proxy listener that counts every executed statement in
+ * {@link SqlStatementCounter} and logs statements slower than a threshold. The
+ * slow-query log contains the SQL text with its {@code ?} placeholders only,
+ * never the bound parameters, so no record content ends up in the logs.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    private final long slowQueryThresholdMillis;
+
+    /**
+     * @param slowQueryThreshold Statements taking at least this long are logged
+     *                           at WARN.
+     */
+    public SqlStatementListener(Duration slowQueryThreshold) {
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nothing to do before execution.
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementCounter.increment(QueryUtils.getQueryType(queryInfo.getQuery()));
+        }
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            logger.warn("Slow SQL ({} ms, batch size {}): {}", execInfo.getElapsedTime(), execInfo.getBatchSize(),
+                    queryInfoList.stream().map(QueryInfo::getQuery).toList());
+        }
+    }
+}
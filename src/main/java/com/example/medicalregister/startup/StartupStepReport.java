@@ -0,0 +1,87 @@
+package com.example.medicalregister.startup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Logs the slowest startup steps (bean instantiations, configuration class
+ * parsing, context refresh phases...) once the application is ready.
+ * <p>
+ * Steps are only recorded when {@link #isEnabled()}, since recording costs
+ * some startup time itself; the main class then installs a
+ * {@link BufferingApplicationStartup}. A step's duration includes its nested
+ * steps, e.g. a bean's dependencies.
+ */
+public class StartupStepReport implements ApplicationListener<ApplicationReadyEvent> {
+
+    /**
+     * System property enabling the report; alternatively, the
+     * {@code STARTUP_REPORT} environment variable.
+     */
+    public static final String ENABLED_PROPERTY = "medical-register.startup.report";
+
+    /**
+     * Maximum number of recorded steps; later steps are dropped.
+     */
+    public static final int CAPACITY = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupStepReport.class);
+
+    private final int limit;
+
+    /**
+     * @param limit Number of steps to report.
+     */
+    public StartupStepReport(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return Whether startup steps should be recorded; read before the
+     *         application context exists.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, System.getenv("STARTUP_REPORT")));
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            logger.info("Startup took {} ms; slowest steps:{}", event.getTimeTaken().toMillis(),
+                    format(startup.drainBufferedTimeline()));
+        }
+    }
+
+    /**
+     * @param timeline Recorded steps.
+     * @return One line per step, slowest first, at most {@code limit}.
+     */
+    String format(StartupTimeline timeline) {
+        List<TimelineEvent> events = timeline.getEvents();
+        return events.stream()
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .map(event -> String.format("%n%8d ms  %s%s", event.getDuration().toMillis(),
+                        event.getStartupStep().getName(), tags(event.getStartupStep())))
+                .collect(Collectors.joining())
+                + String.format("%n(%d steps recorded)", events.size());
+    }
+
+    private static String tags(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> !"beanType".equals(tag.getKey())) // Redundant with beanName, and long
+                .map(tag -> " " + tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.medicalregister.startup;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.medicalregister.security.WarmUpAuthenticationFilter;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Warms up a new instance before it reports itself ready, so that the first
+ * user requests do not pay for the JIT compiler, Hibernate query plans,
+ * Thymeleaf template parsing and database connections.
+ * <ol>
+ * <li>Opens the Hikari pool's minimum idle connections.</li>
+ * <li>Sends requests over the loopback interface to the record list, get,
+ * create (rejected by validation, so nothing is stored) and web page
+ * endpoints, as the {@link WarmUpAuthenticationFilter#SCRATCH_OWNER} owner,
+ * until {@code iterations} rounds are done or the time budget is spent.</li>
+ * </ol>
+ * Runs as an {@link ApplicationRunner}: Spring Boot only switches the readiness
+ * state to {@link ReadinessState#ACCEPTING_TRAFFIC} after all runners
+ * complete. The warm-up never fails startup; errors stop it early and are
+ * logged.
+ */
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final DataSource dataSource;
+    private final WarmUpToken token;
+    private final int iterations;
+    private final Duration timeBudget;
+
+    private volatile WarmUpResult lastResult;
+
+    /**
+     * @param context    The application context, for the server port and
+     *                   readiness state.
+     * @param dataSource The application's data source.
+     * @param token      Token authenticating the warm-up requests.
+     * @param iterations Maximum rounds of warm-up requests.
+     * @param timeBudget Maximum duration of the warm-up.
+     */
+    public WarmUpRunner(ConfigurableApplicationContext context, DataSource dataSource, WarmUpToken token,
+            int iterations, Duration timeBudget) {
+        this.context = context;
+        this.dataSource = dataSource;
+        this.token = token;
+        this.iterations = iterations;
+        this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        long started = System.nanoTime();
+        long deadline = started + timeBudget.toNanos();
+
+        int connections = prefillConnectionPool();
+        Integer port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+        int rounds = 0;
+        int requests = 0;
+        int failures = 0;
+        if (port == null) {
+            logger.info("No web server running; skipping warm-up requests.");
+        } else {
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .cookieHandler(new CookieManager()) // One session for all page requests
+                    .build();
+            String secret = token.issue();
+            try {
+                List<HttpRequest> round = round(port, secret);
+                while (rounds < iterations && failures == 0 && System.nanoTime() < deadline) {
+                    for (HttpRequest request : round) {
+                        requests++;
+                        if (!send(client, request)) {
+                            failures++;
+                            break;
+                        }
+                    }
+                    if (failures == 0) {
+                        rounds++;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures++;
+            } finally {
+                token.revoke();
+            }
+        }
+
+        lastResult = new WarmUpResult(connections, rounds, requests, failures,
+                Duration.ofNanos(System.nanoTime() - started));
+        logger.info("Warm-up: {} connections opened, {} requests in {} rounds, {} failures, {} ms.", connections,
+                requests, rounds, failures, lastResult.elapsed().toMillis());
+    }
+
+    /**
+     * @return The outcome of the last warm-up, or null if none ran.
+     */
+    public WarmUpResult getLastResult() {
+        return lastResult;
+    }
+
+    private int prefillConnectionPool() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return 0;
+            }
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            // Holding connections at once makes the pool open new ones
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()); i++) {
+                    connections.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+            return connections.size();
+        } catch (SQLException e) {
+            logger.warn("Could not pre-fill the connection pool: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static List<HttpRequest> round(int port, String secret) {
+        String base = "http://localhost:" + port;
+        List<HttpRequest> requests = new ArrayList<>();
+        requests.add(get(base + "/api/v1/records?page=0&size=10&sort=name", secret));
+        requests.add(get(base + "/api/v1/records/0", secret)); // Not found
+        requests.add(request(base + "/api/v1/records", secret)
+                .header("Content-Type", "application/json")
+                // Fails validation, so nothing is stored
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"\",\"age\":-1,\"medicalHistory\":\"\"}"))
+                .build());
+        requests.add(get(base + "/records?page=0&size=3", secret));
+        requests.add(get(base + "/records/new", secret));
+        return requests;
+    }
+
+    private static HttpRequest get(String uri, String secret) {
+        return request(uri, secret).GET().build();
+    }
+
+    private static HttpRequest.Builder request(String uri, String secret) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(10))
+                .header(WarmUpToken.HEADER, secret);
+    }
+
+    /**
+     * @return Whether the request got an expected response (below 500, not a
+     *         redirect to the login page).
+     */
+    private static boolean send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300 && response.statusCode() < 400 || response.statusCode() >= 500) {
+                logger.warn("Warm-up request {} {} returned {}; stopping the warm-up.", request.method(),
+                        request.uri().getPath(), response.statusCode());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("Warm-up request {} {} failed; stopping the warm-up: {}", request.method(),
+                    request.uri().getPath(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Outcome of a warm-up.
+     *
+     * @param connections Connections opened in the pool.
+     * @param rounds      Completed rounds of requests.
+     * @param requests    Requests sent.
+     * @param failures    Requests that failed (the warm-up stops at the first).
+     * @param elapsed     Total duration.
+     */
+    public record WarmUpResult(int connections, int rounds, int requests, int failures, Duration elapsed) {
+    }
+}
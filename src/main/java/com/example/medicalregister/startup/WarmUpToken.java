@@ -0,0 +1,54 @@
+package com.example.medicalregister.startup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * One-off secret that authenticates the warm-up requests of
+ * {@link WarmUpRunner} as a scratch owner. It is generated in memory when the
+ * warm-up starts and revoked when it ends, so it is never valid while the
+ * application accepts traffic.
+ */
+public class WarmUpToken {
+
+    /**
+     * Request header carrying the token.
+     */
+    public static final String HEADER = "X-Warm-Up-Token";
+
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile byte[] value;
+
+    /**
+     * Generates a new token, replacing any previous one.
+     *
+     * @return The token, to send in the {@value #HEADER} header.
+     */
+    public String issue() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        value = token.getBytes(StandardCharsets.US_ASCII);
+        return token;
+    }
+
+    /**
+     * Invalidates the current token.
+     */
+    public void revoke() {
+        value = null;
+    }
+
+    /**
+     * @param presented Token from a request, possibly null.
+     * @return Whether it is the current token (compared in constant time).
+     */
+    public boolean matches(String presented) {
+        byte[] current = value;
+        return current != null && presented != null
+                && MessageDigest.isEqual(current, presented.getBytes(StandardCharsets.US_ASCII));
+    }
+}
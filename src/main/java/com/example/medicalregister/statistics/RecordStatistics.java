@@ -0,0 +1,242 @@
+package com.example.medicalregister.statistics;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.dto.RecordStatisticsSummary.AgeBucket;
+import com.example.medicalregister.dto.RecordStatisticsSummary.DailyActivity;
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.model.OwnerRecordStatistic;
+
+/**
+ * Per-owner aggregates of records (count, age histogram, records created and
+ * last updated per day), kept in the {@link OwnerRecordStatistic} summary table
+ * so that reading them never scans the owner's records.
+ * <p>
+ * Every write of the record service passes the affected records' values
+ * before and after the write; the differences are added to the summary rows
+ * with one batched {@code MERGE}, on the write's connection and in its
+ * transaction, so the aggregates are committed or rolled back with the records.
+ * The rows are merged in key order, so that concurrent writes of an owner lock
+ * them in the same order. Drift (e.g. from records written with SQL, such as
+ * generated datasets) is corrected by the {@link RecordStatisticsReconciler}.
+ * <p>
+ * A record's day of last update is the day of the write, taken from the
+ * clock: Hibernate sets {@code updatedAt} only when it flushes.
+ */
+public class RecordStatistics {
+
+    static final String TOTAL = "total";
+    static final String AGE = "age";
+    static final String CREATED = "created";
+    static final String UPDATED = "updated";
+
+    /**
+     * Width of an age bucket, in years.
+     */
+    public static final int AGE_BUCKET_WIDTH = 10;
+
+    /**
+     * Number of age buckets; the last one has no upper bound.
+     */
+    public static final int AGE_BUCKETS = 11;
+
+    private static final String MERGE_SQL = "MERGE INTO owner_record_statistic s USING (VALUES"
+            + " (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(16)), CAST(? AS VARCHAR(16)), CAST(? AS BIGINT)))"
+            + " AS d(owner_id, dimension, bucket, delta)"
+            + " ON s.owner_id = d.owner_id AND s.dimension = d.dimension AND s.bucket = d.bucket"
+            + " WHEN MATCHED THEN UPDATE SET record_count = s.record_count + d.delta"
+            + " WHEN NOT MATCHED THEN INSERT (owner_id, dimension, bucket, record_count)"
+            + " VALUES (d.owner_id, d.dimension, d.bucket, d.delta)";
+
+    private static final String SELECT_SUMMARY_SQL = "SELECT dimension, bucket, record_count"
+            + " FROM owner_record_statistic WHERE owner_id = ? AND (dimension IN ('total', 'age') OR bucket >= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    /**
+     * @param jdbcTemplate Template on the application's data source.
+     * @param clock        Clock for the day of a write; in the zone of the
+     *                     records' timestamps.
+     */
+    public RecordStatistics(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Updates the aggregates for a created or updated record.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param before  The record as it was before an update; null if created.
+     * @param saved   The saved record.
+     */
+    public void recordSaved(String ownerId, Snapshot before, MedicalRecord saved) {
+        recordsSaved(ownerId, Collections.singletonList(before), List.of(saved));
+    }
+
+    /**
+     * Updates the aggregates for records created or updated in one
+     * transaction.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param before  For each record, as it was before the update; null
+     *                elements for created records.
+     * @param saved   The saved records, in the same order.
+     */
+    public void recordsSaved(String ownerId, List<Snapshot> before, List<MedicalRecord> saved) {
+        Map<Cell, Long> deltas = new TreeMap<>();
+        LocalDate today = LocalDate.now(clock);
+        for (int i = 0; i < saved.size(); i++) {
+            Snapshot previous = before.get(i);
+            MedicalRecord record = saved.get(i);
+            LocalDate createdOn = previous != null ? previous.createdOn()
+                    : Objects.requireNonNullElse(dateOf(record.getCreatedAt()), today);
+            if (previous != null) {
+                add(deltas, ownerId, previous, -1);
+            }
+            add(deltas, ownerId, new Snapshot(record.getAge(), createdOn, today), 1);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Updates the aggregates for a deleted record.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param before  The record as it was before the delete.
+     */
+    public void recordDeleted(String ownerId, Snapshot before) {
+        Map<Cell, Long> deltas = new TreeMap<>();
+        add(deltas, ownerId, before, -1);
+        apply(deltas);
+    }
+
+    /**
+     * Reads the owner's aggregates: one index range scan of the summary table.
+     *
+     * @param ownerId The owner's 'sub' claim.
+     * @param days    The number of days of daily activity, up to and including
+     *                today.
+     * @return The aggregates.
+     */
+    public RecordStatisticsSummary summary(String ownerId, int days) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate firstDay = today.minusDays(days - 1L);
+        long[] total = new long[1];
+        long[] ages = new long[AGE_BUCKETS];
+        Map<LocalDate, Long> created = new HashMap<>();
+        Map<LocalDate, Long> updated = new HashMap<>();
+        jdbcTemplate.query(SELECT_SUMMARY_SQL, rs -> {
+            String bucket = rs.getString(2);
+            long count = rs.getLong(3);
+            switch (rs.getString(1)) {
+                case TOTAL -> total[0] = count;
+                case AGE -> ages[Integer.parseInt(bucket) / AGE_BUCKET_WIDTH] = count;
+                case CREATED -> created.put(LocalDate.parse(bucket), count);
+                case UPDATED -> updated.put(LocalDate.parse(bucket), count);
+                default -> {
+                    // Dimension of a newer version; ignored.
+                }
+            }
+        }, ownerId, firstDay.toString());
+
+        List<AgeBucket> ageHistogram = new ArrayList<>(AGE_BUCKETS);
+        for (int i = 0; i < AGE_BUCKETS; i++) {
+            Integer maxAge = i < AGE_BUCKETS - 1 ? (i + 1) * AGE_BUCKET_WIDTH - 1 : null;
+            ageHistogram.add(new AgeBucket(i * AGE_BUCKET_WIDTH, maxAge, ages[i]));
+        }
+        List<DailyActivity> daily = new ArrayList<>(days);
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            daily.add(new DailyActivity(day, created.getOrDefault(day, 0L), updated.getOrDefault(day, 0L)));
+        }
+        return new RecordStatisticsSummary(total[0], ageHistogram, daily);
+    }
+
+    /**
+     * Adds the differences to the summary rows, in key order, skipping zeros.
+     */
+    void apply(Map<Cell, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((cell, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[] { cell.ownerId(), cell.dimension(), cell.bucket(), delta });
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_SQL, rows);
+        }
+    }
+
+    /**
+     * Adds a record's contribution to every dimension, times {@code sign}.
+     */
+    static void add(Map<Cell, Long> deltas, String ownerId, Snapshot record, long sign) {
+        deltas.merge(new Cell(ownerId, TOTAL, ""), sign, Long::sum);
+        if (record.age() != null) {
+            deltas.merge(new Cell(ownerId, AGE, ageBucket(record.age())), sign, Long::sum);
+        }
+        if (record.createdOn() != null) {
+            deltas.merge(new Cell(ownerId, CREATED, record.createdOn().toString()), sign, Long::sum);
+        }
+        if (record.updatedOn() != null) {
+            deltas.merge(new Cell(ownerId, UPDATED, record.updatedOn().toString()), sign, Long::sum);
+        }
+    }
+
+    /**
+     * @return The lower bound of the age's bucket, as stored.
+     */
+    static String ageBucket(int age) {
+        int index = Math.max(0, Math.min(age / AGE_BUCKET_WIDTH, AGE_BUCKETS - 1));
+        return Integer.toString(index * AGE_BUCKET_WIDTH);
+    }
+
+    static LocalDate dateOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : null;
+    }
+
+    /**
+     * The values of a record that the aggregates depend on.
+     *
+     * @param age       The age.
+     * @param createdOn The day the record was created.
+     * @param updatedOn The day the record was last modified.
+     */
+    public record Snapshot(Integer age, LocalDate createdOn, LocalDate updatedOn) {
+
+        /**
+         * @return The values of a stored record.
+         */
+        public static Snapshot of(MedicalRecord record) {
+            return new Snapshot(record.getAge(), dateOf(record.getCreatedAt()), dateOf(record.getUpdatedAt()));
+        }
+    }
+
+    /**
+     * Key of a summary row.
+     */
+    record Cell(String ownerId, String dimension, String bucket) implements Comparable<Cell> {
+
+        @Override
+        public int compareTo(Cell other) {
+            int result = ownerId.compareTo(other.ownerId);
+            if (result == 0) {
+                result = dimension.compareTo(other.dimension);
+            }
+            return result != 0 ? result : bucket.compareTo(other.bucket);
+        }
+    }
+}
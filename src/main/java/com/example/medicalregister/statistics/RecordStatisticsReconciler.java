@@ -0,0 +1,161 @@
+package com.example.medicalregister.statistics;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.medicalregister.statistics.RecordStatistics.Cell;
+
+/**
+ * Recomputes the per-owner aggregates of {@link RecordStatistics} from the
+ * records, and corrects the summary rows that drifted. Owners are processed in
+ * batches, in order of their id; each batch is its own transaction and reads
+ * the batch's records with one range scan per dimension of the owner-leading
+ * indexes.
+ * <p>
+ * A batch first locks the owners' summary rows, then reads their records. A
+ * write that already merged its differences holds those rows until it commits,
+ * so the batch waits and sees the write's records; a write that merges later
+ * adds its differences to the corrected rows. Rows of a bucket that a
+ * concurrent write creates are not locked, but are neither seen nor changed by
+ * the batch.
+ * <p>
+ * Every replica runs the job; the corrections are idempotent, so this is safe.
+ */
+public class RecordStatisticsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordStatisticsReconciler.class);
+
+    private static final String NEXT_OWNERS_SQL = "SELECT owner_id FROM"
+            + " (SELECT owner_id FROM medical_record WHERE owner_id > ?"
+            + " UNION SELECT owner_id FROM owner_record_statistic WHERE owner_id > ?) o"
+            + " ORDER BY owner_id FETCH FIRST ? ROWS ONLY";
+
+    private static final String LOCK_STORED_SQL = "SELECT owner_id, dimension, bucket, record_count"
+            + " FROM owner_record_statistic WHERE owner_id >= ? AND owner_id <= ?"
+            + " ORDER BY owner_id, dimension, bucket FOR UPDATE";
+
+    private static final String COUNT_AGES_SQL = "SELECT owner_id, age, COUNT(*) FROM medical_record"
+            + " WHERE owner_id >= ? AND owner_id <= ? AND deleted = FALSE GROUP BY owner_id, age";
+
+    private static final String COUNT_CREATED_SQL = "SELECT owner_id, CAST(created_at AS DATE), COUNT(*)"
+            + " FROM medical_record WHERE owner_id >= ? AND owner_id <= ? AND deleted = FALSE"
+            + " GROUP BY owner_id, CAST(created_at AS DATE)";
+
+    private static final String COUNT_UPDATED_SQL = "SELECT owner_id, CAST(updated_at AS DATE), COUNT(*)"
+            + " FROM medical_record WHERE owner_id >= ? AND owner_id <= ? AND deleted = FALSE"
+            + " GROUP BY owner_id, CAST(updated_at AS DATE)";
+
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM owner_record_statistic"
+            + " WHERE owner_id >= ? AND owner_id <= ? AND record_count = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecordStatistics statistics;
+    private final int ownersPerBatch;
+    private final Counter corrected;
+
+    /**
+     * @param jdbcTemplate        Template on the application's data source.
+     * @param transactionTemplate Template for the transaction of each batch.
+     * @param statistics          Applies the corrections.
+     * @param ownersPerBatch      Owners recomputed per transaction.
+     * @param registry            Registry for the corrected-rows counter.
+     */
+    public RecordStatisticsReconciler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            RecordStatistics statistics, int ownersPerBatch, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statistics = statistics;
+        this.ownersPerBatch = ownersPerBatch;
+        this.corrected = Counter.builder("medical_records.statistics.corrected")
+                .description("Summary rows of record statistics corrected by reconciliation")
+                .register(registry);
+    }
+
+    /**
+     * Recomputes the aggregates of all owners.
+     *
+     * @return The number of summary rows corrected.
+     */
+    @Scheduled(fixedDelayString = "${medical-register.statistics.reconcile-interval:PT1H}",
+            initialDelayString = "${medical-register.statistics.reconcile-initial-delay:PT1M}")
+    public int reconcile() {
+        int total = 0;
+        int owners = 0;
+        String after = "";
+        while (true) {
+            List<String> batch = jdbcTemplate.queryForList(NEXT_OWNERS_SQL, String.class, after, after,
+                    ownersPerBatch);
+            if (batch.isEmpty()) {
+                break;
+            }
+            String first = batch.get(0);
+            String last = batch.get(batch.size() - 1);
+            Integer count = transactionTemplate.execute(status -> reconcile(first, last));
+            total += count != null ? count : 0;
+            owners += batch.size();
+            after = last;
+            if (batch.size() < ownersPerBatch) {
+                break;
+            }
+        }
+        corrected.increment(total);
+        if (total > 0) {
+            logger.info("Corrected {} record statistics of {} owners.", total, owners);
+        } else {
+            logger.debug("Record statistics of {} owners are up to date.", owners);
+        }
+        return total;
+    }
+
+    /**
+     * Corrects the summary rows of the owners from {@code first} to
+     * {@code last}, inclusive.
+     *
+     * @return The number of rows corrected.
+     */
+    private int reconcile(String first, String last) {
+        Map<Cell, Long> deltas = new TreeMap<>();
+        jdbcTemplate.query(LOCK_STORED_SQL, rs -> {
+            deltas.merge(new Cell(rs.getString(1), rs.getString(2), rs.getString(3)), -rs.getLong(4), Long::sum);
+        }, first, last);
+        jdbcTemplate.query(COUNT_AGES_SQL, rs -> {
+            String ownerId = rs.getString(1);
+            long count = rs.getLong(3);
+            deltas.merge(new Cell(ownerId, RecordStatistics.TOTAL, ""), count, Long::sum);
+            int age = rs.getInt(2);
+            if (!rs.wasNull()) {
+                deltas.merge(new Cell(ownerId, RecordStatistics.AGE, RecordStatistics.ageBucket(age)), count,
+                        Long::sum);
+            }
+        }, first, last);
+        countDays(COUNT_CREATED_SQL, RecordStatistics.CREATED, first, last, deltas);
+        countDays(COUNT_UPDATED_SQL, RecordStatistics.UPDATED, first, last, deltas);
+
+        deltas.values().removeIf(delta -> delta == 0);
+        statistics.apply(deltas);
+        jdbcTemplate.update(DELETE_EMPTY_SQL, first, last);
+        return deltas.size();
+    }
+
+    private void countDays(String sql, String dimension, String first, String last, Map<Cell, Long> deltas) {
+        jdbcTemplate.query(sql, rs -> {
+            Date day = rs.getDate(2);
+            if (day != null) {
+                deltas.merge(new Cell(rs.getString(1), dimension, day.toLocalDate().toString()), rs.getLong(3),
+                        Long::sum);
+            }
+        }, first, last);
+    }
+}
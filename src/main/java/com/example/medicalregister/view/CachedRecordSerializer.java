@@ -0,0 +1,205 @@
+package com.example.medicalregister.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a medical record as its JSON from {@link RecordJsonCache}, falling
+ * back to Jackson's bean serializer on a miss. The cached UTF-8 bytes are
+ * copied into the generator's output buffer as they are (or, if larger than
+ * the buffer, written to the output stream directly), without re-encoding.
+ * Serializing with a JSON view bypasses the cache.
+ */
+final class CachedRecordSerializer extends StdSerializer<MedicalRecord>
+        implements ResolvableSerializer, ContextualSerializer {
+
+    private final RecordJsonCache cache;
+    private final JsonFactory jsonFactory;
+    private final JsonSerializer<Object> delegate;
+
+    private CachedRecordSerializer(RecordJsonCache cache, JsonFactory jsonFactory, JsonSerializer<Object> delegate) {
+        super(MedicalRecord.class);
+        this.cache = cache;
+        this.jsonFactory = jsonFactory;
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param cache       The cache.
+     * @param jsonFactory Factory for the generators that serialize cache
+     *                    misses, from the mapper being configured.
+     * @return A modifier wrapping the bean serializer of {@link MedicalRecord}.
+     */
+    static BeanSerializerModifier modifier(RecordJsonCache cache, JsonFactory jsonFactory) {
+        return new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                    JsonSerializer<?> serializer) {
+                return MedicalRecord.class.equals(beanDesc.getBeanClass())
+                        ? new CachedRecordSerializer(cache, jsonFactory, (JsonSerializer<Object>) serializer)
+                        : serializer;
+            }
+        };
+    }
+
+    @Override
+    public void serialize(MedicalRecord record, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (provider.getActiveView() != null) {
+            delegate.serialize(record, gen, provider);
+            return;
+        }
+        byte[] json;
+        try {
+            json = cache.get(record, missed -> toJson(missed, provider));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeRawValue(new RawJson(json));
+    }
+
+    @Override
+    public void serializeWithType(MedicalRecord record, JsonGenerator gen, SerializerProvider provider,
+            TypeSerializer typeSer) throws IOException {
+        delegate.serializeWithType(record, gen, provider, typeSer);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (delegate instanceof ContextualSerializer contextual) {
+            JsonSerializer<?> contextualDelegate = contextual.createContextual(provider, property);
+            if (contextualDelegate != delegate) {
+                return new CachedRecordSerializer(cache, jsonFactory, (JsonSerializer<Object>) contextualDelegate);
+            }
+        }
+        return this;
+    }
+
+    private byte[] toJson(MedicalRecord record, SerializerProvider provider) {
+        ByteArrayBuilder bytes = new ByteArrayBuilder();
+        try (JsonGenerator generator = jsonFactory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            delegate.serialize(record, generator, provider);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serialized JSON as UTF-8 bytes, for {@link JsonGenerator#writeRawValue}.
+     * Generators writing bytes use the bytes directly; the character-based and
+     * quoted forms are only needed by generators writing characters, and are
+     * decoded on demand.
+     */
+    private record RawJson(byte[] bytes) implements SerializableString {
+
+        @Override
+        public String getValue() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return bytes;
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + bytes.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+            return bytes.length;
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (bytes.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return decoded().appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return decoded().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return decoded().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return decoded().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return decoded().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return decoded().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return decoded().putQuotedUTF8(buffer);
+        }
+
+        private SerializedString decoded() {
+            return new SerializedString(getValue());
+        }
+    }
+}
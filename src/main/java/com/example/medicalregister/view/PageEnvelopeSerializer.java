@@ -0,0 +1,78 @@
+package com.example.medicalregister.view;
+
+import java.io.IOException;
+
+import com.example.medicalregister.dto.PageEnvelope;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link PageEnvelope} field by field with the streaming generator,
+ * instead of introspecting it as a bean. Field names are pre-encoded, and the
+ * serializer of the items is looked up once per item class rather than per
+ * item (for records, the one that writes from {@link RecordJsonCache}).
+ */
+public class PageEnvelopeSerializer extends StdSerializer<PageEnvelope<?>> {
+
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString PAGE = new SerializedString("page");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString TOTAL_ITEMS = new SerializedString("totalItems");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString HAS_NEXT = new SerializedString("hasNext");
+    private static final SerializedString SORT = new SerializedString("sort");
+
+    @SuppressWarnings("unchecked")
+    public PageEnvelopeSerializer() {
+        super((Class<PageEnvelope<?>>) (Class<?>) PageEnvelope.class);
+    }
+
+    @Override
+    public void serialize(PageEnvelope<?> envelope, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(envelope);
+
+        gen.writeFieldName(ITEMS);
+        gen.writeStartArray(envelope.items(), envelope.items().size());
+        Class<?> itemClass = null;
+        JsonSerializer<Object> itemSerializer = null;
+        for (Object item : envelope.items()) {
+            if (item == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (item.getClass() != itemClass) {
+                itemClass = item.getClass();
+                itemSerializer = provider.findValueSerializer(itemClass, null);
+            }
+            itemSerializer.serialize(item, gen, provider);
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(PAGE);
+        gen.writeStartObject();
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(envelope.number());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(envelope.size());
+        gen.writeFieldName(TOTAL_ITEMS);
+        gen.writeNumber(envelope.totalItems());
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(envelope.totalPages());
+        gen.writeFieldName(HAS_NEXT);
+        gen.writeBoolean(envelope.hasNext());
+        gen.writeFieldName(SORT);
+        gen.writeStartArray(envelope.sort(), envelope.sort().size());
+        for (String order : envelope.sort()) {
+            gen.writeString(order);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.medicalregister.view;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches the JSON of medical records as UTF-8 bytes, so a record that has not
+ * changed since it was last returned by the API is not serialized again. API
+ * responses copy the cached bytes into the response (see
+ * {@link CachedRecordSerializer}), for a single record as well as for each
+ * record of a list or page.
+ * <p>
+ * Entries are keyed by the record's id and {@code updatedAt}, which every
+ * update changes, so an updated record gets a new entry and its older JSON is
+ * never served again; older entries are evicted when idle or, least recently
+ * used first, when the total size exceeds the limit.
+ */
+public class RecordJsonCache {
+
+    public static final String CACHE_NAME = "medical_records.json";
+
+    /**
+     * Estimated bytes of an entry besides its JSON (key, array header, cache
+     * node).
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final boolean enabled;
+    private final Cache<Key, byte[]> fragments;
+
+    /**
+     * @param enabled     Whether JSON is cached; if not, every record is
+     *                    serialized.
+     * @param maxBytes    Upper bound on the estimated size of all entries.
+     * @param idleTimeout How long a record's JSON is kept after it was last
+     *                    served.
+     * @param registry    Registry for the cache metrics.
+     */
+    public RecordJsonCache(boolean enabled, long maxBytes, Duration idleTimeout, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] json) -> json.length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterAccess(idleTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, fragments, CACHE_NAME);
+    }
+
+    /**
+     * Returns the record's cached JSON, serializing and caching it on a miss.
+     * Records without an id or {@code updatedAt} (not yet saved) are always
+     * serialized.
+     *
+     * @param record    The record.
+     * @param serialize Serializes the record to UTF-8 JSON.
+     * @return The JSON.
+     */
+    public byte[] get(MedicalRecord record, Function<MedicalRecord, byte[]> serialize) {
+        if (!enabled || record.getId() == null || record.getUpdatedAt() == null) {
+            return serialize.apply(record);
+        }
+        return fragments.get(new Key(record.getId(), record.getUpdatedAt()), key -> serialize.apply(record));
+    }
+
+    /**
+     * Returns a copy of the mapper that serializes medical records through this
+     * cache. Only for writing responses: the JSON of a record is looked up by
+     * its id and {@code updatedAt} alone, so a record whose other fields were
+     * changed without saving it (e.g. a request body) would be written as it
+     * was saved.
+     *
+     * @param objectMapper The application's mapper.
+     * @return The copy.
+     */
+    public ObjectMapper cachingCopyOf(ObjectMapper objectMapper) {
+        ObjectMapper copy = objectMapper.copy();
+        SimpleModule module = new SimpleModule(CACHE_NAME);
+        module.setSerializerModifier(CachedRecordSerializer.modifier(this, copy.getFactory()));
+        return copy.registerModule(module);
+    }
+
+    private record Key(long id, LocalDateTime updatedAt) {
+    }
+}
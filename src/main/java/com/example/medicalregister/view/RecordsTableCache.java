@@ -0,0 +1,172 @@
+package com.example.medicalregister.view;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.service.RecordChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches the rendered records table (rows and pagination) of the record list
+ * page, per owner, page and filter.
+ * <p>
+ * Entries are keyed by a per-owner version, which is changed whenever one of
+ * the owner's records is written (see {@link RecordChangedEvent}), so a write
+ * makes all of the owner's cached pages unreachable at once; they are then
+ * evicted by size or age. A version is changed both when the event is
+ * published and again when the transaction completes, so a page rendered
+ * while the write was not yet committed is never served afterwards.
+ * <p>
+ * Versions are kept twice as long as fragments: by the time an owner's version
+ * expires (and falls back to 0), every fragment cached under the earlier
+ * version 0 has expired too.
+ */
+public class RecordsTableCache {
+
+    public static final String CACHE_NAME = "medical_records.table";
+
+    private final boolean enabled;
+    private final Cache<Key, Fragment> fragments;
+    private final Cache<String, Long> versions;
+    private final AtomicLong nextVersion = new AtomicLong();
+    private final Timer renderTimer;
+    private final Counter renderTimeSaved;
+
+    /**
+     * @param enabled       Whether rendered tables are cached; if not, every
+     *                      table is rendered (and timed).
+     * @param ttl           How long a rendered table is kept.
+     * @param maxCharacters Upper bound on the total length of the cached tables.
+     * @param registry      Registry for the render and cache metrics.
+     */
+    public RecordsTableCache(boolean enabled, Duration ttl, long maxCharacters, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxCharacters)
+                .weigher((Key key, Fragment fragment) -> fragment.html().length())
+                .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.multipliedBy(2).toNanos(), TimeUnit.NANOSECONDS)
+                .build();
+        this.renderTimer = Timer.builder(CACHE_NAME + ".render")
+                .description("Duration of rendering the records table")
+                .register(registry);
+        this.renderTimeSaved = Counter.builder(CACHE_NAME + ".render.saved")
+                .description("Rendering time saved by serving cached records tables")
+                .baseUnit("seconds")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, fragments, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cache key for a page of the owner's records. Must be called
+     * before the records are read, so that a write committed in between changes
+     * the version and the table rendered from older records is not reused.
+     *
+     * @param ownerId  The owner's 'sub' claim.
+     * @param pageable The requested page.
+     * @return The key, or null if the table must not be cached.
+     */
+    public Key key(String ownerId, Pageable pageable) {
+        return key(ownerId, pageable, RecordFilter.NONE);
+    }
+
+    /**
+     * Returns the cache key for a page of the owner's filtered records, like
+     * {@link #key(String, Pageable)}.
+     *
+     * @param ownerId  The owner's 'sub' claim.
+     * @param pageable The requested page.
+     * @param filter   The filter of the records.
+     * @return The key, or null if the table must not be cached.
+     */
+    public Key key(String ownerId, Pageable pageable, RecordFilter filter) {
+        if (!enabled || ownerId == null || pageable.isUnpaged()) {
+            return null;
+        }
+        Long version = versions.getIfPresent(ownerId);
+        return new Key(ownerId, version != null ? version : 0L, pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort(), filter);
+    }
+
+    /**
+     * Returns the cached table for {@code key}, or renders and caches it.
+     *
+     * @param key      Key from {@link #key(String, Pageable)}; if null, the table
+     *                 is rendered and not cached.
+     * @param renderer Renders the table.
+     * @return The rendered table.
+     */
+    public String get(Key key, Supplier<String> renderer) {
+        if (key == null) {
+            return render(renderer).html();
+        }
+        Fragment cached = fragments.getIfPresent(key);
+        if (cached != null) {
+            renderTimeSaved.increment(cached.renderNanos() / 1e9);
+            return cached.html();
+        }
+        Fragment rendered = render(renderer);
+        fragments.put(key, rendered);
+        return rendered.html();
+    }
+
+    /**
+     * Invalidates the owner's cached tables as soon as a record is written,
+     * covering reads within the same transaction.
+     */
+    @EventListener
+    public void onRecordChanged(RecordChangedEvent event) {
+        invalidate(event.ownerId());
+    }
+
+    /**
+     * Invalidates the owner's cached tables again once the write is committed
+     * (or rolled back): a table rendered by another request before the commit
+     * may show the records as they were.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onRecordChangeCompleted(RecordChangedEvent event) {
+        invalidate(event.ownerId());
+    }
+
+    private void invalidate(String ownerId) {
+        if (ownerId != null) {
+            versions.put(ownerId, nextVersion.incrementAndGet());
+        }
+    }
+
+    private Fragment render(Supplier<String> renderer) {
+        long started = System.nanoTime();
+        String html = renderer.get();
+        long elapsed = System.nanoTime() - started;
+        renderTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return new Fragment(html, elapsed);
+    }
+
+    /**
+     * Identifies one rendered page of an owner's records table.
+     */
+    public record Key(String ownerId, long version, int page, int size, Sort sort, RecordFilter filter) {
+    }
+
+    private record Fragment(String html, long renderNanos) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.medicalregister.view;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Renders a template to a string within the current request, with the same
+ * link building and Spring expression support as a view rendered by Spring
+ * MVC. Used for parts of a page that are cached separately from the page.
+ */
+public class TemplateFragmentRenderer {
+
+    private final ITemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final JakartaServletWebApplication application;
+
+    /**
+     * @param templateEngine     The application's Thymeleaf engine.
+     * @param applicationContext For bean references in Spring expressions.
+     * @param servletContext     The web application's servlet context.
+     */
+    public TemplateFragmentRenderer(ITemplateEngine templateEngine, ApplicationContext applicationContext,
+            ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+    }
+
+    /**
+     * @param template  Template name, e.g. {@code records/records-table}.
+     * @param variables The model for the template.
+     * @param request   The current request.
+     * @param response  The current response.
+     * @return The rendered template.
+     */
+    public String render(String template, Map<String, Object> variables, HttpServletRequest request,
+            HttpServletResponse response) {
+        Map<String, Object> context = new HashMap<>(variables);
+        context.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        return templateEngine.process(template, new WebContext(application.buildExchange(request, response),
+                RequestContextUtils.getLocale(request), context));
+    }
+}
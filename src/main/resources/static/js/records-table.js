@@ -0,0 +1,122 @@
+/*
+ * In-page updates of the record list: sort links, pagination links and the
+ * delete dialog replace only the records table (#records-table-container) with
+ * the fragment returned by MedicalRecordWebController, instead of reloading and
+ * redirecting. If a request fails (e.g. the session expired), the page falls
+ * back to a full page load. The name filter suggests the user's record names
+ * while typing.
+ */
+$(document).ready(function () {
+  var container = $("#records-table-container");
+  var tableUrl = container.data("table-url");
+  var deleteUrl = container.data("delete-url");
+  var csrfToken = $("meta[name='_csrf']").attr("content");
+  var csrfHeader = $("meta[name='_csrf_header']").attr("content");
+
+  function showMessage(cssClass, text) {
+    $("#records-message")
+      .attr("class", "alert " + cssClass)
+      .text(text);
+  }
+
+  function queryOf(href) {
+    var index = href.indexOf("?");
+    return index >= 0 ? href.substring(index) : "";
+  }
+
+  // Sort and pagination links
+  container.on("click", "thead a, a.page-link", function (event) {
+    event.preventDefault();
+    var href = $(this).attr("href");
+    if (!href || href === "#") {
+      return; // Disabled link
+    }
+    $.get(tableUrl + queryOf(href))
+      .done(function (html) {
+        container.html(html);
+        window.history.pushState(null, "", href);
+      })
+      .fail(function () {
+        window.location.href = href;
+      });
+  });
+
+  // Back and forward buttons after in-page navigation
+  window.addEventListener("popstate", function () {
+    $.get(tableUrl + window.location.search)
+      .done(function (html) {
+        container.html(html);
+      })
+      .fail(function () {
+        window.location.reload();
+      });
+  });
+
+  // Name suggestions for the name filter, at most one request per pause in typing
+  var nameInput = $("#name");
+  var nameSuggestions = $("#name-suggestions");
+  var suggestTimer;
+  nameInput.on("input", function () {
+    clearTimeout(suggestTimer);
+    var prefix = nameInput.val();
+    if (!prefix.trim()) {
+      nameSuggestions.empty();
+      return;
+    }
+    suggestTimer = setTimeout(function () {
+      $.getJSON(nameInput.data("suggest-url"), { prefix: prefix, limit: 10 }).done(
+        function (names) {
+          if (nameInput.val() !== prefix) {
+            return; // Typed on in the meantime
+          }
+          nameSuggestions.empty();
+          names.forEach(function (name) {
+            nameSuggestions.append($("<option></option>").attr("value", name));
+          });
+        }
+      );
+    }, 150);
+  });
+
+  $("#deleteConfirmModal").on("show.bs.modal", function (event) {
+    var button = $(event.relatedTarget); // Button that triggered the modal
+    var recordId = button.data("record-id");
+    var recordName = button.data("record-name");
+
+    var modal = $(this);
+    modal
+      .find(".modal-body #recordNameToDelete")
+      .text(recordName || "this record");
+    modal
+      .find("#confirmDeleteButton")
+      .attr("href", deleteUrl + recordId) // Full page delete without JavaScript
+      .data("record-id", recordId);
+  });
+
+  $("#confirmDeleteButton").on("click", function (event) {
+    event.preventDefault();
+    var headers = {};
+    if (csrfHeader) {
+      headers[csrfHeader] = csrfToken;
+    }
+    $.ajax({
+      url: deleteUrl + $(this).data("record-id") + window.location.search,
+      type: "POST",
+      headers: headers,
+    })
+      .done(function (html, status, xhr) {
+        container.html(html);
+        showMessage("alert-success", xhr.getResponseHeader("X-Success-Message"));
+      })
+      .fail(function (xhr) {
+        if (xhr.responseJSON && xhr.responseJSON.message) {
+          showMessage("alert-danger", xhr.responseJSON.message);
+        } else {
+          window.location.reload();
+        }
+      })
+      .always(function () {
+        $("#deleteConfirmModal").modal("hide");
+      });
+  });
+});
@@ -0,0 +1,125 @@
+package com.example.medicalregister.benchmark;
+
+import com.example.medicalregister.logging.MeteredAsyncAppender;
+import com.example.medicalregister.logging.RateLimitingTurboFilter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost on the request thread of the two INFO events logged per API request,
+ * with the console pattern written to a file and flushed per event (as for a
+ * container's stdout pipe).
+ * <ul>
+ * <li>{@code SYNC}: the request thread formats and writes each event, holding
+ * the appender lock.</li>
+ * <li>{@code ASYNC}: {@link MeteredAsyncAppender} as configured in
+ * {@code logback-spring.xml}; the request thread only enqueues. Once the
+ * writer falls behind, INFO events are dropped (reported at tear-down).</li>
+ * <li>{@code ASYNC_RATE_LIMITED}: as {@code ASYNC}, with the rate limiter
+ * discarding repeated templates before they are enqueued.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AsyncLoggingBenchmark {
+
+    @Param({ "SYNC", "ASYNC", "ASYNC_RATE_LIMITED" })
+    private String mode;
+
+    private final LoggerContext context = new LoggerContext();
+    private Logger logger;
+    private MeteredAsyncAppender asyncAppender;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        context.setMDCAdapter(new LogbackMDCAdapter()); // Events copy the MDC when queued
+        file = Files.createTempFile("async-logging-benchmark", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %t --- %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> fileAppender = new OutputStreamAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setEncoder(encoder);
+        fileAppender.setOutputStream(new FileOutputStream(file.toFile()));
+        fileAppender.setImmediateFlush(true);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (mode.startsWith("ASYNC")) {
+            asyncAppender = new MeteredAsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setNeverBlock(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        if (mode.equals("ASYNC_RATE_LIMITED")) {
+            RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+            filter.setContext(context);
+            filter.setLoggerPrefix("com.example.medicalregister");
+            filter.setMaxPerSecond(100);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        logger = context.getLogger("com.example.medicalregister.controller.MedicalRecordApiController");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (asyncAppender != null) {
+            System.out.printf("%n%s: dropped %d events, producers blocked %d times%n", mode,
+                    asyncAppender.getDiscardedCount(), asyncAppender.getBlockedCount());
+        }
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void logRequest() {
+        Long id = 42L;
+        logger.info("API: User {} attempting to fetch record ID: {}.", "auth0|user-42", id);
+        logger.info("API: User {} successfully fetched record ID: {}.", "auth0|user-42", id);
+    }
+}
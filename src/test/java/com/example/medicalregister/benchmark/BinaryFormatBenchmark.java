@@ -0,0 +1,85 @@
+package com.example.medicalregister.benchmark;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of encoding and decoding a batch of {@code size} records, as
+ * exchanged with {@code POST /api/v1/records/batch}, in JSON and the binary
+ * formats CBOR and Smile (see {@code BinaryFormatConfig}). Each record has a
+ * medical history of about 500 characters. The payload size of the batch is
+ * printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<List<MedicalRecord>> RECORDS = new TypeReference<>() {
+    };
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "100" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<MedicalRecord> records;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory).findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        records = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 10, 15);
+        for (long id = 1; id <= size; id++) {
+            String history = ("Visit " + id + ": hypertension, treated since 2019; annual check-up. ").repeat(8);
+            records.add(new MedicalRecord(id, "Patient " + id, (int) (id % 100), history, "auth0|benchmark",
+                    "auth0|benchmark", "auth0|benchmark", now, now.plusDays(id), false));
+        }
+        payload = objectMapper.writeValueAsBytes(records);
+        System.out.printf("%nPayload of %d records in %s: %d bytes%n", size, format, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(records);
+    }
+
+    @Benchmark
+    public List<MedicalRecord> decode() throws Exception {
+        return objectMapper.readValue(payload, RECORDS);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.medicalregister.benchmark;
+
+import com.example.medicalregister.service.NameSuggestionIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one name suggestion lookup in a built {@link NameSuggestionIndex},
+ * as served per keystroke by {@code GET /api/v1/records/suggest}, for owners
+ * with {@code records} records. Prefixes of one to four letters of random
+ * names are looked up concurrently; sample mode reports the percentiles
+ * ({@code p0.99} should stay well under 1 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class NameSuggestionBenchmark {
+
+    private static final String OWNER = "auth0|benchmark";
+
+    @Param({ "1000", "100000" })
+    private int records;
+
+    private NameSuggestionIndex index;
+    private String[] prefixes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            names.add(randomWord(random) + " " + randomWord(random));
+        }
+        index = new NameSuggestionIndex(ownerId -> names, Long.MAX_VALUE, Duration.ofHours(1),
+                new SimpleMeterRegistry());
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = names.get(random.nextInt(records));
+            prefixes[i] = name.substring(0, 1 + random.nextInt(4));
+        }
+        index.suggest(OWNER, "a", 10); // Build the index before measuring
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest(OWNER, prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], 10);
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[4 + random.nextInt(6)];
+        word[0] = (char) ('A' + random.nextInt(26));
+        for (int i = 1; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.medicalregister.benchmark;
+
+import com.example.medicalregister.security.OwnerContext;
+import com.example.medicalregister.security.OwnerContextFilter;
+import com.example.medicalregister.security.ResolvedOwner;
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owner lookups for one "create record" API request: the controller's user
+ * name, the service's 'sub' and the two auditing fields.
+ * <ul>
+ * <li>{@code perCallLookup}: each call site walks the security context and the
+ * OAuth2 attribute map, as before {@link OwnerContext}.</li>
+ * <li>{@code resolvedOnce}: {@link OwnerContextFilter} binds the owner once
+ * and each call site reads it from {@link OwnerContext}. As for a logged-in
+ * session, every request has the same authentication, so the owner resolved
+ * by the first request is reused.</li>
+ * </ul>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.args="OwnerResolution -prof gc"} to also see bytes allocated per
+ * request ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerResolutionBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerResolutionBenchmark.class);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/records");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final OwnerContextFilter filter = new OwnerContextFilter();
+    private final FilterChain handler = this::handle;
+    private final String[] lookups = new String[4];
+    private long formattedLength;
+
+    /**
+     * Application log level. At DEBUG, the per-call lookups format the OAuth2
+     * attribute map into their debug messages.
+     */
+    @Param({ "INFO", "DEBUG" })
+    private String logLevel;
+
+    @Setup
+    public void setUp() {
+        // Format every enabled event, as a real appender would, without writing it anywhere
+        ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) LoggerFactory
+                .getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        AppenderBase<ILoggingEvent> formatting = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                formattedLength += event.getFormattedMessage().length();
+            }
+        };
+        formatting.setContext(root.getLoggerContext());
+        formatting.start();
+        root.addAppender(formatting);
+        root.setLevel(Level.toLevel(logLevel));
+        // Attributes as returned by Auth0's userinfo endpoint
+        OAuth2User user = SecurityTestUtils.createOAuth2User(Map.of("sub", "auth0|64f1c2a9b7e3d5f0a1b2c3d4",
+                "name", "Jane Doe", "nickname", "jane", "email", "jane@example.com", "email_verified", true,
+                "picture", "https://example.com/jane.png", "updated_at", "2025-05-01T10:00:00.000Z"), "sub");
+        SecurityContextHolder.getContext().setAuthentication(
+                new OAuth2AuthenticationToken(user, user.getAuthorities(), "auth0"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void perCallLookup(Blackhole blackhole) {
+        blackhole.consume(legacyUserName());
+        blackhole.consume(legacySub());
+        blackhole.consume(legacyAuditor());
+        blackhole.consume(legacyAuditor());
+    }
+
+    @Benchmark
+    public void resolvedOnce(Blackhole blackhole) throws Exception {
+        // Each invocation is a new request of the same session
+        filter.doFilter(request, response, handler);
+        blackhole.consume(lookups);
+    }
+
+    private void handle(ServletRequest req, ServletResponse res) {
+        lookups[0] = OwnerContext.current().displayName();
+        lookups[1] = OwnerContext.current().sub();
+        lookups[2] = OwnerContext.current().auditor();
+        lookups[3] = OwnerContext.current().auditor();
+    }
+
+    // The lookups below reproduce the per-call code that OwnerContext replaced.
+
+    private static String legacyUserName() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!(principal instanceof OAuth2User user)) {
+            return "Unknown User";
+        }
+        return user.getAttribute("name") != null ? user.getAttribute("name") : "User";
+    }
+
+    private static String legacySub() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof OAuth2User user) {
+            logger.debug("OAuth2User principal found. Attributes: {}", user.getAttributes());
+            return user.getAttribute("sub");
+        }
+        return null;
+    }
+
+    private static String legacyAuditor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof OAuth2User user) {
+            String sub = user.getAttribute("sub");
+            logger.debug("Current auditor identified by 'sub': {}", sub);
+            return sub;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.medicalregister.benchmark;
+
+import com.example.medicalregister.dto.PageEnvelope;
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serialize one page of {@code size} records as returned by
+ * {@code GET /api/v1/records}: Spring Data's {@code PageImpl} introspected as a
+ * bean, against {@link PageEnvelope} written by its streaming serializer. The
+ * payload sizes of both are printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({ "3", "50" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Page<MedicalRecord> page;
+    private PageEnvelope<MedicalRecord> envelope;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<MedicalRecord> records = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 10, 15);
+        for (long id = 1; id <= size; id++) {
+            records.add(new MedicalRecord(id, "Patient " + id, 40, "Medical history of patient " + id,
+                    "auth0|benchmark", "auth0|benchmark", "auth0|benchmark", now, now, false));
+        }
+        page = new PageImpl<>(records, PageRequest.of(2, size, Sort.by("name")), 1000);
+        envelope = PageEnvelope.of(page);
+        System.out.printf("%nPayload of %d records: PageImpl %d bytes, PageEnvelope %d bytes%n", size,
+                objectMapper.writeValueAsBytes(page).length, objectMapper.writeValueAsBytes(envelope).length);
+    }
+
+    @Benchmark
+    public byte[] pageImpl() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageEnvelope() throws Exception {
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+}
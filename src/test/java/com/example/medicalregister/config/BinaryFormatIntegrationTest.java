@@ -0,0 +1,107 @@
+package com.example.medicalregister.config;
+
+import com.example.medicalregister.idempotency.IdempotentRequests;
+import com.example.medicalregister.util.SecurityTestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("BinaryFormatConfig Integration Tests")
+/**
+ * Integration tests for {@link BinaryFormatConfig}: the record API reads and
+ * writes CBOR and Smile when asked to, including batches and idempotent
+ * replays, and still answers JSON by default.
+ */
+class BinaryFormatIntegrationTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Test
+    @DisplayName("A CBOR batch should be saved and answered in CBOR, and listed in Smile or JSON")
+    void batch_inCbor_shouldBeSavedAndListedInEveryFormat() throws Exception {
+        OAuth2User user = SecurityTestUtils.createOAuth2UserWithSubAndName("binary-batch-owner", "Binary User");
+        byte[] batch = cborMapper.writeValueAsBytes(Map.of("records", List.of(
+                Map.of("name", "Cbor One", "age", 30, "medicalHistory", "History"),
+                Map.of("name", "Cbor Two", "age", 40, "medicalHistory", "History"))));
+
+        MvcResult saved = mockMvc.perform(post("/api/v1/records/batch").with(oauth2Login().oauth2User(user))
+                .contentType(CBOR).accept(CBOR).content(batch))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+        JsonNode records = cborMapper.readTree(saved.getResponse().getContentAsByteArray());
+        assertThat(records).hasSize(2);
+        assertThat(records.get(1).get("name").asText()).isEqualTo("Cbor Two");
+        assertThat(records.get(1).get("createdAt").isTextual()).isTrue(); // As in JSON
+
+        MvcResult listed = mockMvc.perform(get("/api/v1/records").param("sort", "name")
+                .with(oauth2Login().oauth2User(user)).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn();
+        JsonNode page = smileMapper.readTree(listed.getResponse().getContentAsByteArray());
+        assertThat(page.get("items").get(0).get("name").asText()).isEqualTo("Cbor One");
+        assertThat(page.get("page").get("totalItems").asLong()).isEqualTo(2);
+
+        mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(user)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("A retried CBOR create should be replayed in CBOR")
+    void create_retriedInCbor_shouldReplayInCbor() throws Exception {
+        OAuth2User user = SecurityTestUtils.createOAuth2UserWithSubAndName("binary-replay-owner", "Binary User");
+        byte[] body = cborMapper.writeValueAsBytes(
+                Map.of("name", "Cbor Retried", "age", 50, "medicalHistory", "History"));
+
+        MvcResult first = mockMvc.perform(post("/api/v1/records").with(oauth2Login().oauth2User(user))
+                .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "binary-1")
+                .contentType(CBOR).accept(CBOR).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult replayed = mockMvc.perform(post("/api/v1/records").with(oauth2Login().oauth2User(user))
+                .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "binary-1")
+                .contentType(CBOR).accept(CBOR).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn();
+
+        assertThat(cborMapper.readTree(replayed.getResponse().getContentAsByteArray()))
+                .isEqualTo(cborMapper.readTree(first.getResponse().getContentAsByteArray()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.medicalregister.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@DisplayName("Static Assets Integration Tests")
+/**
+ * Integration tests for static asset delivery over HTTP: content-hashed links
+ * in pages, immutable caching, precompressed assets and response compression.
+ */
+class StaticAssetsIntegrationTest {
+
+    private static final Pattern HASHED_BOOTSTRAP_CSS = Pattern
+            .compile("/webjars/bootstrap/4\\.6\\.2/css/bootstrap\\.min-[0-9a-f]{32}\\.css");
+
+    @LocalServerPort
+    private int port;
+
+    // Does not decompress responses, so Content-Encoding can be checked
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("Pages should link to content-hashed assets")
+    void page_shouldLinkToHashedAssets() throws Exception {
+        HttpResponse<String> page = get("/", null, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(page.body()).containsPattern(HASHED_BOOTSTRAP_CSS)
+                .containsPattern("/webjars/jquery/3\\.7\\.1/jquery\\.min-[0-9a-f]{32}\\.js");
+    }
+
+    @Test
+    @DisplayName("Hashed assets should be immutable and served precompressed to clients accepting gzip")
+    void hashedAsset_shouldBeImmutableAndPrecompressed() throws Exception {
+        String asset = hashedBootstrapCss();
+
+        HttpResponse<byte[]> compressed = get(asset, "gzip, deflate, br", HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> plain = get(asset, null, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(compressed.statusCode()).isEqualTo(200);
+        assertThat(compressed.headers().firstValue("Cache-Control")).hasValueSatisfying(
+                cacheControl -> assertThat(cacheControl).contains("max-age=31536000", "public", "immutable"));
+        assertThat(compressed.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(compressed.headers().allValues("Vary")).anySatisfy(vary -> assertThat(vary)
+                .containsIgnoringCase("Accept-Encoding"));
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(compressed.body().length).isLessThan(plain.body().length / 4);
+    }
+
+    @Test
+    @DisplayName("HTML pages should be compressed for clients accepting gzip")
+    void page_shouldBeCompressed() throws Exception {
+        HttpResponse<byte[]> page = get("/", "gzip", HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(page.statusCode()).isEqualTo(200);
+        assertThat(page.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    }
+
+    private String hashedBootstrapCss() throws Exception {
+        Matcher matcher = HASHED_BOOTSTRAP_CSS.matcher(get("/", null, HttpResponse.BodyHandlers.ofString()).body());
+        assertThat(matcher.find()).isTrue();
+        return matcher.group();
+    }
+
+    private <T> HttpResponse<T> get(String path, String acceptEncoding, HttpResponse.BodyHandler<T> bodyHandler)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), bodyHandler);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.medicalregister.controller;
+
+import com.example.medicalregister.reporting.ReportingEngine;
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "medical-register.reporting.admin-subs=report-admin,other-admin")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("AdminReportController Integration Tests")
+/**
+ * Integration tests for the {@link AdminReportController}, with the reporting
+ * snapshot read from the database.
+ */
+class AdminReportControllerIntegrationTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ReportingEngine reportingEngine;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @Test
+        @DisplayName("GET /api/v1/admin/reports/fleet - Administrator - Should report the records in the database")
+        void getFleetReport_admin_shouldReportAllRecords() throws Exception {
+                reportingEngine.refresh();
+                Integer records = jdbcTemplate.queryForObject(
+                                "SELECT COUNT(*) FROM medical_record WHERE deleted = FALSE", Integer.class);
+
+                mockMvc.perform(get("/api/v1/admin/reports/fleet")
+                                .param("months", "6")
+                                .with(oauth2Login().oauth2User(
+                                                SecurityTestUtils.createOAuth2UserWithSubAndName("report-admin",
+                                                                "Report Admin"))))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalRecords", is(records)))
+                                .andExpect(jsonPath("$.ageHistogram", hasSize(11)))
+                                .andExpect(jsonPath("$.growth", hasSize(6)))
+                                .andExpect(jsonPath("$.growth[5].cumulative", is(records)))
+                                .andExpect(jsonPath("$.historyLength.max").isNumber())
+                                .andExpect(jsonPath("$.snapshot.bytes").isNumber());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/admin/reports/fleet - Not an administrator - Should return 403 Forbidden")
+        void getFleetReport_notAdmin_shouldReturnForbidden() throws Exception {
+                mockMvc.perform(get("/api/v1/admin/reports/fleet")
+                                .with(oauth2Login().oauth2User(
+                                                SecurityTestUtils.createOAuth2UserWithSubAndName("test-user-sub",
+                                                                "Test User"))))
+                                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/admin/reports/fleet - Months out of range - Should return 400 Bad Request")
+        void getFleetReport_monthsOutOfRange_shouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/v1/admin/reports/fleet")
+                                .param("months", "0")
+                                .with(oauth2Login().oauth2User(
+                                                SecurityTestUtils.createOAuth2UserWithSubAndName("other-admin",
+                                                                "Other Admin"))))
+                                .andExpect(status().isBadRequest());
+        }
+}
@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,7 +59,9 @@ class HomeControllerIntegrationTest {
                                 .andExpect(view().name("index"))
                                 .andExpect(model().attribute("isAuthenticated", true))
                                 .andExpect(model().attribute("userName", expectedUserName))
-                                .andExpect(model().attribute("h2ConsoleEnabled", h2ConsoleEnabledInConfig));
+                                .andExpect(model().attribute("h2ConsoleEnabled", h2ConsoleEnabledInConfig))
+                                .andExpect(model().attributeExists("statistics"))
+                                .andExpect(content().string(containsString("id=\"records-dashboard\"")));
         }
 
         @Test
@@ -1,14 +1,22 @@
 package com.example.medicalregister.controller;
 
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.service.MedicalRecordService;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.ui.Model;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -28,10 +36,13 @@ class HomeControllerTest {
     @Mock
     private OAuth2User principal;
 
+    @Mock
+    private MedicalRecordService recordService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        homeController = new HomeController(); // Create a real instance
+        homeController = new HomeController(recordService); // Create a real instance
     }
 
     @Test
@@ -96,6 +107,39 @@ class HomeControllerTest {
         verify(model).addAttribute("h2ConsoleEnabled", true);
     }
 
+    @Test
+    @DisplayName("Should add the user's record statistics to model when authenticated")
+    void home_whenAuthenticated_shouldAddStatistics() {
+        RecordStatisticsSummary statistics = new RecordStatisticsSummary(2, List.of(), List.of());
+        when(principal.getAttribute("name")).thenReturn("Test User");
+        when(recordService.getStatistics(HomeController.DASHBOARD_DAYS)).thenReturn(statistics);
+
+        homeController.home(model, principal);
+
+        verify(model).addAttribute("statistics", statistics);
+    }
+
+    @Test
+    @DisplayName("Should render without statistics if the user has no sub")
+    void home_whenUserHasNoSub_shouldOmitStatistics() {
+        when(principal.getAttribute("name")).thenReturn("Test User");
+        when(recordService.getStatistics(anyInt())).thenThrow(new AccessDeniedException("No sub"));
+
+        String viewName = homeController.home(model, principal);
+
+        assertEquals("index", viewName);
+        verify(model, never()).addAttribute(eq("statistics"), any());
+        verify(model).addAttribute("isAuthenticated", true);
+    }
+
+    @Test
+    @DisplayName("Should not read statistics when not authenticated")
+    void home_whenNotAuthenticated_shouldNotReadStatistics() {
+        homeController.home(model, null);
+
+        verifyNoInteractions(recordService);
+    }
+
     /**
      * Helper method to set the private {@code @Value} annotated field
      * 'h2ConsoleEnabled'
@@ -1,8 +1,14 @@
 package com.example.medicalregister.controller;
 
 import com.example.medicalregister.config.SecurityConfig;
+import com.example.medicalregister.dto.RecordBatchRequest;
+import com.example.medicalregister.dto.RecordFields;
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.dto.RecordStatisticsSummary;
 import com.example.medicalregister.exception.GlobalApiExceptionHandler;
+import com.example.medicalregister.exception.InvalidQueryException;
 import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.idempotency.IdempotentRequests;
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.service.MedicalRecordService;
 
@@ -30,19 +36,25 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
@@ -80,6 +92,15 @@ class MedicalRecordApiControllerTest {
                 public MedicalRecordService medicalRecordService() {
                         return Mockito.mock(MedicalRecordService.class);
                 }
+
+                // Executes every write, as if no Idempotency-Key was sent
+                @Bean
+                public IdempotentRequests idempotentRequests() {
+                        IdempotentRequests idempotentRequests = Mockito.mock(IdempotentRequests.class);
+                        when(idempotentRequests.execute(any(), any(), any(), any(), any()))
+                                        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+                        return idempotentRequests;
+                }
         }
 
         @BeforeEach
@@ -115,11 +136,13 @@ class MedicalRecordApiControllerTest {
                 mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(testUser)))
                                 .andExpect(status().isOk())
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                                .andExpect(jsonPath("$.content", hasSize(2)))
-                                .andExpect(jsonPath("$.content[0].name", is(sampleRecord1.getName())))
-                                .andExpect(jsonPath("$.totalPages", is(1)))
-                                .andExpect(jsonPath("$.totalElements", is(2)))
-                                .andExpect(jsonPath("$.pageable.pageNumber", is(0)));
+                                .andExpect(jsonPath("$.items", hasSize(2)))
+                                .andExpect(jsonPath("$.items[0].name", is(sampleRecord1.getName())))
+                                .andExpect(jsonPath("$.page.totalPages", is(1)))
+                                .andExpect(jsonPath("$.page.totalItems", is(2)))
+                                .andExpect(jsonPath("$.page.number", is(0)))
+                                .andExpect(jsonPath("$.page.hasNext", is(false)))
+                                .andExpect(jsonPath("$.pageable").doesNotExist());
         }
 
         @Test
@@ -137,13 +160,13 @@ class MedicalRecordApiControllerTest {
                                 .param("size", "1")
                                 .with(oauth2Login().oauth2User(testUser)))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.content", hasSize(1)))
-                                .andExpect(jsonPath("$.content[0].name", is(sampleRecord1.getName())))
-                                .andExpect(jsonPath("$.totalPages", is(2))) // Total 2 pages if totalElements is 2 and
-                                                                            // size is 1
-                                .andExpect(jsonPath("$.totalElements", is(2)))
-                                .andExpect(jsonPath("$.pageable.pageNumber", is(1)))
-                                .andExpect(jsonPath("$.pageable.pageSize", is(1)));
+                                .andExpect(jsonPath("$.items", hasSize(1)))
+                                .andExpect(jsonPath("$.items[0].name", is(sampleRecord1.getName())))
+                                .andExpect(jsonPath("$.page.totalPages", is(2))) // Total 2 pages if totalItems is 2 and
+                                                                                  // size is 1
+                                .andExpect(jsonPath("$.page.totalItems", is(2)))
+                                .andExpect(jsonPath("$.page.number", is(1)))
+                                .andExpect(jsonPath("$.page.size", is(1)));
 
                 verify(medicalRecordService).findAllRecords(eq(PageRequest.of(1, 1)));
         }
@@ -154,15 +177,86 @@ class MedicalRecordApiControllerTest {
                 // Assume sampleRecord2 should come before sampleRecord1 when sorted by name
                 // descending
                 List<MedicalRecord> sortedList = List.of(sampleRecord2, sampleRecord1);
-                Page<MedicalRecord> recordPage = new PageImpl<>(sortedList, PageRequest.of(0, 20), sortedList.size());
+                Page<MedicalRecord> recordPage = new PageImpl<>(sortedList,
+                                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "name")), sortedList.size());
                 when(medicalRecordService.findAllRecords(any(Pageable.class))).thenReturn(recordPage);
 
                 mockMvc.perform(get("/api/v1/records")
                                 .param("sort", "name,desc")
                                 .with(oauth2Login().oauth2User(testUser)))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.content[0].name", is(sampleRecord2.getName())))
-                                .andExpect(jsonPath("$.content[1].name", is(sampleRecord1.getName())));
+                                .andExpect(jsonPath("$.items[0].name", is(sampleRecord2.getName())))
+                                .andExpect(jsonPath("$.items[1].name", is(sampleRecord1.getName())))
+                                .andExpect(jsonPath("$.page.sort[0]", is("name,desc")));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records - Authenticated with filter params - Should return filtered results")
+        void listRecords_withFilterParams_shouldReturnFilteredResults() throws Exception {
+                Page<MedicalRecord> recordPage = new PageImpl<>(List.of(sampleRecord1), PageRequest.of(0, 3), 1);
+                RecordFilter filter = new RecordFilter(null, null, null,
+                                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0), null, null);
+                when(medicalRecordService.findRecords(filter, PageRequest.of(0, 3))).thenReturn(recordPage);
+
+                mockMvc.perform(get("/api/v1/records")
+                                .param("createdFrom", "2025-01-01T00:00:00")
+                                .param("createdTo", "2025-02-01T00:00")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items", hasSize(1)))
+                                .andExpect(jsonPath("$.items[0].name", is(sampleRecord1.getName())));
+
+                verify(medicalRecordService, never()).findAllRecords(any());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records - Authenticated with unindexable filter - Should return 400 Bad Request")
+        void listRecords_withUnindexableFilter_shouldReturnBadRequest() throws Exception {
+                when(medicalRecordService.findRecords(any(RecordFilter.class), any(Pageable.class)))
+                                .thenThrow(new InvalidQueryException(
+                                                "Filters on age and name cannot be combined; filter on one of them at a time."));
+
+                mockMvc.perform(get("/api/v1/records")
+                                .param("ageMin", "18")
+                                .param("name", "smi")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.status", is(400)))
+                                .andExpect(jsonPath("$.message", containsString("cannot be combined")));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/suggest - Authenticated - Should return matching names")
+        void suggestNames_authenticated_shouldReturnNames() throws Exception {
+                when(medicalRecordService.suggestNames("pat", 5)).thenReturn(List.of("Patient One", "Patient Zero"));
+
+                mockMvc.perform(get("/api/v1/records/suggest")
+                                .param("prefix", "pat")
+                                .param("limit", "5")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0]", is("Patient One")));
+
+                verify(medicalRecordService, never()).findRecordById(any());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/stats - Authenticated - Should return the record statistics")
+        void getStatistics_authenticated_shouldReturnSummary() throws Exception {
+                RecordStatisticsSummary summary = new RecordStatisticsSummary(2,
+                                List.of(new RecordStatisticsSummary.AgeBucket(30, 39, 2)),
+                                List.of(new RecordStatisticsSummary.DailyActivity(LocalDate.of(2025, 1, 31), 2, 1)));
+                when(medicalRecordService.getStatistics(7)).thenReturn(summary);
+
+                mockMvc.perform(get("/api/v1/records/stats")
+                                .param("days", "7")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.totalRecords", is(2)))
+                                .andExpect(jsonPath("$.ageHistogram[0].minAge", is(30)))
+                                .andExpect(jsonPath("$.daily[0].created", is(2)))
+                                .andExpect(jsonPath("$.daily[0].updated", is(1)));
         }
 
         @Test
@@ -206,6 +300,46 @@ class MedicalRecordApiControllerTest {
                 verify(medicalRecordService, never()).saveRecord(any(MedicalRecord.class));
         }
 
+        @Test
+        @DisplayName("POST /api/v1/records/batch - Authenticated - Valid data - Should save all records")
+        void saveRecords_validData_shouldSaveAllRecords() throws Exception {
+                MedicalRecord newRecordInput = new MedicalRecord(null, "New Patient", 25, "New History", null, null,
+                                null, null, null, false);
+                when(medicalRecordService.saveRecords(anyList())).thenReturn(List.of(sampleRecord1, sampleRecord2));
+
+                mockMvc.perform(post("/api/v1/records/batch")
+                                .with(oauth2Login().oauth2User(testUser))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                                new RecordBatchRequest(List.of(newRecordInput, sampleRecord2)))))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[1].name", is(sampleRecord2.getName())));
+                verify(medicalRecordService).saveRecords(argThat(records -> records.size() == 2));
+        }
+
+        @Test
+        @DisplayName("POST /api/v1/records/batch - Authenticated - Empty or invalid - Should return 400 Bad Request")
+        void saveRecords_emptyOrInvalid_shouldReturnBadRequest() throws Exception {
+                MedicalRecord invalidRecordInput = new MedicalRecord(null, null, 30, "History", null, null, null, null,
+                                null, false);
+
+                mockMvc.perform(post("/api/v1/records/batch")
+                                .with(oauth2Login().oauth2User(testUser))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new RecordBatchRequest(List.of()))))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", containsString("At least one record is required")));
+                mockMvc.perform(post("/api/v1/records/batch")
+                                .with(oauth2Login().oauth2User(testUser))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                                new RecordBatchRequest(List.of(invalidRecordInput)))))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", containsString("records[0].name: Name is mandatory")));
+                verify(medicalRecordService, never()).saveRecords(anyList());
+        }
+
         @Test
         @DisplayName("GET /api/v1/records/{id} - Authenticated - Record found - Should return record")
         void getRecordById_recordFound_shouldReturnRecord() throws Exception {
@@ -228,6 +362,89 @@ class MedicalRecordApiControllerTest {
                                 .andExpect(jsonPath("$.message", is("Record not found")));
         }
 
+        @Test
+        @DisplayName("GET /api/v1/records?fields=name,age - Should return only the requested fields")
+        void listRecords_withFields_shouldReturnRequestedFields() throws Exception {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", 1L);
+                row.put("name", "Patient Zero");
+                row.put("age", 30);
+                when(medicalRecordService.findRecordFields(any(RecordFilter.class), any(Pageable.class),
+                                eq(RecordFields.parse("age,name")))).thenReturn(new PageImpl<>(List.of(row)));
+
+                mockMvc.perform(get("/api/v1/records").param("fields", "age,name")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].name", is("Patient Zero")))
+                                .andExpect(jsonPath("$.items[0].medicalHistory").doesNotExist())
+                                .andExpect(jsonPath("$.page.totalItems", is(1)));
+                verify(medicalRecordService, never()).findAllRecords(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/{id}?fields=age - Should return the ID and the requested field")
+        void getRecordById_withFields_shouldReturnRequestedFields() throws Exception {
+                when(medicalRecordService.findRecordFieldsById(1L, RecordFields.parse("age")))
+                                .thenReturn(Map.of("id", 1L, "age", 30));
+
+                mockMvc.perform(get("/api/v1/records/{id}", 1L).param("fields", "age")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.id", is(1)))
+                                .andExpect(jsonPath("$.age", is(30)))
+                                .andExpect(jsonPath("$.name").doesNotExist());
+                verify(medicalRecordService, never()).findRecordById(anyLong());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/{id}?fields=unknown - Should return 400 Bad Request")
+        void getRecordById_unknownField_shouldReturnBadRequest() throws Exception {
+                mockMvc.perform(get("/api/v1/records/{id}", 1L).param("fields", "name,password")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", containsString("Unknown field 'password'")));
+                verifyNoInteractions(medicalRecordService);
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/by-ids - Should return the records of the IDs")
+        void getRecordsByIds_shouldReturnRecords() throws Exception {
+                when(medicalRecordService.findRecordsByIds(List.of(2L, 1L)))
+                                .thenReturn(List.of(sampleRecord2, sampleRecord1));
+
+                mockMvc.perform(get("/api/v1/records/by-ids").param("ids", "2,1")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[0].name", is(sampleRecord2.getName())))
+                                .andExpect(jsonPath("$[1].medicalHistory", is(sampleRecord1.getMedicalHistory())));
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/by-ids?fields=name - Should return the requested fields of the records")
+        void getRecordsByIds_withFields_shouldReturnRequestedFields() throws Exception {
+                when(medicalRecordService.findRecordFieldsByIds(List.of(1L), RecordFields.parse("name")))
+                                .thenReturn(List.of(Map.of("id", 1L, "name", "Patient Zero")));
+
+                mockMvc.perform(get("/api/v1/records/by-ids").param("ids", "1").param("fields", "name")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name", is("Patient Zero")))
+                                .andExpect(jsonPath("$[0].age").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("GET /api/v1/records/by-ids - Too many IDs - Should return 400 Bad Request")
+        void getRecordsByIds_tooManyIds_shouldReturnBadRequest() throws Exception {
+                when(medicalRecordService.findRecordsByIds(anyList()))
+                                .thenThrow(new InvalidQueryException("At most 100 ids are allowed."));
+
+                mockMvc.perform(get("/api/v1/records/by-ids").param("ids", "1,2")
+                                .with(oauth2Login().oauth2User(testUser)))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message", is("At most 100 ids are allowed.")));
+        }
+
         @Test
         @DisplayName("PUT /api/v1/records/{id} - Authenticated - Valid data - Should update record")
         void updateRecord_validData_shouldUpdateRecord() throws Exception {
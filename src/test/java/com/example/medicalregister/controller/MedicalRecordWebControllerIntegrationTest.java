@@ -2,6 +2,7 @@ package com.example.medicalregister.controller;
 
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.sql.SqlCountHeaderFilter;
 import com.example.medicalregister.util.SecurityTestUtils;
 
 import org.junit.jupiter.api.AfterEach;
@@ -18,6 +19,8 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -95,7 +98,8 @@ class MedicalRecordWebControllerIntegrationTest {
                 .with(oauth2Login().oauth2User(testUser)))
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl("/records"))
-                .andExpect(flash().attribute("successMessage", "Record successfully created."));
+                .andExpect(flash().attribute("successMessage", "Record successfully created."))
+                .andExpect(header().string(SqlCountHeaderFilter.HEADER, containsString("insert=1")));
 
         // Verify record in DB
         Page<MedicalRecord> recordsInDb = medicalRecordRepository.findByOwnerId(TEST_USER_SUB, Pageable.unpaged());
@@ -111,11 +115,14 @@ class MedicalRecordWebControllerIntegrationTest {
         mockMvc.perform(get("/records").with(oauth2Login().oauth2User(testUser)))
                 .andExpect(status().isOk())
                 .andExpect(view().name("records/list-records"))
+                .andExpect(header().string(SqlCountHeaderFilter.HEADER,
+                        "select=1, insert=0, update=0, delete=0, other=0"))
                 .andExpect(model().attribute("recordPage", hasProperty("content", hasSize(1))))
                 .andExpect(model().attribute("recordPage", hasProperty("content", contains(
                         allOf(
                                 hasProperty("id", is(savedRecordId)),
-                                hasProperty("name", is(patientName)))))));
+                                hasProperty("name", is(patientName)))))))
+                .andExpect(content().string(containsString(patientName)));
 
         // 4. Show Edit Form (Authenticated)
         mockMvc.perform(get("/records/edit/" + savedRecordId).with(oauth2Login().oauth2User(testUser)))
@@ -141,6 +148,11 @@ class MedicalRecordWebControllerIntegrationTest {
         MedicalRecord updatedRecord = medicalRecordRepository.findById(savedRecordId).orElseThrow();
         assertThat(updatedRecord.getName()).isEqualTo(updatedPatientName);
 
+        // The cached records table must show the update
+        mockMvc.perform(get("/records").with(oauth2Login().oauth2User(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(updatedPatientName)));
+
         // 6. Delete Record (Authenticated)
         mockMvc.perform(get("/records/delete/" + savedRecordId).with(oauth2Login().oauth2User(testUser)))
                 .andExpect(status().isFound())
@@ -152,6 +164,36 @@ class MedicalRecordWebControllerIntegrationTest {
         assertThat(medicalRecordRepository.findByOwnerId(TEST_USER_SUB, Pageable.unpaged())).isEmpty();
     }
 
+    @Test
+    @DisplayName("Records table fragment and in-place delete should render only the updated table")
+    void recordsTableAndDeleteInPlace_shouldRenderFragment() throws Exception {
+        for (String name : List.of("Fragment Patient A", "Fragment Patient B")) {
+            mockMvc.perform(post("/records/save")
+                    .param("name", name)
+                    .param("age", "40")
+                    .param("medicalHistory", "History")
+                    .with(csrf())
+                    .with(oauth2Login().oauth2User(testUser)))
+                    .andExpect(status().isFound());
+        }
+        Long deletedId = medicalRecordRepository.findByOwnerId(TEST_USER_SUB, Pageable.unpaged()).stream()
+                .filter(record -> record.getName().equals("Fragment Patient A"))
+                .findFirst().orElseThrow().getId();
+
+        mockMvc.perform(get("/records/table").with(oauth2Login().oauth2User(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("<div")))
+                .andExpect(content().string(allOf(containsString("Fragment Patient A"),
+                        containsString("Fragment Patient B"), not(containsString("<html")))));
+
+        mockMvc.perform(post("/records/delete/" + deletedId)
+                .with(csrf())
+                .with(oauth2Login().oauth2User(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(not(containsString("Fragment Patient A")),
+                        containsString("Fragment Patient B"))));
+    }
+
     @Test
     @DisplayName("POST /records/save with invalid data should return to form with errors")
     void saveRecord_invalidData_shouldReturnFormWithErrors() throws Exception {
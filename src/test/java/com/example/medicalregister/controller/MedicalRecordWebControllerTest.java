@@ -1,9 +1,13 @@
 package com.example.medicalregister.controller;
 
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.exception.InvalidQueryException;
 import com.example.medicalregister.exception.RecordNotFoundException;
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.service.MedicalRecordService;
 import com.example.medicalregister.util.SecurityTestUtils;
+import com.example.medicalregister.view.RecordsTableCache;
+import com.example.medicalregister.view.TemplateFragmentRenderer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,7 @@ import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequ
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,6 +26,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
@@ -48,6 +54,14 @@ class MedicalRecordWebControllerTest {
     @MockitoBean(name = "recordService")
     private MedicalRecordService recordService;
 
+    @MockitoBean
+    private RecordsTableCache recordsTableCache;
+
+    @MockitoBean
+    private TemplateFragmentRenderer fragmentRenderer;
+
+    private static final String RECORDS_TABLE = "<div id=\"records-table\">...</div>";
+
     @Test
     @DisplayName("GET /records should return list-records view with a page of records for authenticated user")
     void listRecords_authenticated_shouldReturnViewAndRecords() throws Exception {
@@ -85,6 +99,149 @@ class MedicalRecordWebControllerTest {
         verify(recordService, never()).findAllRecords(any());
     }
 
+    @Test
+    @DisplayName("GET /records with a filter should list the matching records and keep the filter in the form")
+    void listRecords_withFilter_shouldListMatchingRecords() throws Exception {
+        // Arrange
+        RecordFilter filter = new RecordFilter(null, null, "smi", null, null, null, null);
+        Page<MedicalRecord> mockRecordPage = new PageImpl<>(List.of(new MedicalRecord()), PageRequest.of(0, 3), 1);
+        when(recordService.findRecords(filter, PageRequest.of(0, 3))).thenReturn(mockRecordPage);
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(get("/records")
+                .param("name", "smi")
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("records/list-records"))
+                .andExpect(model().attribute("recordPage", is(mockRecordPage)))
+                .andExpect(model().attribute("filterQuery", "&name=smi"))
+                .andExpect(content().string(containsString("value=\"smi\"")));
+
+        verify(recordService, never()).findAllRecords(any());
+        verify(recordsTableCache).key(any(), eq(PageRequest.of(0, 3)), eq(filter));
+    }
+
+    @Test
+    @DisplayName("GET /records with an unindexable filter should show an error and the unfiltered list")
+    void listRecords_withUnindexableFilter_shouldShowErrorAndAllRecords() throws Exception {
+        // Arrange
+        Page<MedicalRecord> mockRecordPage = new PageImpl<>(List.of(new MedicalRecord()), PageRequest.of(0, 3), 1);
+        when(recordService.findRecords(any(RecordFilter.class), any(PageRequest.class)))
+                .thenThrow(new InvalidQueryException("Filters on age and name cannot be combined."));
+        when(recordService.findAllRecords(PageRequest.of(0, 3))).thenReturn(mockRecordPage);
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(get("/records")
+                .param("ageMin", "18")
+                .param("name", "smi")
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("records/list-records"))
+                .andExpect(model().attribute("errorMessage", "Filters on age and name cannot be combined."))
+                .andExpect(model().attribute("recordPage", is(mockRecordPage)))
+                .andExpect(model().attribute("filterQuery", ""));
+    }
+
+    @Test
+    @DisplayName("GET /records/table should return only the records table for authenticated user")
+    void recordsTable_authenticated_shouldReturnFragment() throws Exception {
+        // Arrange
+        Page<MedicalRecord> mockRecordPage = new PageImpl<>(List.of(), PageRequest.of(1, 3), 4);
+        when(recordService.findAllRecords(any(PageRequest.class))).thenReturn(mockRecordPage);
+        when(recordsTableCache.get(any(), any())).thenReturn(RECORDS_TABLE);
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(get("/records/table")
+                .param("page", "1")
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(content().string(RECORDS_TABLE));
+
+        verify(recordService).findAllRecords(PageRequest.of(1, 3));
+    }
+
+    @Test
+    @DisplayName("POST /records/delete/{id} should delete record and return the updated records table")
+    void deleteRecordInPlace_authenticated_shouldDeleteAndReturnFragment() throws Exception {
+        // Arrange
+        Long recordId = 1L;
+        Page<MedicalRecord> mockRecordPage = new PageImpl<>(List.of(new MedicalRecord()), PageRequest.of(0, 3), 1);
+        when(recordService.findAllRecords(any(PageRequest.class))).thenReturn(mockRecordPage);
+        when(recordsTableCache.get(any(), any())).thenReturn(RECORDS_TABLE);
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(post("/records/delete/{id}", recordId)
+                .with(SecurityMockMvcRequestPostProcessors.csrf())
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MedicalRecordWebController.SUCCESS_MESSAGE_HEADER,
+                        "Record successfully deleted."))
+                .andExpect(content().string(RECORDS_TABLE));
+
+        verify(recordService).deleteRecordById(recordId);
+        verify(recordService).findAllRecords(PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("POST /records/delete/{id} emptying the last page should return the new last page")
+    void deleteRecordInPlace_lastRecordOnLastPage_shouldReturnPreviousPage() throws Exception {
+        // Arrange
+        when(recordService.findAllRecords(PageRequest.of(1, 3)))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(1, 3), 3));
+        when(recordService.findAllRecords(PageRequest.of(0, 3)))
+                .thenReturn(new PageImpl<>(List.of(new MedicalRecord()), PageRequest.of(0, 3), 3));
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(post("/records/delete/{id}", 4L)
+                .param("page", "1")
+                .with(SecurityMockMvcRequestPostProcessors.csrf())
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isOk());
+
+        verify(recordService).findAllRecords(PageRequest.of(1, 3));
+        verify(recordService).findAllRecords(PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("POST /records/delete/{id} should return 404 with a message if record not found")
+    void deleteRecordInPlace_recordNotFound_shouldReturnNotFound() throws Exception {
+        // Arrange
+        doThrow(new RecordNotFoundException("Record not found")).when(recordService).deleteRecordById(99L);
+
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        // Act & Assert
+        mockMvc.perform(post("/records/delete/{id}", 99L)
+                .with(SecurityMockMvcRequestPostProcessors.csrf())
+                .with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Record not found"));
+
+        verify(recordService, never()).findAllRecords(any());
+    }
+
+    @Test
+    @DisplayName("POST /records/delete/{id} without CSRF token should be forbidden")
+    void deleteRecordInPlace_withoutCsrf_shouldBeForbidden() throws Exception {
+        var mockPrincipal = SecurityTestUtils.createOAuth2User(Map.of("name", "Test User"), "name");
+
+        mockMvc.perform(post("/records/delete/{id}", 1L).with(oauth2Login().oauth2User(mockPrincipal)))
+                .andExpect(status().isForbidden());
+
+        verify(recordService, never()).deleteRecordById(any());
+    }
+
     @Test
     @DisplayName("GET /records/new should return record-form view for authenticated user")
     void showCreateForm_authenticated_shouldReturnViewAndNewRecord() throws Exception {
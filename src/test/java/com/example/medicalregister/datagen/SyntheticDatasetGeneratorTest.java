@@ -0,0 +1,107 @@
+package com.example.medicalregister.datagen;
+
+import com.example.medicalregister.datagen.SyntheticRecordSource.SyntheticRow;
+import com.example.medicalregister.repository.MedicalRecordRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The generator commits on its own connections
+@DisplayName("SyntheticDatasetGenerator Tests")
+/**
+ * Tests for the synthetic dataset generator: determinism of the generated
+ * rows, owner skew, and the batched inserts themselves.
+ */
+class SyntheticDatasetGeneratorTest {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).update("DELETE FROM medical_record");
+    }
+
+    @Test
+    @DisplayName("Same seed should produce identical rows")
+    void generateChunk_withSameSeed_shouldProduceIdenticalRows() {
+        DatasetSpec spec = DatasetSpec.of(2_000, 50, 7L);
+
+        assertThat(rows(spec)).isEqualTo(rows(spec));
+        assertThat(rows(spec)).isNotEqualTo(rows(DatasetSpec.of(2_000, 50, 8L)));
+    }
+
+    @Test
+    @DisplayName("Owner skew should concentrate records on the first owners")
+    void generateChunk_withSkew_shouldConcentrateRecordsOnFewOwners() {
+        DatasetSpec spec = DatasetSpec.of(20_000, 1_000, 1L);
+
+        Map<String, Integer> perOwner = new HashMap<>();
+        rows(spec).forEach(row -> perOwner.merge(row.ownerId(), 1, Integer::sum));
+
+        int top = perOwner.getOrDefault(spec.ownerPrefix() + 0, 0);
+        assertThat(top).isGreaterThan(20_000 / 20); // Well above the 20 records of an even spread
+        long ownersWithFew = spec.owners() - perOwner.values().stream().filter(count -> count > 5).count();
+        assertThat(ownersWithFew).isGreaterThan(spec.owners() / 2);
+    }
+
+    @Test
+    @DisplayName("History lengths should stay within bounds")
+    void generateChunk_shouldBoundHistoryLength() {
+        DatasetSpec spec = DatasetSpec.of(5_000, 10, 3L);
+
+        assertThat(rows(spec)).allSatisfy(row -> {
+            assertThat(row.medicalHistory()).isNotEmpty();
+            assertThat(row.medicalHistory().length()).isLessThanOrEqualTo(spec.maxHistoryLength());
+            assertThat(row.updatedAt()).isAfterOrEqualTo(row.createdAt()).isBeforeOrEqualTo(EPOCH);
+        });
+    }
+
+    @Test
+    @DisplayName("generate should insert every row, visible through the repository")
+    void generate_shouldInsertAllRows() {
+        DatasetSpec spec = new DatasetSpec(25_000, 20, 1.1, "datagen-test|", 100, 2_000, 30, 11L, 3, 500);
+
+        long inserted = new SyntheticDatasetGenerator(dataSource).generate(spec, EPOCH);
+
+        assertThat(inserted).isEqualTo(25_000);
+        assertThat(medicalRecordRepository.count()).isEqualTo(25_000);
+        long owner0 = medicalRecordRepository.findByOwnerId("datagen-test|0", Pageable.ofSize(1)).getTotalElements();
+        long expected = rows(spec).stream().filter(row -> row.ownerId().equals("datagen-test|0")).count();
+        assertThat(owner0).isEqualTo(expected);
+    }
+
+    private static List<SyntheticRow> rows(DatasetSpec spec) {
+        SyntheticRecordSource source = new SyntheticRecordSource(spec, EPOCH);
+        List<SyntheticRow> rows = new ArrayList<>();
+        for (long chunk = 0; chunk < source.chunkCount(); chunk++) {
+            source.generateChunk(chunk, rows::add);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.medicalregister.idempotency;
+
+import com.example.medicalregister.dto.RecordBatchRequest;
+import com.example.medicalregister.exception.IdempotencyKeyException;
+import com.example.medicalregister.model.IdempotencyKey;
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.repository.IdempotencyKeyRepository;
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.util.SecurityTestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Idempotency-Key Integration Tests")
+/**
+ * Integration tests for {@link IdempotentRequests} against the test database.
+ * Not transactional: claims and writes are committed in separate transactions,
+ * as in production, so every test uses its own owner and the stored keys are
+ * deleted afterwards.
+ */
+class IdempotentRequestsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyKeyCleaner idempotencyKeyCleaner;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String ownerId = "idempotency|" + UUID.randomUUID();
+    private final OAuth2User user = SecurityTestUtils.createOAuth2UserWithSubAndName(ownerId, "Idempotent User");
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+        medicalRecordRepository.deleteAll(medicalRecordRepository.findByOwnerId(ownerId, Pageable.unpaged()));
+    }
+
+    @Test
+    @DisplayName("A retried create should replay the original response without creating another record")
+    void create_retriedWithSameKey_shouldReplayResponse() throws Exception {
+        String body = objectMapper.writeValueAsString(record("Retried Patient"));
+
+        MvcResult first = mockMvc.perform(create(body, "create-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER))
+                .andReturn();
+        long id = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(create(body, "create-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(header().string("Location", first.getResponse().getHeader("Location")))
+                .andExpect(jsonPath("$.id").value(id));
+
+        assertThat(recordCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Creates without a key, or with different keys, should each create a record")
+    void create_withoutOrWithDifferentKeys_shouldCreateEachTime() throws Exception {
+        String body = objectMapper.writeValueAsString(record("Patient"));
+
+        mockMvc.perform(create(body, null)).andExpect(status().isCreated());
+        mockMvc.perform(create(body, null)).andExpect(status().isCreated());
+        mockMvc.perform(create(body, "create-a")).andExpect(status().isCreated());
+        mockMvc.perform(create(body, "create-b")).andExpect(status().isCreated());
+
+        assertThat(recordCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("A key reused for a different request should get 422 Unprocessable Entity")
+    void create_sameKeyDifferentBody_shouldBeRejected() throws Exception {
+        mockMvc.perform(create(objectMapper.writeValueAsString(record("First Patient")), "create-2"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(create(objectMapper.writeValueAsString(record("Second Patient")), "create-2"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+
+        assertThat(recordCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A retried batch should save its records once")
+    void batch_retriedWithSameKey_shouldSaveOnce() throws Exception {
+        String body = objectMapper.writeValueAsString(
+                new RecordBatchRequest(List.of(record("Batch One"), record("Batch Two"))));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/records/batch").with(oauth2Login().oauth2User(user))
+                    .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "batch-1")
+                    .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[1].name").value("Batch Two"));
+        }
+
+        assertThat(recordCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Another replica should replay the stored response from the database")
+    void execute_onAnotherReplica_shouldReplayFromDatabase() {
+        AtomicInteger writes = new AtomicInteger();
+        idempotentRequests.execute(ownerId, "replica-1", "POST /test", "body", () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("created");
+        });
+
+        ResponseEntity<?> replayed = newReplica().execute(ownerId, "replica-1", "POST /test", "body", () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.ok("again");
+        });
+
+        assertThat(writes).hasValue(1);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(((JsonNode) replayed.getBody()).asText()).isEqualTo("created");
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates should execute the write once; the others get 409 Conflict")
+    void execute_concurrentDuplicates_shouldWriteOnce() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> idempotentRequests.execute(ownerId, "race-1",
+                    "POST /test", "body", () -> {
+                        writes.incrementAndGet();
+                        writeStarted.countDown();
+                        awaitQuietly(releaseWrite);
+                        return ResponseEntity.ok("written");
+                    }));
+            assertThat(writeStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            List<Callable<ResponseEntity<?>>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                duplicates.add(() -> idempotentRequests.execute(ownerId, "race-1", "POST /test", "body", () -> {
+                    writes.incrementAndGet();
+                    return ResponseEntity.ok("duplicate");
+                }));
+            }
+            for (Future<ResponseEntity<?>> duplicate : executor.invokeAll(duplicates)) {
+                assertThatThrownBy(duplicate::get).isInstanceOf(ExecutionException.class)
+                        .cause().isInstanceOfSatisfying(IdempotencyKeyException.class,
+                                e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            }
+            releaseWrite.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("written");
+        } finally {
+            releaseWrite.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A failed write should release the key, so the request can be retried")
+    void execute_failedWrite_shouldReleaseKey() {
+        assertThatThrownBy(() -> idempotentRequests.execute(ownerId, "failing-1", "POST /test", "body", () -> {
+            throw new IllegalStateException("Database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<?> retried = idempotentRequests.execute(ownerId, "failing-1", "POST /test", "body",
+                () -> ResponseEntity.ok("written"));
+
+        assertThat(retried.getBody()).isEqualTo("written");
+    }
+
+    @Test
+    @DisplayName("A write slower than its lease should be rolled back if a retry took over the key")
+    void execute_writeSlowerThanLease_shouldRollBack() throws Exception {
+        MutableClock clock = new MutableClock(Instant.now());
+        IdempotentRequests requests = newReplica(clock);
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<?>> slow = executor.submit(() -> requests.execute(ownerId, "slow-1", "POST /test",
+                    "body", () -> {
+                        medicalRecordRepository.save(ownedRecord("Slow Patient"));
+                        writeStarted.countDown();
+                        awaitQuietly(releaseWrite);
+                        return ResponseEntity.ok("slow");
+                    }));
+            assertThat(writeStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            clock.advance(Duration.ofMinutes(2));
+            ResponseEntity<?> retried = requests.execute(ownerId, "slow-1", "POST /test", "body", () -> {
+                medicalRecordRepository.save(ownedRecord("Retried Patient"));
+                return ResponseEntity.ok("retried");
+            });
+            releaseWrite.countDown();
+
+            assertThat(retried.getBody()).isEqualTo("retried");
+            assertThatThrownBy(() -> slow.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .cause().isInstanceOfSatisfying(IdempotencyKeyException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        } finally {
+            releaseWrite.countDown();
+            executor.shutdownNow();
+        }
+
+        ResponseEntity<?> replayed = newReplica(clock).execute(ownerId, "slow-1", "POST /test", "body",
+                () -> ResponseEntity.ok("again"));
+        assertThat(((JsonNode) replayed.getBody()).asText()).isEqualTo("retried");
+        assertThat(medicalRecordRepository.findByOwnerId(ownerId, Pageable.unpaged()))
+                .extracting(MedicalRecord::getName).containsExactly("Retried Patient");
+    }
+
+    @Test
+    @DisplayName("Expired keys should be deleted by the cleaner")
+    void cleaner_shouldDeleteExpiredKeys() {
+        idempotencyKeyRepository.save(new IdempotencyKey("expired-key", "hash", 201, null, new byte[0],
+                Instant.now().minus(Duration.ofMinutes(1))));
+        idempotencyKeyRepository.save(new IdempotencyKey("current-key", "hash", 201, null, new byte[0],
+                Instant.now().plus(Duration.ofHours(1))));
+
+        assertThat(idempotencyKeyCleaner.deleteExpiredKeys()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.existsById("expired-key")).isFalse();
+        assertThat(idempotencyKeyRepository.existsById("current-key")).isTrue();
+    }
+
+    private MockHttpServletRequestBuilder create(String body, String idempotencyKey) {
+        MockHttpServletRequestBuilder request = post("/api/v1/records").with(oauth2Login().oauth2User(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        if (idempotencyKey != null) {
+            request.header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        return request;
+    }
+
+    private IdempotentRequests newReplica() {
+        return newReplica(Clock.systemUTC());
+    }
+
+    private IdempotentRequests newReplica(Clock clock) {
+        return new IdempotentRequests(idempotencyKeyRepository, transactionManager, objectMapper,
+                Duration.ofHours(24), Duration.ofMinutes(1), 1_000_000, new SimpleMeterRegistry(), clock);
+    }
+
+    private long recordCount() {
+        return medicalRecordRepository.findByOwnerId(ownerId, Pageable.unpaged()).getTotalElements();
+    }
+
+    private static MedicalRecord record(String name) {
+        return new MedicalRecord(null, name, 40, "History", null, null, null, null, null, false);
+    }
+
+    private MedicalRecord ownedRecord(String name) {
+        MedicalRecord record = record(name);
+        record.setOwnerId(ownerId);
+        record.setCreatedBy(ownerId);
+        record.setLastModifiedBy(ownerId);
+        return record;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A clock that the test moves forward, to let a claim's lease expire.
+     */
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.medicalregister.loadtest;
+
+import com.example.medicalregister.loadtest.LoadTestSettings.Scenario;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a measured load-test phase: per-scenario latency histograms
+ * (corrected for coordinated omission, in nanoseconds), error counts and
+ * achieved throughput.
+ */
+public record LoadTestResult(LoadTestSettings settings, long issuedRequests, long elapsedNanos,
+        Map<Scenario, Histogram> histograms, Map<Scenario, Long> errors) {
+
+    /**
+     * @return Total failed requests (transport errors and HTTP status >= 400).
+     */
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return Completed requests per second over the measured phase.
+     */
+    public double throughput() {
+        long completed = histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        return completed / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Prints a latency summary table, in milliseconds, per scenario.
+     *
+     * @param out Destination stream.
+     */
+    public void printSummary(PrintStream out) {
+        out.printf("%nLoad test: target %.1f req/s (%s arrivals), %d users, measured %ds%n",
+                settings.arrivalRate(), settings.poisson() ? "poisson" : "constant", settings.virtualUsers(),
+                settings.duration().toSeconds());
+        out.printf("Issued %d requests, throughput %.1f req/s, errors %d%n", issuedRequests, throughput(),
+                totalErrors());
+        out.printf("%-11s %8s %8s %8s %8s %8s %8s %6s%n", "scenario", "count", "p50", "p90", "p99", "p99.9",
+                "max", "errors");
+        histograms.forEach((scenario, histogram) -> out.printf("%-11s %8d %8.2f %8.2f %8.2f %8.2f %8.2f %6d%n",
+                scenario, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                errors.get(scenario)));
+    }
+
+    /**
+     * Writes one HdrHistogram log per scenario, which can be plotted with the
+     * HdrHistogram tooling (e.g. HistogramLogAnalyzer).
+     *
+     * @param directory Output directory, created if missing.
+     */
+    public void writeHistogramLogs(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            for (Map.Entry<Scenario, Histogram> entry : histograms.entrySet()) {
+                Path file = directory.resolve(entry.getKey().name().toLowerCase() + ".hlog");
+                try (PrintStream stream = new PrintStream(file.toFile())) {
+                    HistogramLogWriter writer = new HistogramLogWriter(stream);
+                    writer.outputLogFormatVersion();
+                    writer.outputLegend();
+                    writer.outputIntervalHistogram(entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write histogram logs to " + directory, e);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.medicalregister.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Workload settings for the load-test suite, read from system properties so
+ * that they can be passed on the Maven command line, e.g.
+ * {@code mvn test -Pload-test -Dloadtest.rate=200 -Dloadtest.duration=PT2M}.
+ *
+ * @param arrivalRate    Target arrivals per second (open model: independent of
+ *                       response times).
+ * @param poisson        If true, inter-arrival times are exponentially
+ *                       distributed; otherwise arrivals are evenly spaced.
+ * @param warmup         Duration of the warm-up phase, whose samples are
+ *                       discarded.
+ * @param duration       Duration of the measured phase.
+ * @param virtualUsers   Number of distinct owners ('sub' claims) requests are
+ *                       spread across.
+ * @param recordsPerUser Average records seeded per virtual user before the run.
+ * @param ownerSkew      Zipf exponent of seeded records per user (see
+ *                       {@code DatasetSpec}); 0 gives every user roughly the
+ *                       same number of records.
+ * @param mix            Relative weight of each scenario.
+ * @param seed           Seed for arrival times and scenario selection.
+ */
+public record LoadTestSettings(double arrivalRate, boolean poisson, Duration warmup, Duration duration,
+        int virtualUsers, int recordsPerUser, double ownerSkew, Map<Scenario, Integer> mix, long seed) {
+
+    /**
+     * The request types driven against the application.
+     */
+    public enum Scenario {
+        API_LIST, API_GET, API_CREATE, WEB_LIST
+    }
+
+    /**
+     * @return Settings from {@code loadtest.*} system properties, with defaults
+     *         suitable for a short smoke run.
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        mix.put(Scenario.API_LIST, Integer.getInteger("loadtest.mix.api-list", 40));
+        mix.put(Scenario.API_GET, Integer.getInteger("loadtest.mix.api-get", 30));
+        mix.put(Scenario.API_CREATE, Integer.getInteger("loadtest.mix.api-create", 10));
+        mix.put(Scenario.WEB_LIST, Integer.getInteger("loadtest.mix.web-list", 20));
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                "poisson".equalsIgnoreCase(System.getProperty("loadtest.arrival", "poisson")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT5S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT15S")),
+                Integer.getInteger("loadtest.users", 20),
+                Integer.getInteger("loadtest.records-per-user", 25),
+                Double.parseDouble(System.getProperty("loadtest.skew", "0")),
+                mix,
+                Long.getLong("loadtest.seed", 42L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.medicalregister.loadtest;
+
+import com.example.medicalregister.config.LoadTestAuthenticationFilter;
+import com.example.medicalregister.datagen.DatasetSpec;
+import com.example.medicalregister.datagen.SyntheticDatasetGenerator;
+import com.example.medicalregister.loadtest.LoadTestSettings.Scenario;
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.util.StubOidcProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Offline load test for the records API and web UI. The application is booted
+ * against a {@link StubOidcProvider} instead of Auth0, and virtual users are
+ * authenticated per request by the {@link LoadTestAuthenticationFilter}.
+ * <p>
+ * Excluded from the regular build; run with {@code mvn test -Pload-test} and
+ * tune the workload with the {@code loadtest.*} system properties described in
+ * {@link LoadTestSettings}. Histogram logs are written to
+ * {@code target/loadtest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({ "test", "loadtest" })
+@DisplayName("Medical Record Load Test")
+@Tag("loadtest")
+class MedicalRecordLoadTest {
+
+    private static final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+
+    @AfterAll
+    static void stopClientExecutor() {
+        clientExecutor.shutdownNow();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    private final List<String> users = new ArrayList<>();
+    private final List<List<Long>> recordIdsByUser = new ArrayList<>();
+
+    @BeforeEach
+    void seedRecords() {
+        medicalRecordRepository.deleteAll();
+        String ownerPrefix = "loadtest|user-";
+        DatasetSpec spec = new DatasetSpec((long) settings.virtualUsers() * settings.recordsPerUser(),
+                settings.virtualUsers(), settings.ownerSkew(), ownerPrefix, 160, 20_000, 365, settings.seed(), 4,
+                1_000);
+        new SyntheticDatasetGenerator(dataSource).generate(spec, LocalDateTime.now());
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int u = 0; u < settings.virtualUsers(); u++) {
+            String sub = ownerPrefix + u;
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM medical_record WHERE owner_id = ?", Long.class,
+                    sub);
+            if (!ids.isEmpty()) { // With high skew some users may have no records at all
+                users.add(sub);
+                recordIdsByUser.add(ids);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Open-model workload completes without errors")
+    void openModelWorkload_shouldCompleteWithoutErrors() {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        LoadTestResult result = new OpenModelLoadGenerator(client, settings, this::buildRequest).run();
+
+        result.printSummary(System.out);
+        result.writeHistogramLogs(Path.of("target", "loadtest"));
+        assertThat(result.totalErrors()).isZero();
+    }
+
+    private HttpRequest buildRequest(Scenario scenario, SplittableRandom random) {
+        int user = random.nextInt(users.size());
+        List<Long> ids = recordIdsByUser.get(user);
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(Duration.ofSeconds(30))
+                .header(LoadTestAuthenticationFilter.USER_HEADER, users.get(user));
+        return switch (scenario) {
+            case API_LIST -> builder.uri(uri("/api/v1/records?page=" + random.nextInt(5) + "&size=10")).GET().build();
+            case API_GET -> builder.uri(uri("/api/v1/records/" + ids.get(random.nextInt(ids.size())))).GET().build();
+            case API_CREATE -> builder.uri(uri("/api/v1/records"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Load Patient\",\"age\":" + random.nextInt(100)
+                                    + ",\"medicalHistory\":\"Created by load test\"}"))
+                    .build();
+            case WEB_LIST -> builder.uri(uri("/records?page=" + random.nextInt(5) + "&size=10")).GET().build();
+        };
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
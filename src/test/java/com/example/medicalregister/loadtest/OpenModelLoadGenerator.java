@@ -0,0 +1,134 @@
+package com.example.medicalregister.loadtest;
+
+import com.example.medicalregister.loadtest.LoadTestSettings.Scenario;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Open-model load generator. Requests are issued on a fixed arrival schedule
+ * that does not wait for earlier responses, and every latency is measured from
+ * the request's <em>intended</em> start time rather than the moment it was
+ * actually sent. A stalled server (or a stalled generator) therefore shows up
+ * as queueing delay in the histogram instead of silently thinning out the
+ * sample, which corrects for coordinated omission.
+ */
+public class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient httpClient;
+    private final LoadTestSettings settings;
+    private final BiFunction<Scenario, SplittableRandom, HttpRequest> requestFactory;
+
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, AtomicLong> errors = new EnumMap<>(Scenario.class);
+    private final ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param httpClient     Client used to send requests asynchronously.
+     * @param settings       Workload settings.
+     * @param requestFactory Builds the HTTP request for a scenario; the random
+     *                       source is owned by the dispatcher thread.
+     */
+    public OpenModelLoadGenerator(HttpClient httpClient, LoadTestSettings settings,
+            BiFunction<Scenario, SplittableRandom, HttpRequest> requestFactory) {
+        this.httpClient = httpClient;
+        this.settings = settings;
+        this.requestFactory = requestFactory;
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(scenario, new AtomicLong());
+        }
+    }
+
+    /**
+     * Runs the warm-up phase followed by the measured phase.
+     *
+     * @return The corrected latency histograms and error counts of the measured
+     *         phase.
+     */
+    public LoadTestResult run() {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        dispatch(random, settings.warmup().toNanos());
+        awaitInFlight();
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(counter -> counter.set(0));
+
+        long start = System.nanoTime();
+        long issued = dispatch(random, settings.duration().toNanos());
+        awaitInFlight();
+        long elapsed = System.nanoTime() - start;
+
+        Map<Scenario, Histogram> histograms = new EnumMap<>(Scenario.class);
+        Map<Scenario, Long> errorCounts = new EnumMap<>(Scenario.class);
+        recorders.forEach((scenario, recorder) -> histograms.put(scenario, recorder.getIntervalHistogram()));
+        errors.forEach((scenario, counter) -> errorCounts.put(scenario, counter.get()));
+        return new LoadTestResult(settings, issued, elapsed, histograms, errorCounts);
+    }
+
+    private long dispatch(SplittableRandom random, long phaseNanos) {
+        long meanIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.arrivalRate());
+        int totalWeight = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        long phaseStart = System.nanoTime();
+        long intendedStart = phaseStart;
+        long issued = 0;
+        while (intendedStart - phaseStart < phaseNanos) {
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = pick(random, totalWeight);
+            send(scenario, requestFactory.apply(scenario, random), intendedStart);
+            issued++;
+            intendedStart += settings.poisson()
+                    ? (long) (-Math.log(1.0 - random.nextDouble()) * meanIntervalNanos)
+                    : meanIntervalNanos;
+        }
+        return issued;
+    }
+
+    private Scenario pick(SplittableRandom random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : settings.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Scenario mix weights must be positive");
+    }
+
+    private void send(Scenario scenario, HttpRequest request, long intendedStart) {
+        CompletableFuture<?> future = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    recorders.get(scenario).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.get(scenario).incrementAndGet();
+                    }
+                });
+        inFlight.add(future);
+        inFlight.removeIf(CompletableFuture::isDone);
+    }
+
+    private void awaitInFlight() {
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(failure -> null)
+                .join();
+        inFlight.clear();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.medicalregister.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MeteredAsyncAppender Tests")
+/**
+ * Unit tests for {@link MeteredAsyncAppender}: drop policy, including the
+ * discardable marker, and lost-event counting when the queue is nearly full.
+ */
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("test");
+    private final BlockingAppender downstream = new BlockingAppender();
+    private final MeteredAsyncAppender appender = new MeteredAsyncAppender();
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter()); // Events copy the MDC when queued
+        downstream.setContext(context);
+        downstream.start();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.addAppender(downstream);
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        downstream.release.countDown();
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("INFO events should be dropped and counted when the queue is nearly full, WARN events kept")
+    void append_whenQueueNearlyFull_shouldDropInfoAndKeepWarn() throws InterruptedException {
+        logger.info("blocker");
+        assertThat(downstream.writing.await(5, TimeUnit.SECONDS)).isTrue(); // Worker is now stuck writing it
+
+        logger.info("queued 1");
+        logger.info("queued 2");
+        logger.info("queued 3"); // 2 free slots: not yet below the threshold
+        logger.info("dropped"); // 1 free slot
+        logger.debug("dropped too");
+        logger.warn("kept");
+
+        assertThat(appender.getDiscardedCount()).isEqualTo(2);
+        assertThat(appender.getNumberOfElementsInQueue()).isEqualTo(4);
+
+        downstream.release.countDown();
+        appender.stop(); // Flushes the queue
+
+        assertThat(downstream.messages).containsExactly("blocker", "queued 1", "queued 2", "queued 3", "kept");
+        assertThat(appender.getBlockedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("With a discardable marker, only marked INFO events should be dropped when the queue is nearly full")
+    void append_withDiscardableMarker_shouldKeepUnmarkedInfo() throws InterruptedException {
+        appender.setDiscardableMarker(LogMarkers.ACCESS.getName());
+        logger.info("blocker");
+        assertThat(downstream.writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        logger.info("queued 1");
+        logger.info("queued 2");
+        logger.info("queued 3");
+        logger.info(LogMarkers.ACCESS, "read dropped");
+        logger.debug("debug dropped");
+        logger.info("change kept");
+
+        assertThat(appender.getDiscardedCount()).isEqualTo(2);
+
+        downstream.release.countDown();
+        appender.stop();
+
+        assertThat(downstream.messages).containsExactly("blocker", "queued 1", "queued 2", "queued 3", "change kept");
+    }
+
+    /**
+     * Records messages, blocking on the first one until released.
+     */
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.medicalregister.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitingTurboFilter Tests")
+/**
+ * Unit tests for {@link RateLimitingTurboFilter}: per-template limits, level
+ * logger and marker scoping, and the per-second window.
+ */
+class RateLimitingTurboFilterTest {
+
+    private static final String TEMPLATE = "API: User {} attempting to fetch record ID: {}.";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter(now::get);
+    private final LoggerContext context = new LoggerContext();
+    private final Logger appLogger = context.getLogger("com.example.medicalregister.controller.Api");
+    private final Logger otherLogger = context.getLogger("org.springframework.web.Servlet");
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter.setContext(context);
+        filter.setLoggerPrefix("com.example.medicalregister");
+        filter.setMaxPerSecond(2);
+        filter.start();
+    }
+
+    @Test
+    @DisplayName("decide should allow maxPerSecond INFO events per template and deny the rest")
+    void decide_whenLimitReached_shouldDenyAndCount() {
+        assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(appLogger, Level.INFO, "Another template {}")).isEqualTo(FilterReply.NEUTRAL);
+
+        assertThat(filter.getSuppressedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("decide should start a new window every second")
+    void decide_whenSecondElapses_shouldAllowAgain() {
+        decide(appLogger, Level.INFO, TEMPLATE);
+        decide(appLogger, Level.INFO, TEMPLATE);
+        assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.DENY);
+
+        now.addAndGet(1_000);
+
+        assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    @DisplayName("decide should never limit WARN events or other loggers")
+    void decide_whenWarnOrOtherLogger_shouldStayNeutral() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(decide(appLogger, Level.WARN, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide(otherLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        }
+        assertThat(filter.getSuppressedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("decide should stay neutral when maxPerSecond is 0")
+    void decide_whenDisabled_shouldStayNeutral() {
+        filter.setMaxPerSecond(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(decide(appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    @DisplayName("decide should only limit events with the configured marker")
+    void decide_withMarker_shouldLimitOnlyMarkedEvents() {
+        filter.setMarker(LogMarkers.ACCESS.getName());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(decide(null, appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+        }
+        decide(LogMarkers.ACCESS, appLogger, Level.INFO, TEMPLATE);
+        decide(LogMarkers.ACCESS, appLogger, Level.INFO, TEMPLATE);
+        assertThat(decide(LogMarkers.ACCESS, appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(null, appLogger, Level.INFO, TEMPLATE)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger logger, Level level, String template) {
+        return decide(null, logger, level, template);
+    }
+
+    private FilterReply decide(Marker marker, Logger logger, Level level, String template) {
+        return filter.decide(marker, logger, level, template, new Object[] { "user", 1L }, null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.medicalregister.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability // Metrics export is disabled in tests unless requested
+@ActiveProfiles("test")
+@DisplayName("Prometheus Endpoint Integration Tests")
+/**
+ * Integration tests for the Prometheus scrape endpoint.
+ */
+class PrometheusEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecordOperationMetrics metrics;
+
+    @Test
+    @DisplayName("GET /actuator/prometheus should expose record, pool, Hibernate and logging meters without authentication")
+    void prometheus_unauthenticated_shouldExposeMeters() throws Exception {
+        metrics.record("find_all", () -> null);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("medical_records_operation_seconds_bucket{")))
+                // 25ms SLO bucket
+                .andExpect(content().string(containsString("operation=\"find_all\",outcome=\"success\",le=\"0.025\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_sessions_open_total")))
+                .andExpect(content().string(containsString("logging_async_queue_depth{")))
+                .andExpect(content().string(containsString("logging_async_events_dropped_total{")))
+                .andExpect(content().string(containsString("logging_events_suppressed_total")))
+                .andExpect(content().string(not(containsString("owner"))));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.medicalregister.metrics;
+
+import com.example.medicalregister.exception.RecordNotFoundException;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RecordOperationMetrics Tests")
+/**
+ * Unit tests for {@link RecordOperationMetrics}: outcome classification and
+ * tag cardinality.
+ */
+class RecordOperationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordOperationMetrics metrics = new RecordOperationMetrics(registry);
+
+    @Test
+    @DisplayName("record should return the result and count a success")
+    void record_whenOperationSucceeds_shouldCountSuccess() {
+        String result = metrics.record("find_by_id", () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(timer("find_by_id", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("record should classify failures by exception type and rethrow")
+    void record_whenOperationFails_shouldClassifyOutcome() {
+        assertThatThrownBy(() -> metrics.record("delete", (Runnable) () -> {
+            throw new RecordNotFoundException("missing");
+        })).isInstanceOf(RecordNotFoundException.class);
+        assertThatThrownBy(() -> metrics.record("delete", (Runnable) () -> {
+            throw new AccessDeniedException("denied");
+        })).isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> metrics.record("delete", (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("delete", "not_found").count()).isEqualTo(1);
+        assertThat(timer("delete", "access_denied").count()).isEqualTo(1);
+        assertThat(timer("delete", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("record should reuse the timer of an operation and outcome")
+    void record_repeatedly_shouldReuseTimer() {
+        metrics.record("find_all", () -> 1);
+        Timer first = timer("find_all", "success");
+        metrics.record("find_all", () -> 2);
+
+        assertThat(timer("find_all", "success")).isSameAs(first);
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(registry.get(RecordOperationMetrics.TIMER_NAME).timers()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Timers should only carry the operation and outcome tags")
+    void record_shouldOnlyTagOperationAndOutcome() {
+        metrics.record("save", () -> 1);
+
+        for (Meter meter : registry.get(RecordOperationMetrics.TIMER_NAME).meters()) {
+            assertThat(meter.getId().getTags()).extracting(tag -> tag.getKey())
+                    .containsExactlyInAnyOrder("operation", "outcome");
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return registry.get(RecordOperationMetrics.TIMER_NAME).tags("operation", operation, "outcome", outcome)
+                .timer();
+    }
+}
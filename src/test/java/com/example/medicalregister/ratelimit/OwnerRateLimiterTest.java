@@ -0,0 +1,132 @@
+package com.example.medicalregister.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OwnerRateLimiter Tests")
+/**
+ * Unit tests for {@link OwnerRateLimiter} and its {@link TokenBucket}s, on a
+ * manually advanced clock.
+ */
+class OwnerRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong(-5_000_000_000L); // nanoTime may be negative
+    private final OwnerRateLimiter limiter = new OwnerRateLimiter(Map.of(
+            EndpointClass.READ, new RateLimit(10, 3),
+            EndpointClass.WRITE, new RateLimit(1, 1),
+            EndpointClass.BULK, new RateLimit(0.2, 1)), 1_000, Duration.ofMinutes(10), registry, nanos::get);
+
+    @Test
+    @DisplayName("A full bucket should allow a burst, then reject with the time until the next permit")
+    void tryAcquire_afterBurst_shouldRejectUntilRefilled() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isZero();
+        }
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isEqualTo(Duration.ofMillis(100));
+
+        advance(Duration.ofMillis(60));
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isEqualTo(Duration.ofMillis(40));
+
+        advance(Duration.ofMillis(40));
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isZero();
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isPositive();
+    }
+
+    @Test
+    @DisplayName("An idle bucket should refill up to the burst size only")
+    void tryAcquire_afterIdlePeriod_shouldAllowOneBurst() {
+        advance(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isZero();
+        }
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Owners and endpoint classes should have separate buckets")
+    void tryAcquire_shouldLimitOwnersAndClassesSeparately() {
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.WRITE)).isZero();
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.WRITE)).isEqualTo(Duration.ofSeconds(1));
+
+        assertThat(limiter.tryAcquire("owner-b", EndpointClass.WRITE)).isZero();
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.READ)).isZero();
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.BULK)).isZero();
+        assertThat(limiter.tryAcquire("owner-a", EndpointClass.BULK)).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Rejected requests should be counted per endpoint class")
+    void tryAcquire_rejected_shouldBeCounted() {
+        limiter.tryAcquire("owner-a", EndpointClass.WRITE);
+        limiter.tryAcquire("owner-a", EndpointClass.WRITE);
+        limiter.tryAcquire("owner-a", EndpointClass.WRITE);
+
+        assertThat(registry.get(OwnerRateLimiter.THROTTLED_COUNTER).tag("endpoint_class", "write").counter()
+                .count()).isEqualTo(2);
+        assertThat(registry.get(OwnerRateLimiter.THROTTLED_COUNTER).tag("endpoint_class", "read").counter()
+                .count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Concurrent requests should never take more permits than the bucket holds")
+    void tryAcquire_concurrently_shouldTakeExactlyTheBurst() throws Exception {
+        OwnerRateLimiter burstOf100 = new OwnerRateLimiter(Map.of(
+                EndpointClass.READ, new RateLimit(1, 100),
+                EndpointClass.WRITE, new RateLimit(1, 1),
+                EndpointClass.BULK, new RateLimit(1, 1)), 1_000, Duration.ofMinutes(10), registry, nanos::get);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(() -> {
+                int acquired = 0;
+                for (int i = 0; i < 50; i++) {
+                    if (burstOf100.tryAcquire("owner-a", EndpointClass.READ).isZero()) {
+                        acquired++;
+                    }
+                }
+                return acquired;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        int total = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                total += result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(total).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Every endpoint class should need a valid limit")
+    void constructor_withMissingOrInvalidLimit_shouldFail() {
+        assertThatThrownBy(() -> new OwnerRateLimiter(Map.of(EndpointClass.READ, new RateLimit(1, 1)), 1_000,
+                Duration.ofMinutes(10), registry)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimit(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimit(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
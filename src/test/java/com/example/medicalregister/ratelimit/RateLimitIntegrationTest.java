@@ -0,0 +1,101 @@
+package com.example.medicalregister.ratelimit;
+
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "medical-register.rate-limit.enabled=true",
+        "medical-register.rate-limit.read.per-second=0.01",
+        "medical-register.rate-limit.read.burst=2",
+        "medical-register.rate-limit.write.per-second=0.01",
+        "medical-register.rate-limit.write.burst=1" })
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("Rate Limit Integration Tests")
+/**
+ * Integration tests for the per-owner rate limit in the security filter chain,
+ * with limits low enough to be exceeded by a few requests. Every test uses its
+ * own owners, as the buckets live as long as the application context.
+ */
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("An owner over the read limit should get 429 with Retry-After, other owners should not")
+    void reads_overLimit_shouldBeRejectedForThatOwnerOnly() throws Exception {
+        OAuth2User busy = SecurityTestUtils.createOAuth2UserWithSubAndName("rate-limit|busy", "Busy Owner");
+        OAuth2User quiet = SecurityTestUtils.createOAuth2UserWithSubAndName("rate-limit|quiet", "Quiet Owner");
+        double throttledBefore = throttled("read");
+
+        mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(busy))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(busy))).andExpect(status().isOk());
+        MvcResult rejected = mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(busy)))
+                .andExpect(status().isTooManyRequests())
+                .andReturn();
+
+        // The next permit is 1 / 0.01 s after the first request
+        assertThat(Long.parseLong(rejected.getResponse().getHeader(HttpHeaders.RETRY_AFTER))).isBetween(90L, 100L);
+
+        mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(quiet))).andExpect(status().isOk());
+        assertThat(throttled("read")).isEqualTo(throttledBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Writes should be limited separately from reads")
+    void writes_overLimit_shouldNotAffectReads() throws Exception {
+        OAuth2User writer = SecurityTestUtils.createOAuth2UserWithSubAndName("rate-limit|writer", "Writer");
+
+        mockMvc.perform(post("/records/save").with(oauth2Login().oauth2User(writer)).with(csrf())
+                .param("name", "Rate Limited").param("age", "40").param("medicalHistory", "None."))
+                .andExpect(status().isFound());
+        mockMvc.perform(post("/records/save").with(oauth2Login().oauth2User(writer)).with(csrf())
+                .param("name", "Rate Limited").param("age", "40").param("medicalHistory", "None."))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        // Deletes by GET (the record list without JavaScript) are writes, too
+        mockMvc.perform(get("/records/delete/1").with(oauth2Login().oauth2User(writer)))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(writer))).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Anonymous requests should not be rate limited")
+    void anonymousRequests_shouldNotBeLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/")).andExpect(status().isOk());
+        }
+    }
+
+    private double throttled(String endpointClass) {
+        return meterRegistry.get(OwnerRateLimiter.THROTTLED_COUNTER).tag("endpoint_class", endpointClass).counter()
+                .count();
+    }
+}
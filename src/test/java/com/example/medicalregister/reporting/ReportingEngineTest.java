@@ -0,0 +1,141 @@
+package com.example.medicalregister.reporting;
+
+import com.example.medicalregister.dto.FleetReport;
+import com.example.medicalregister.dto.FleetReport.MonthlyGrowth;
+import com.example.medicalregister.dto.FleetReport.Percentiles;
+import com.example.medicalregister.dto.RecordStatisticsSummary.AgeBucket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReportingEngine Tests")
+/**
+ * Unit tests for {@link ReportingEngine} and {@link RecordSnapshot}, with the
+ * records supplied by a list instead of the database.
+ */
+class ReportingEngineTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-15T12:00:00Z"), ZoneOffset.UTC);
+    private static final int MARCH_2025 = ReportingEngine.monthOf(LocalDateTime.of(2025, 3, 1, 0, 0));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Consumer<RecordSnapshot.Builder>> rows = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ReportingEngine engine = new ReportingEngine(this::load, 4, CLOCK, registry);
+
+    private void load(RecordSnapshot.Builder builder) {
+        loads.incrementAndGet();
+        rows.forEach(row -> row.accept(builder));
+    }
+
+    private void addRecord(String ownerId, int age, int createdMonth, int historyLength) {
+        rows.add(builder -> builder.add(ownerId, age, createdMonth, historyLength));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("The report should aggregate ages, monthly growth and percentiles over all owners")
+    void report_shouldAggregateAllOwners() {
+        addRecord("owner-a", 5, MARCH_2025 - 3, 10);
+        addRecord("owner-a", 34, MARCH_2025 - 1, 20);
+        addRecord("owner-a", 38, MARCH_2025 - 1, 30);
+        addRecord("owner-b", 101, MARCH_2025, 40);
+
+        FleetReport report = engine.report(3);
+
+        assertThat(report.totalRecords()).isEqualTo(4);
+        assertThat(report.owners()).isEqualTo(2);
+        assertThat(report.ageHistogram()).extracting(AgeBucket::records)
+                .containsExactly(1L, 0L, 0L, 2L, 0L, 0L, 0L, 0L, 0L, 0L, 1L);
+        assertThat(report.growth()).containsExactly(
+                new MonthlyGrowth(YearMonth.of(2025, 1), 0, 1),
+                new MonthlyGrowth(YearMonth.of(2025, 2), 2, 3),
+                new MonthlyGrowth(YearMonth.of(2025, 3), 1, 4));
+        assertThat(report.historyLength()).isEqualTo(new Percentiles(20, 40, 40, 40));
+        assertThat(report.recordsPerOwner()).isEqualTo(new Percentiles(1, 3, 3, 3));
+        assertThat(report.snapshot().builtAt()).isEqualTo(CLOCK.instant());
+        assertThat(report.snapshot().bytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("A parallel scan of many rows should count every row once")
+    void report_largeSnapshot_shouldSplitScanWithoutLosingRows() {
+        int records = ReportingEngine.SCAN_THRESHOLD * 5 + 7;
+        rows.add(builder -> {
+            for (int i = 0; i < records; i++) {
+                builder.add("owner-" + (i % 1000), i % 120, MARCH_2025 - (i % 24), i % 500);
+            }
+        });
+
+        FleetReport report = engine.report(24);
+
+        assertThat(report.ageHistogram().stream().mapToLong(AgeBucket::records).sum()).isEqualTo(records);
+        assertThat(report.growth().stream().mapToLong(MonthlyGrowth::created).sum()).isEqualTo(records);
+        assertThat(report.growth().get(23).cumulative()).isEqualTo(records);
+        assertThat(report.ageHistogram().get(10).records())
+                .isEqualTo(records / 120 * 20 + Math.max(0, records % 120 - 100));
+        assertThat(report.owners()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("An empty snapshot should report zeros")
+    void report_noRecords_shouldReportZeros() {
+        FleetReport report = engine.report(2);
+
+        assertThat(report.totalRecords()).isZero();
+        assertThat(report.growth()).extracting(MonthlyGrowth::cumulative).containsExactly(0L, 0L);
+        assertThat(report.historyLength()).isEqualTo(new Percentiles(0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("The snapshot should be built once, and replaced only by a refresh")
+    void refresh_shouldSwapSnapshot() {
+        addRecord("owner-a", 40, MARCH_2025, 10);
+        engine.report(1);
+        addRecord("owner-a", 41, MARCH_2025, 10);
+
+        assertThat(engine.report(1).totalRecords()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+
+        engine.refresh();
+
+        assertThat(engine.report(1).totalRecords()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+        assertThat(registry.get("medical_records.reporting.snapshot.records").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("medical_records.reporting.snapshot.size").gauge().value()).isPositive();
+        assertThat(registry.get("medical_records.reporting.refresh").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A failed refresh should keep the current snapshot")
+    void refresh_whenLoadFails_shouldKeepSnapshot() {
+        addRecord("owner-a", 40, MARCH_2025, 10);
+        RecordSnapshot snapshot = engine.snapshot();
+        rows.add(builder -> {
+            throw new IllegalStateException("Database unavailable");
+        });
+
+        engine.refresh();
+
+        assertThat(engine.snapshot()).isSameAs(snapshot);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.util.CapturingStatementInspector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.medicalregister.util.CapturingStatementInspector")
+@ActiveProfiles("test")
+@DisplayName("MedicalRecordFieldsRepository Tests")
+/**
+ * Tests for {@link MedicalRecordFieldsRepository}: that only the requested
+ * columns are selected, and that pages, sorting and the soft-delete
+ * restriction work as for whole records.
+ */
+class MedicalRecordFieldsRepositoryTest {
+
+    private static final String OWNER_ID = "user-sub-1";
+    private static final RecordFilter NO_FILTER = new RecordFilter(null, null, null, null, null, null, null);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    private Long aliceId;
+    private Long bobId;
+    private Long deletedId;
+    private Long otherOwnersId;
+
+    @BeforeEach
+    void setUp() {
+        aliceId = persist("Alice", 30, OWNER_ID, false);
+        bobId = persist("Bob", 70, OWNER_ID, false);
+        persist("Carol", 45, OWNER_ID, false);
+        deletedId = persist("Deleted", 50, OWNER_ID, true);
+        otherOwnersId = persist("Other", 30, "user-sub-2", false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("A page should select only the requested columns")
+    void findFields_page_shouldSelectOnlyRequestedColumns() {
+        CapturingStatementInspector.clear();
+
+        Page<Map<String, Object>> page = medicalRecordRepository.findFields(
+                MedicalRecordSpecifications.matching(OWNER_ID, NO_FILTER), List.of("id", "name", "age"),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "age")));
+
+        assertThat(page.getContent()).containsExactly(
+                Map.of("id", bobId, "name", "Bob", "age", 70),
+                Map.of("id", page.getContent().get(1).get("id"), "name", "Carol", "age", 45));
+        assertThat(page.getContent().get(0).keySet()).containsExactly("id", "name", "age");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        String query = CapturingStatementInspector.statements().get(0).toLowerCase();
+        String selectList = query.substring(0, query.indexOf(" from "));
+        assertThat(selectList).contains("name", "age").doesNotContain("medical_history", "owner_id", "created_at");
+    }
+
+    @Test
+    @DisplayName("Records by ID should be only the owner's records that are not deleted")
+    void findFields_byIds_shouldSkipDeletedAndOtherOwnersRecords() {
+        List<Map<String, Object>> rows = medicalRecordRepository.findFields(
+                MedicalRecordSpecifications.ownedWithIds(OWNER_ID, List.of(aliceId, deletedId, otherOwnersId)),
+                List.of("id", "medicalHistory"));
+
+        assertThat(rows).containsExactly(Map.of("id", aliceId, "medicalHistory", "History of Alice"));
+    }
+
+    private Long persist(String name, int age, String ownerId, boolean deleted) {
+        MedicalRecord record = new MedicalRecord(null, name, age, "History of " + name, ownerId, "Test User",
+                "Test User", null, null, deleted);
+        return entityManager.persistAndGetId(record, Long.class);
+    }
+}
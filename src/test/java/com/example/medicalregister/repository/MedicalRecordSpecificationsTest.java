@@ -0,0 +1,138 @@
+package com.example.medicalregister.repository;
+
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.util.CapturingStatementInspector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.medicalregister.util.CapturingStatementInspector")
+@ActiveProfiles("test")
+@DisplayName("MedicalRecordSpecifications Tests")
+/**
+ * Tests for the filters of {@link MedicalRecordSpecifications}: that they
+ * match the right records, and that H2's execution plan of every filtered
+ * query (page and count) uses the owner-scoped index of the filtered column.
+ */
+class MedicalRecordSpecificationsTest {
+
+    private static final String OWNER_ID = "user-sub-1";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        persist("Alice Smith", 30, OWNER_ID);
+        persist("alfred Jones", 45, OWNER_ID);
+        persist("Bob Brown", 70, OWNER_ID);
+        persist("Alice Other", 30, "user-sub-2");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("An age range should match the owner's records within it, inclusive")
+    void matching_ageRange_shouldMatchRecordsInRange() {
+        assertThat(names(new RecordFilter(30, 45, null, null, null, null, null)))
+                .containsExactly("Alice Smith", "alfred Jones");
+        assertThat(names(new RecordFilter(46, null, null, null, null, null, null))).containsExactly("Bob Brown");
+    }
+
+    @Test
+    @DisplayName("A name prefix should match case-insensitively and only the owner's records")
+    void matching_namePrefix_shouldMatchCaseInsensitively() {
+        assertThat(names(new RecordFilter(null, null, "AL", null, null, null, null)))
+                .containsExactly("Alice Smith", "alfred Jones");
+        assertThat(names(new RecordFilter(null, null, "alice s", null, null, null, null)))
+                .containsExactly("Alice Smith");
+        assertThat(names(new RecordFilter(null, null, "b%", null, null, null, null))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Timestamp windows should include their start and exclude their end")
+    void matching_timestampWindows_shouldBeHalfOpen() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(names(new RecordFilter(null, null, null, now.minusHours(1), now.plusHours(1), null, null)))
+                .hasSize(3);
+        assertThat(names(new RecordFilter(null, null, null, null, null, now.plusHours(1), null))).isEmpty();
+        assertThat(names(new RecordFilter(null, null, null, null, null, null, now.minusHours(1)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The upper bound of a name prefix should be the next string of the same length")
+    void prefixUpperBound_shouldIncrementLastCharacter() {
+        assertThat(MedicalRecordSpecifications.prefixUpperBound("ab")).isEqualTo("ac");
+        assertThat(MedicalRecordSpecifications.prefixUpperBound("a\uffff")).isEqualTo("b");
+        assertThat(MedicalRecordSpecifications.prefixUpperBound("\uffff")).isNull();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedFilters")
+    @DisplayName("Every filter should be executed with its owner-scoped index")
+    void matching_eachFilter_shouldUseIndex(String index, RecordFilter filter) {
+        CapturingStatementInspector.clear();
+        medicalRecordRepository.findAll(MedicalRecordSpecifications.matching(OWNER_ID, filter),
+                PageRequest.of(1, 1, Sort.by("id"))); // Not the first page, so the count is always queried
+
+        List<String> queries = CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select"))
+                .toList();
+        assertThat(queries).hasSize(2); // The page and the count
+        for (String query : queries) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+            assertThat(plan).as(query).containsIgnoringCase(index);
+        }
+    }
+
+    static Stream<Arguments> indexedFilters() {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(
+                Arguments.of("idx_medical_record_owner_age", new RecordFilter(18, 65, null, null, null, null, null)),
+                Arguments.of("idx_medical_record_owner_age", new RecordFilter(18, null, null, null, null, null, null)),
+                Arguments.of("idx_medical_record_owner_name_key",
+                        new RecordFilter(null, null, "Al", null, null, null, null)),
+                Arguments.of("idx_medical_record_owner_created_at",
+                        new RecordFilter(null, null, null, now.minusDays(1), now, null, null)),
+                Arguments.of("idx_medical_record_owner_updated_at",
+                        new RecordFilter(null, null, null, null, null, null, now)));
+    }
+
+    private List<String> names(RecordFilter filter) {
+        return medicalRecordRepository.findAll(MedicalRecordSpecifications.matching(OWNER_ID, filter), Sort.by("id"))
+                .stream()
+                .map(MedicalRecord::getName)
+                .toList();
+    }
+
+    private void persist(String name, int age, String ownerId) {
+        entityManager.persist(new MedicalRecord(null, name, age, "History", ownerId, "Test User", "Test User", null,
+                null, false));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.medicalregister.security;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.util.StubOidcProvider;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+@DisplayName("Bearer Token API Integration Tests")
+/**
+ * Integration tests for the stateless bearer-token chain on {@code /api/v1/**}.
+ * Tokens are signed with the key of a {@link StubOidcProvider}, whose JWK set
+ * the application fetches and caches.
+ */
+class BearerTokenApiIntegrationTest {
+
+    private static final StubOidcProvider identityProvider = StubOidcProvider.shared();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Test
+    @DisplayName("POST /api/v1/records with a valid token should create a record owned by 'sub' without a session")
+    void createRecord_withValidToken_shouldUseSubAndCreateNoSession() throws Exception {
+        String token = identityProvider.issueToken("auth0|api-client", "API Client");
+
+        MvcResult result = mockMvc.perform(post("/api/v1/records")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Token Patient\",\"age\":40,\"medicalHistory\":\"Created with a JWT\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ownerId", is("auth0|api-client")))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+                .andReturn();
+
+        assertThat(result.getRequest().getSession(false)).isNull();
+        MedicalRecord saved = medicalRecordRepository.findAll().stream()
+                .filter(record -> "Token Patient".equals(record.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(saved.getOwnerId()).isEqualTo("auth0|api-client");
+        assertThat(saved.getCreatedBy()).isEqualTo("auth0|api-client");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/records with a valid token should list only the token owner's records")
+    void listRecords_withValidToken_shouldListOwnRecords() throws Exception {
+        String token = identityProvider.issueToken("auth0|lister", null);
+        mockMvc.perform(post("/api/v1/records")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Own Patient\",\"age\":30,\"medicalHistory\":\"Mine\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("Own Patient")));
+    }
+
+    @Test
+    @DisplayName("A token signed with an unknown key should be rejected with 401")
+    void request_withTokenFromUnknownKey_shouldReturnUnauthorized() throws Exception {
+        String token = StubOidcProvider.sign(claims(identityProvider.getIssuerUri(), Duration.ofMinutes(5))
+                .build(), StubOidcProvider.generateKey("foreign-key"));
+
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, containsString("invalid_token")));
+    }
+
+    @Test
+    @DisplayName("Expired tokens and tokens from another issuer should be rejected with 401")
+    void request_withExpiredOrForeignIssuerToken_shouldReturnUnauthorized() throws Exception {
+        String expired = StubOidcProvider.sign(claims(identityProvider.getIssuerUri(), Duration.ofMinutes(-5))
+                .build(), identityProvider.getSigningKey());
+        String foreignIssuer = StubOidcProvider.sign(claims("https://other.example.com/", Duration.ofMinutes(5))
+                .build(), identityProvider.getSigningKey());
+
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + foreignIssuer))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Tokens issued for another API or for no API should be rejected with 401")
+    void request_withWrongOrMissingAudience_shouldReturnUnauthorized() throws Exception {
+        String otherApi = StubOidcProvider.sign(claims(identityProvider.getIssuerUri(), Duration.ofMinutes(5))
+                .audience("https://other-api.example.com/").build(), identityProvider.getSigningKey());
+        String noAudience = StubOidcProvider.sign(claims(identityProvider.getIssuerUri(), Duration.ofMinutes(5))
+                .audience((String) null).build(), identityProvider.getSigningKey());
+
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + otherApi))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, containsString("invalid_token")));
+        mockMvc.perform(get("/api/v1/records").header(HttpHeaders.AUTHORIZATION, "Bearer " + noAudience))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("API requests without a bearer token should still use the OAuth2 login chain")
+    void request_withoutToken_shouldRedirectToLogin() throws Exception {
+        mockMvc.perform(get("/api/v1/records"))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrlPattern("**/oauth2/authorization/*"));
+    }
+
+    /**
+     * Claims of an otherwise valid token for the test audience.
+     */
+    private static JWTClaimsSet.Builder claims(String issuer, Duration validFor) {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject("auth0|api-client")
+                .audience(StubOidcProvider.AUDIENCE)
+                .issueTime(Date.from(now.minus(Duration.ofMinutes(10))))
+                .expirationTime(Date.from(now.plus(validFor)));
+    }
+}
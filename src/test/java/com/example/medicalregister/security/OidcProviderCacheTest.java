@@ -0,0 +1,119 @@
+package com.example.medicalregister.security;
+
+import com.example.medicalregister.util.StubOidcProvider;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OidcProviderCache Tests")
+/**
+ * Unit tests for {@link OidcProviderCache} against a {@link StubOidcProvider}:
+ * persistence, offline startup, stale-while-revalidate and key rotation.
+ */
+class OidcProviderCacheTest {
+
+    private final StubOidcProvider identityProvider = StubOidcProvider.start();
+
+    @TempDir
+    private Path cacheDirectory;
+
+    @AfterEach
+    void stopIdentityProvider() {
+        identityProvider.close();
+    }
+
+    @Test
+    @DisplayName("Without a cache file, the provider should be fetched once and the result persisted")
+    void initialize_withoutCacheFile_shouldFetchAndPersist() throws Exception {
+        OidcProviderCache cache = newCache(Duration.ofHours(1), Duration.ofMillis(200));
+
+        cache.initialize();
+
+        assertThat(identityProvider.getRequestCount()).isEqualTo(2); // Discovery document and JWK set
+        assertThat(cache.configuration()).containsEntry("issuer", identityProvider.getIssuerUri());
+        assertThat(selectKey(cache, "stub-key")).hasSize(1);
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).singleElement()
+                    .satisfies(file -> assertThat(Files.readString(file)).contains("stub-key").doesNotContain("\"d\""));
+        }
+    }
+
+    @Test
+    @DisplayName("With a cache file, startup should not need the provider")
+    void initialize_withCacheFile_shouldStartWhileProviderIsDown() throws Exception {
+        newCache(Duration.ofHours(1), Duration.ofMillis(200)).initialize();
+        identityProvider.close();
+
+        OidcProviderCache cache = newCache(Duration.ofHours(1), Duration.ofMillis(200));
+        cache.initialize();
+
+        assertThat(cache.configuration()).containsEntry("token_endpoint",
+                identityProvider.getIssuerUri() + "oauth/token");
+        assertThat(selectKey(cache, "stub-key")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Without a cache file or provider, startup should fail")
+    void initialize_withoutCacheFileOrProvider_shouldFail() {
+        identityProvider.close();
+
+        assertThatThrownBy(() -> newCache(Duration.ofHours(1), Duration.ofMillis(200)).initialize())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Stale data should be served at once and refreshed in the background")
+    void configuration_whenStale_shouldServeCachedAndRefresh() throws Exception {
+        OidcProviderCache cache = newCache(Duration.ZERO, Duration.ofMillis(200));
+        cache.initialize();
+        Thread.sleep(5);
+
+        assertThat(cache.configuration()).isNotEmpty();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (identityProvider.getRequestCount() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        cache.close(); // Wait for the refresh to be persisted
+        assertThat(identityProvider.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("An unknown key should trigger one refresh per minimum refresh interval")
+    void get_unknownKey_shouldRefreshAtMostOncePerInterval() throws Exception {
+        OidcProviderCache cache = newCache(Duration.ofHours(1), Duration.ofMillis(200));
+        cache.initialize();
+        Thread.sleep(250); // Past the minimum refresh interval
+        identityProvider.rotateSigningKey("rotated-key");
+
+        assertThat(selectKey(cache, "rotated-key")).hasSize(1);
+        assertThat(identityProvider.getRequestCount()).isEqualTo(4);
+
+        assertThat(selectKey(cache, "forged-key")).isEmpty();
+        assertThat(identityProvider.getRequestCount()).isEqualTo(4);
+    }
+
+    private OidcProviderCache newCache(Duration refreshInterval, Duration minRefreshInterval) {
+        return new OidcProviderCache(identityProvider.getIssuerUri(), cacheDirectory, RestClient.create(),
+                refreshInterval, minRefreshInterval);
+    }
+
+    private static List<JWK> selectKey(OidcProviderCache cache, String keyId) {
+        return cache.get(new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build()), null);
+    }
+}
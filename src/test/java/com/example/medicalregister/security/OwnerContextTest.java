@@ -0,0 +1,141 @@
+package com.example.medicalregister.security;
+
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OwnerContext Tests")
+/**
+ * Unit tests for {@link OwnerContext} and {@link OwnerContextFilter}.
+ */
+class OwnerContextTest {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("resolve should read sub, name and auditor from an OAuth2 user")
+    void resolve_withOAuth2User_shouldReadSubAndName() {
+        ResolvedOwner owner = OwnerContext.resolve(oauth2Token(
+                SecurityTestUtils.createOAuth2UserWithSubAndName("auth0|user1", "Test User")));
+
+        assertThat(owner).isEqualTo(new ResolvedOwner("auth0|user1", "Test User", "auth0|user1", true));
+        assertThat(owner.displayName()).isEqualTo("Test User");
+    }
+
+    @Test
+    @DisplayName("resolve should fall back to 'User' and no sub when attributes are missing")
+    void resolve_withOAuth2UserWithoutSubOrName_shouldUseFallbacks() {
+        ResolvedOwner owner = OwnerContext.resolve(oauth2Token(
+                SecurityTestUtils.createOAuth2User(Map.of("email", "user@example.com"), "email")));
+
+        assertThat(owner.sub()).isNull();
+        assertThat(owner.auditor()).isNull();
+        assertThat(owner.displayName()).isEqualTo("User");
+        assertThat(owner.oauth2User()).isTrue();
+    }
+
+    @Test
+    @DisplayName("resolve should read sub and name from the claims of a JWT bearer token")
+    void resolve_withJwtBearerToken_shouldReadSubAndNameClaims() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("auth0|api-client")
+                .claim("name", "API Client")
+                .build();
+
+        ResolvedOwner owner = OwnerContext.resolve(new JwtAuthenticationToken(jwt, List.of()));
+
+        assertThat(owner).isEqualTo(new ResolvedOwner("auth0|api-client", "API Client", "auth0|api-client", true));
+    }
+
+    @Test
+    @DisplayName("resolve should treat missing and anonymous authentication as ANONYMOUS")
+    void resolve_withoutAuthenticatedUser_shouldReturnAnonymous() {
+        assertThat(OwnerContext.resolve(null)).isEqualTo(ResolvedOwner.ANONYMOUS);
+        assertThat(OwnerContext.resolve(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")))).isEqualTo(ResolvedOwner.ANONYMOUS);
+    }
+
+    @Test
+    @DisplayName("resolve should use the principal name as auditor for other authentication types")
+    void resolve_withNonOAuth2Principal_shouldUsePrincipalNameAsAuditor() {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken("jdoe", "password", "ROLE_USER");
+
+        ResolvedOwner owner = OwnerContext.resolve(authentication);
+
+        assertThat(owner).isEqualTo(new ResolvedOwner(null, null, "jdoe", false));
+    }
+
+    @Test
+    @DisplayName("current should return the owner bound by the filter without resolving it again")
+    void current_duringFilteredRequest_shouldReturnBoundOwner() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                oauth2Token(SecurityTestUtils.createOAuth2UserWithSubAndName("auth0|user1", "Test User")));
+        List<ResolvedOwner> seen = new ArrayList<>();
+
+        new OwnerContextFilter().doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    SecurityContextHolder.clearContext(); // Later calls must not depend on the security context
+                    seen.add(OwnerContext.current());
+                    seen.add(OwnerContext.current());
+                });
+
+        assertThat(seen.get(0).sub()).isEqualTo("auth0|user1");
+        assertThat(seen.get(1)).isSameAs(seen.get(0));
+        assertThat(OwnerContext.current()).isEqualTo(ResolvedOwner.ANONYMOUS); // Unbound after the request
+    }
+
+    @Test
+    @DisplayName("The filter should reuse the owner of the previous request only for the same authentication")
+    void filter_withSameAuthenticationOnNextRequest_shouldReuseResolvedOwner() throws Exception {
+        OAuth2AuthenticationToken session = oauth2Token(
+                SecurityTestUtils.createOAuth2UserWithSubAndName("auth0|user1", "Test User"));
+        OAuth2AuthenticationToken otherSession = oauth2Token(
+                SecurityTestUtils.createOAuth2UserWithSubAndName("auth0|user3", "Third User"));
+        List<ResolvedOwner> seen = new ArrayList<>();
+        OwnerContextFilter filter = new OwnerContextFilter();
+
+        for (OAuth2AuthenticationToken authentication : List.of(session, session, otherSession)) {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                    (request, response) -> seen.add(OwnerContext.current()));
+        }
+
+        assertThat(seen.get(1)).isSameAs(seen.get(0));
+        assertThat(seen.get(2).sub()).isEqualTo("auth0|user3");
+    }
+
+    @Test
+    @DisplayName("current should resolve from the security context outside a request")
+    void current_outsideRequest_shouldResolveFromSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(
+                oauth2Token(SecurityTestUtils.createOAuth2UserWithSubAndName("auth0|user2", "Other User")));
+
+        assertThat(OwnerContext.current().sub()).isEqualTo("auth0|user2");
+    }
+
+    private static OAuth2AuthenticationToken oauth2Token(OAuth2User user) {
+        return new OAuth2AuthenticationToken(user, user.getAuthorities(), "auth0");
+    }
+}
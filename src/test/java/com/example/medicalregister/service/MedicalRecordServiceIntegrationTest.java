@@ -4,11 +4,15 @@ import com.example.medicalregister.exception.RecordNotFoundException;
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.repository.MedicalRecordRepository;
 import com.example.medicalregister.util.SecurityTestUtils;
+import com.example.medicalregister.util.SqlCountExtension;
+
+import jakarta.persistence.EntityManager;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +37,7 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 @Transactional // Ensures each test method runs in a transaction and rolls back
 @ActiveProfiles("test") // Use the profile in application-test.properties for integration tests
+@ExtendWith(SqlCountExtension.class) // Asserts the SQL statements each operation executes
 class MedicalRecordServiceIntegrationTest {
 
     @Autowired
@@ -41,6 +46,9 @@ class MedicalRecordServiceIntegrationTest {
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private MockedStatic<SecurityContextHolder> mockedSecurityContextHolder;
     private SecurityContext securityContext;
     private Authentication authentication;
@@ -75,6 +83,24 @@ class MedicalRecordServiceIntegrationTest {
         when(authentication.isAuthenticated()).thenReturn(true); // Ensure isAuthenticated is true
     }
 
+    /**
+     * Writes the test's setup to the database and detaches it, so that the
+     * operation under test starts from an empty persistence context (as it would
+     * in a real request), then resets the SQL statement counts.
+     */
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlCountExtension.reset();
+    }
+
+    /**
+     * Flushes pending writes, which Hibernate defers until flush or commit.
+     */
+    private void flush() {
+        entityManager.flush();
+    }
+
     private void mockAuthenticatedUserWithoutSub(String name) {
         // Use SecurityTestUtils, 'name' is the nameAttributeKey here
         OAuth2User principal = SecurityTestUtils.createOAuth2User(
@@ -100,8 +126,10 @@ class MedicalRecordServiceIntegrationTest {
                 new MedicalRecord(null, "Other User Record", 50, "History 3", USER_SUB_2, null, null,
                         null, null, false));
 
+        startCounting();
         Page<MedicalRecord> records = medicalRecordService.findAllRecords(Pageable.unpaged());
 
+        SqlCountExtension.assertStatements(1, 0, 0, 0);
         assertThat(records).hasSize(2);
         assertThat(records).extracting(MedicalRecord::getOwnerId).containsOnly(USER_SUB_1);
     }
@@ -123,8 +151,10 @@ class MedicalRecordServiceIntegrationTest {
                 .save(new MedicalRecord(null, "Owned Record", 30, "No history", USER_SUB_1, null, null,
                         null, null, false));
 
+        startCounting();
         MedicalRecord foundRecord = medicalRecordService.findRecordById(savedRecord.getId());
 
+        SqlCountExtension.assertStatements(1, 0, 0, 0);
         assertThat(foundRecord).isNotNull();
         assertThat(foundRecord.getId()).isEqualTo(savedRecord.getId());
         assertThat(foundRecord.getName()).isEqualTo("Owned Record");
@@ -155,8 +185,12 @@ class MedicalRecordServiceIntegrationTest {
                 null, null,
                 null, false);
 
+        startCounting();
         MedicalRecord savedRecord = medicalRecordService.saveRecord(newRecord);
+        flush();
 
+        // The INSERT, then one batched MERGE of the statistics summary
+        SqlCountExtension.assertStatements(0, 1, 0, 0, 1);
         assertThat(savedRecord.getId()).isNotNull();
         assertThat(savedRecord.getOwnerId()).isEqualTo(USER_SUB_1);
         assertThat(savedRecord.getName()).isEqualTo("New Patient");
@@ -177,8 +211,14 @@ class MedicalRecordServiceIntegrationTest {
         MedicalRecord recordToUpdate = new MedicalRecord(originalRecord.getId(), "Updated Name", 31,
                 "Updated History",
                 USER_SUB_1, null, null, null, null, false);
+        startCounting();
         MedicalRecord updatedRecord = medicalRecordService.saveRecord(recordToUpdate);
+        flush();
 
+        // Ownership check, which loads the record, so merge() does not load it again, then the UPDATE.
+        // The age stays in its bucket and the record was last updated today, so the statistics do not
+        // change and no MERGE is executed.
+        SqlCountExtension.assertStatements(1, 0, 1, 0, 0);
         assertThat(updatedRecord.getName()).isEqualTo("Updated Name");
         assertThat(updatedRecord.getAge()).isEqualTo(31);
 
@@ -215,8 +255,13 @@ class MedicalRecordServiceIntegrationTest {
                         null, null, false));
         Long recordId = recordToDelete.getId();
 
+        startCounting();
         medicalRecordService.deleteRecordById(recordId);
+        flush();
 
+        // The ownership check, which locks and loads the record for deleteById; the statistics MERGE,
+        // then the soft-delete UPDATE
+        SqlCountExtension.assertStatements(1, 0, 1, 0, 1);
         assertThat(medicalRecordRepository.findById(recordId)).isNotPresent();
     }
 
@@ -1,10 +1,19 @@
 package com.example.medicalregister.service;
 
+import com.example.medicalregister.dto.RecordBatchRequest;
+import com.example.medicalregister.dto.RecordFields;
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.exception.InvalidQueryException;
 import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.metrics.RecordOperationMetrics;
 import com.example.medicalregister.model.MedicalRecord;
 import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.statistics.RecordStatistics;
 import com.example.medicalregister.util.SecurityTestUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,25 +23,36 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import jakarta.persistence.EntityManager;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles("test") // Use the test profile to avoid using production database
@@ -47,6 +67,24 @@ class MedicalRecordServiceTest {
     @Mock
     private MedicalRecordRepository medicalRecordRepository;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RecordOperationMetrics metrics = new RecordOperationMetrics(meterRegistry);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ReadCoalescer readCoalescer = new ReadCoalescer(true, meterRegistry,
+            TransactionOperations.withoutTransaction(), mock(EntityManager.class));
+
+    @Mock
+    private NameSuggestionIndex nameSuggestionIndex;
+
+    @Mock
+    private RecordStatistics recordStatistics;
+
     @InjectMocks
     private MedicalRecordService medicalRecordService;
 
@@ -102,6 +140,8 @@ class MedicalRecordServiceTest {
         assertThat(resultPage.getContent()).hasSize(1);
         assertThat(resultPage.getContent().get(0).getOwnerId()).isEqualTo(USER_SUB_1);
         verify(medicalRecordRepository).findByOwnerId(eq(USER_SUB_1), any(Pageable.class));
+        assertThat(meterRegistry.get(RecordOperationMetrics.TIMER_NAME)
+                .tags("operation", "find_all", "outcome", "success").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -120,6 +160,8 @@ class MedicalRecordServiceTest {
         assertThatThrownBy(() -> medicalRecordService.findAllRecords(Pageable.unpaged()))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("User must be authenticated with a 'sub' claim");
+        assertThat(meterRegistry.get(RecordOperationMetrics.TIMER_NAME)
+                .tags("operation", "find_all", "outcome", "access_denied").timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -156,6 +198,175 @@ class MedicalRecordServiceTest {
                 .hasMessageContaining("User must be authenticated with a 'sub' claim");
     }
 
+    @Test
+    @DisplayName("findRecords should query the user's records matching the filter")
+    @SuppressWarnings("unchecked")
+    void findRecords_whenFilterOnOneColumn_shouldQueryWithSpecification() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        RecordFilter filter = new RecordFilter(18, 65, null, null, null, null, null);
+        Page<MedicalRecord> recordPage = new PageImpl<>(List.of());
+        when(medicalRecordRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(recordPage);
+
+        assertThat(medicalRecordService.findRecords(filter, Pageable.ofSize(3))).isSameAs(recordPage);
+
+        verify(medicalRecordRepository, never()).findByOwnerId(anyString(), any());
+        assertThat(meterRegistry.get(RecordOperationMetrics.TIMER_NAME)
+                .tags("operation", "find_filtered", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findRecords should find all records if the filter is empty")
+    void findRecords_whenFilterEmpty_shouldFindAllRecords() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        Page<MedicalRecord> recordPage = new PageImpl<>(List.of());
+        when(medicalRecordRepository.findByOwnerId(USER_SUB_1, Pageable.ofSize(3))).thenReturn(recordPage);
+
+        assertThat(medicalRecordService.findRecords(new RecordFilter(null, null, " ", null, null, null, null),
+                Pageable.ofSize(3))).isSameAs(recordPage);
+    }
+
+    @Test
+    @DisplayName("findRecords should reject filters that no single index supports, without querying")
+    void findRecords_whenFilterUnindexable_shouldThrowInvalidQuery() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThatThrownBy(() -> medicalRecordService.findRecords(
+                new RecordFilter(18, null, "smi", null, null, null, null), Pageable.ofSize(3)))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("age and name cannot be combined");
+        assertThatThrownBy(() -> medicalRecordService.findRecords(
+                new RecordFilter(null, null, null, now.minusDays(1), null, null, now), Pageable.ofSize(3)))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> medicalRecordService.findRecords(
+                new RecordFilter(65, 18, null, null, null, null, null), Pageable.ofSize(3)))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("ageMin");
+        assertThatThrownBy(() -> medicalRecordService.findRecords(
+                new RecordFilter(null, null, null, now, now, null, null), Pageable.ofSize(3)))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("createdFrom");
+        assertThatThrownBy(() -> medicalRecordService.findRecords(
+                new RecordFilter(null, null, "a".repeat(RecordFilter.MAX_NAME_PREFIX_LENGTH + 1), null, null, null,
+                        null), Pageable.ofSize(3)))
+                .isInstanceOf(InvalidQueryException.class);
+        verifyNoInteractions(medicalRecordRepository);
+    }
+
+    @Test
+    @DisplayName("findRecordFields should query only the requested fields of the user's records")
+    @SuppressWarnings("unchecked")
+    void findRecordFields_shouldQueryRequestedFields() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        RecordFields fields = RecordFields.parse("name");
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(Map.of("id", 1L, "name", "Test")));
+        when(medicalRecordRepository.findFields(any(Specification.class), eq(List.of("id", "name")),
+                any(Pageable.class))).thenReturn(page);
+
+        assertThat(medicalRecordService.findRecordFields(new RecordFilter(18, null, null, null, null, null, null),
+                Pageable.ofSize(3), fields)).isSameAs(page);
+
+        verify(medicalRecordRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        assertThat(meterRegistry.get(RecordOperationMetrics.TIMER_NAME)
+                .tags("operation", "find_filtered", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findRecordFieldsById should throw RecordNotFoundException if the user has no such record")
+    @SuppressWarnings("unchecked")
+    void findRecordFieldsById_whenNotFound_shouldThrowRecordNotFound() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        when(medicalRecordRepository.findFields(any(Specification.class), anyList())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> medicalRecordService.findRecordFieldsById(1L, RecordFields.parse("age")))
+                .isInstanceOf(RecordNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("findRecordsByIds should return the found records in the requested order, once each")
+    @SuppressWarnings("unchecked")
+    void findRecordsByIds_shouldReturnFoundRecordsInRequestedOrder() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        MedicalRecord first = new MedicalRecord(1L, "First", 30, "History", USER_SUB_1, null, null, null, null, false);
+        MedicalRecord third = new MedicalRecord(3L, "Third", 30, "History", USER_SUB_1, null, null, null, null, false);
+        when(medicalRecordRepository.findAll(any(Specification.class))).thenReturn(List.of(first, third));
+
+        assertThat(medicalRecordService.findRecordsByIds(Arrays.asList(3L, 2L, null, 1L, 3L)))
+                .containsExactly(third, first);
+        assertThat(meterRegistry.get(RecordOperationMetrics.TIMER_NAME)
+                .tags("operation", "find_by_ids", "outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findRecordsByIds should reject no IDs or too many, without querying")
+    void findRecordsByIds_whenNoneOrTooMany_shouldThrowInvalidQuery() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        List<Long> tooMany = LongStream.rangeClosed(1, RecordBatchRequest.MAX_RECORDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> medicalRecordService.findRecordsByIds(List.of()))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> medicalRecordService.findRecordFieldsByIds(tooMany, RecordFields.parse("name")))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessageContaining("At most " + RecordBatchRequest.MAX_RECORDS);
+        verifyNoInteractions(medicalRecordRepository);
+    }
+
+    @Test
+    @DisplayName("suggestNames should return the user's names from the suggestion index")
+    void suggestNames_whenUserWithSub_shouldUseIndex() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        when(nameSuggestionIndex.suggest(USER_SUB_1, "smi", 10)).thenReturn(List.of("Smith", "Smithers"));
+
+        assertThat(medicalRecordService.suggestNames("smi", 10)).containsExactly("Smith", "Smithers");
+        assertThat(medicalRecordService.suggestNames("  ", 10)).isEmpty();
+        verifyNoInteractions(medicalRecordRepository);
+    }
+
+    @Test
+    @DisplayName("suggestNames should reject an over-long prefix or an out-of-range limit")
+    void suggestNames_whenOutOfRange_shouldThrowInvalidQuery() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+
+        assertThatThrownBy(() -> medicalRecordService.suggestNames(
+                "a".repeat(RecordFilter.MAX_NAME_PREFIX_LENGTH + 1), 10))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> medicalRecordService.suggestNames("a", 0))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> medicalRecordService.suggestNames("a", MedicalRecordService.MAX_SUGGESTIONS + 1))
+                .isInstanceOf(InvalidQueryException.class);
+        verifyNoInteractions(nameSuggestionIndex);
+    }
+
+    @Test
+    @DisplayName("suggestNames should throw AccessDeniedException if user has no sub")
+    void suggestNames_whenUserHasNoSub_shouldThrowAccessDenied() {
+        mockAuthenticatedUserWithoutSub();
+        assertThatThrownBy(() -> medicalRecordService.suggestNames("a", 10))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("getStatistics should return the user's aggregates from the summary")
+    void getStatistics_whenUserWithSub_shouldReadSummary() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        RecordStatisticsSummary summary = new RecordStatisticsSummary(3, List.of(), List.of());
+        when(recordStatistics.summary(USER_SUB_1, 30)).thenReturn(summary);
+
+        assertThat(medicalRecordService.getStatistics(30)).isSameAs(summary);
+        verifyNoInteractions(medicalRecordRepository);
+    }
+
+    @Test
+    @DisplayName("getStatistics should reject a number of days out of range")
+    void getStatistics_whenDaysOutOfRange_shouldThrowInvalidQuery() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+
+        assertThatThrownBy(() -> medicalRecordService.getStatistics(0)).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> medicalRecordService.getStatistics(MedicalRecordService.MAX_STATISTICS_DAYS + 1))
+                .isInstanceOf(InvalidQueryException.class);
+        verifyNoInteractions(recordStatistics);
+    }
+
     @Test
     @DisplayName("saveRecord should save new record and set ownerId for user with sub")
     void saveRecord_whenNewRecordAndUserWithSub_shouldSaveAndSetOwnerId() {
@@ -172,6 +383,8 @@ class MedicalRecordServiceTest {
         assertThat(result.getOwnerId()).isEqualTo(USER_SUB_1);
         verify(medicalRecordRepository)
                 .save(argThat(r -> r.getOwnerId().equals(USER_SUB_1) && r.getName().equals("New")));
+        verify(recordStatistics).recordSaved(USER_SUB_1, null, savedRecord);
+        verify(eventPublisher).publishEvent(new RecordChangedEvent(USER_SUB_1));
     }
 
     @Test
@@ -181,15 +394,18 @@ class MedicalRecordServiceTest {
         MedicalRecord updatedDetails = new MedicalRecord(1L, "Updated Name", 31, "Updated Hist", USER_SUB_1, null, null,
                 null, null, false);
 
-        when(medicalRecordRepository.existsByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(true);
+        MedicalRecord storedRecord = new MedicalRecord(1L, "Name", 30, "Hist", USER_SUB_1, null, null,
+                LocalDateTime.of(2025, 1, 1, 10, 0), LocalDateTime.of(2025, 1, 2, 10, 0), false);
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.of(storedRecord));
         when(medicalRecordRepository.save(any(MedicalRecord.class))).thenReturn(updatedDetails);
 
         MedicalRecord result = medicalRecordService.saveRecord(updatedDetails);
 
         assertThat(result.getName()).isEqualTo("Updated Name");
         assertThat(result.getOwnerId()).isEqualTo(USER_SUB_1);
-        verify(medicalRecordRepository).existsByIdAndOwnerId(1L, USER_SUB_1);
+        verify(medicalRecordRepository).findLockedByIdAndOwnerId(1L, USER_SUB_1);
         verify(medicalRecordRepository).save(updatedDetails);
+        verify(recordStatistics).recordSaved(USER_SUB_1, RecordStatistics.Snapshot.of(storedRecord), updatedDetails);
     }
 
     @Test
@@ -201,14 +417,15 @@ class MedicalRecordServiceTest {
         // to
         // USER_SUB_2
 
-        when(medicalRecordRepository.existsByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(false); // User1 does not own
-                                                                                              // record 1L
+        // User1 does not own record 1L
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> medicalRecordService.saveRecord(recordToUpdate))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("You do not have permission to update this record.");
-        verify(medicalRecordRepository).existsByIdAndOwnerId(1L, USER_SUB_1);
+        verify(medicalRecordRepository).findLockedByIdAndOwnerId(1L, USER_SUB_1);
         verify(medicalRecordRepository, never()).save(any(MedicalRecord.class));
+        verifyNoInteractions(eventPublisher, recordStatistics);
     }
 
     @Test
@@ -221,32 +438,72 @@ class MedicalRecordServiceTest {
                 .hasMessageContaining("User must be authenticated with a 'sub' claim");
     }
 
+    @Test
+    @DisplayName("saveRecords should save all records with the user's ownerId and publish one event")
+    void saveRecords_whenUserWithSub_shouldSaveAllAndSetOwnerId() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        MedicalRecord newRecord = new MedicalRecord(null, "New", 20, "New Hist", null, null, null, null, null, false);
+        MedicalRecord updatedRecord = new MedicalRecord(1L, "Updated", 31, "Hist", null, null, null, null, null,
+                false);
+        MedicalRecord storedRecord = new MedicalRecord(1L, "Stored", 30, "Hist", USER_SUB_1, null, null, null, null,
+                false);
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.of(storedRecord));
+        when(medicalRecordRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MedicalRecord> result = medicalRecordService.saveRecords(List.of(newRecord, updatedRecord));
+
+        assertThat(result).extracting(MedicalRecord::getOwnerId).containsExactly(USER_SUB_1, USER_SUB_1);
+        verify(medicalRecordRepository).saveAll(List.of(newRecord, updatedRecord));
+        verify(recordStatistics).recordsSaved(USER_SUB_1,
+                Arrays.asList(null, RecordStatistics.Snapshot.of(storedRecord)), result);
+        verify(eventPublisher, times(1)).publishEvent(new RecordChangedEvent(USER_SUB_1));
+    }
+
+    @Test
+    @DisplayName("saveRecords should save nothing if any record is not owned by user")
+    void saveRecords_whenUpdatingRecordNotOwned_shouldSaveNothing() {
+        mockAuthenticatedUserWithSub(USER_SUB_1);
+        MedicalRecord newRecord = new MedicalRecord(null, "New", 20, "New Hist", null, null, null, null, null, false);
+        MedicalRecord otherOwnersRecord = new MedicalRecord(2L, "Name", 30, "History", USER_SUB_2, null, null, null,
+                null, false);
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(2L, USER_SUB_1)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> medicalRecordService.saveRecords(List.of(newRecord, otherOwnersRecord)))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessageContaining("You do not have permission to update record 2.");
+        verify(medicalRecordRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     @DisplayName("deleteRecordById should delete record if owned by user with sub")
     void deleteRecordById_whenOwnedByUserWithSub_shouldDelete() {
         mockAuthenticatedUserWithSub(USER_SUB_1);
-        when(medicalRecordRepository.existsById(1L)).thenReturn(true);
-        when(medicalRecordRepository.existsByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(true);
+        MedicalRecord storedRecord = new MedicalRecord(1L, "Name", 42, "Hist", USER_SUB_1, null, null,
+                LocalDateTime.of(2025, 1, 1, 10, 0), LocalDateTime.of(2025, 1, 2, 10, 0), false);
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.of(storedRecord));
         doNothing().when(medicalRecordRepository).deleteById(1L);
 
         medicalRecordService.deleteRecordById(1L);
 
-        verify(medicalRecordRepository).existsById(1L);
-        verify(medicalRecordRepository).existsByIdAndOwnerId(1L, USER_SUB_1);
+        verify(medicalRecordRepository).findLockedByIdAndOwnerId(1L, USER_SUB_1);
+        verify(medicalRecordRepository, never()).existsById(anyLong());
         verify(medicalRecordRepository).deleteById(1L);
+        verify(recordStatistics).recordDeleted(USER_SUB_1, RecordStatistics.Snapshot.of(storedRecord));
+        verify(eventPublisher).publishEvent(new RecordChangedEvent(USER_SUB_1));
     }
 
     @Test
     @DisplayName("deleteRecordById should throw RecordNotFoundException if record does not exist")
     void deleteRecordById_whenRecordDoesNotExist_shouldThrowRecordNotFound() {
         mockAuthenticatedUserWithSub(USER_SUB_1);
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.empty());
         when(medicalRecordRepository.existsById(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> medicalRecordService.deleteRecordById(1L))
                 .isInstanceOf(RecordNotFoundException.class)
                 .hasMessageContaining("Medical record not found or has already been deleted with ID: 1");
         verify(medicalRecordRepository).existsById(1L);
-        verify(medicalRecordRepository, never()).existsByIdAndOwnerId(anyLong(), anyString());
         verify(medicalRecordRepository, never()).deleteById(anyLong());
     }
 
@@ -255,13 +512,14 @@ class MedicalRecordServiceTest {
     void deleteRecordById_whenRecordNotOwned_shouldThrowAccessDenied() {
         mockAuthenticatedUserWithSub(USER_SUB_1);
         when(medicalRecordRepository.existsById(1L)).thenReturn(true);
-        when(medicalRecordRepository.existsByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(false); // Not owned
+        // Not owned
+        when(medicalRecordRepository.findLockedByIdAndOwnerId(1L, USER_SUB_1)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> medicalRecordService.deleteRecordById(1L))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessageContaining("You do not have permission to delete this medical record.");
         verify(medicalRecordRepository).existsById(1L);
-        verify(medicalRecordRepository).existsByIdAndOwnerId(1L, USER_SUB_1);
+        verify(medicalRecordRepository).findLockedByIdAndOwnerId(1L, USER_SUB_1);
         verify(medicalRecordRepository, never()).deleteById(anyLong());
     }
 
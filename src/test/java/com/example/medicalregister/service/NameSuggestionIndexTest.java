@@ -0,0 +1,89 @@
+package com.example.medicalregister.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NameSuggestionIndex Tests")
+/**
+ * Unit tests for {@link NameSuggestionIndex}, with the owners' names kept in a
+ * map instead of the database.
+ */
+class NameSuggestionIndexTest {
+
+    private static final String OWNER = "auth0|owner";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, List<String>> names = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final NameSuggestionIndex index = new NameSuggestionIndex(this::load, 1_000_000, Duration.ofMinutes(15),
+            registry);
+
+    private Collection<String> load(String ownerId) {
+        loads.incrementAndGet();
+        return names.getOrDefault(ownerId, List.of());
+    }
+
+    @Test
+    @DisplayName("Suggestions should be the distinct names with the prefix, ignoring case, in alphabetical order")
+    void suggest_shouldReturnDistinctMatchesInOrder() {
+        names.put(OWNER, List.of("Smith, John", "alice", "SMITHERS", "smith, anna", "Smith, John", "Smyth", "Alice"));
+
+        assertThat(index.suggest(OWNER, "smi", 10)).containsExactly("smith, anna", "Smith, John", "SMITHERS");
+        assertThat(index.suggest(OWNER, "ALICE", 10)).containsExactly("Alice", "alice");
+        assertThat(index.suggest(OWNER, "smith,", 1)).containsExactly("smith, anna");
+        assertThat(index.suggest(OWNER, "z", 10)).isEmpty();
+        assertThat(registry.get(NameSuggestionIndex.CACHE_NAME + ".lookup").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("An owner's index should be built once, and only from their own names")
+    void suggest_shouldBuildIndexOncePerOwner() {
+        names.put(OWNER, List.of("Alice"));
+        names.put("auth0|other", List.of("Alan"));
+
+        index.suggest(OWNER, "a", 10);
+        index.suggest(OWNER, "al", 10);
+
+        assertThat(index.suggest(OWNER, "a", 10)).containsExactly("Alice");
+        assertThat(loads).hasValue(1);
+        assertThat(index.suggest("auth0|other", "a", 10)).containsExactly("Alan");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A write should rebuild only the owner's index on their next lookup")
+    void onRecordChanged_shouldRebuildOwnersIndex() {
+        names.put(OWNER, List.of("Alice"));
+        names.put("auth0|other", List.of("Alan"));
+        index.suggest(OWNER, "a", 10);
+        index.suggest("auth0|other", "a", 10);
+
+        names.put(OWNER, List.of("Alice", "Albert"));
+        index.onRecordChanged(new RecordChangedEvent(OWNER));
+
+        assertThat(index.suggest(OWNER, "a", 10)).containsExactly("Albert", "Alice");
+        index.suggest("auth0|other", "a", 10);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("The estimated size should count a name in lower case once")
+    void ownerNames_weight_shouldShareLowerCaseKeys() {
+        int lowerCase = NameSuggestionIndex.OwnerNames.of(List.of("alice")).weight();
+        int mixedCase = NameSuggestionIndex.OwnerNames.of(List.of("Alice")).weight();
+
+        assertThat(mixedCase).isGreaterThan(lowerCase);
+        assertThat(NameSuggestionIndex.OwnerNames.of(List.of("alice", "bob")).weight()).isGreaterThan(lowerCase);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.medicalregister.service;
+
+import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.model.MedicalRecord;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DisplayName("ReadCoalescer Tests")
+/**
+ * Unit tests for {@link ReadCoalescer}. A query is held open with a latch
+ * while other callers arrive, so they find it running. The read transaction
+ * only counts the queries run in it.
+ */
+class ReadCoalescerTest {
+
+    private static final String OWNER = "auth0|owner";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final TransactionOperations readTransaction = new TransactionOperations() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            transactions.incrementAndGet();
+            return action.doInTransaction(null);
+        }
+    };
+    private final ReadCoalescer coalescer = new ReadCoalescer(true, registry, readTransaction, entityManager);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch queryStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseQuery = new CountDownLatch(1);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        releaseQuery.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Identical concurrent reads should share one query and be counted")
+    void execute_identicalConcurrentReads_shouldRunOneQuery() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.execute("find_all", OWNER, 1, blockingQuery("page")));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> coalescer.execute("find_all", OWNER, 1, countingQuery("other"))));
+        }
+        awaitCoalesced(5);
+        releaseQuery.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+        }
+        assertThat(queries).hasValue(1);
+        assertThat(coalesced("find_all")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Callers waiting for a failed query should get its exception")
+    void execute_failedQuery_shouldThrowToAllCallers() throws Exception {
+        Future<String> leader = executor.submit(() -> coalescer.execute("find_by_id", OWNER, 7L, () -> {
+            queryStarted.countDown();
+            await(releaseQuery);
+            throw new RecordNotFoundException("Medical record not found.");
+        }));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = executor.submit(() -> coalescer.execute("find_by_id", OWNER, 7L,
+                countingQuery("other")));
+        awaitCoalesced(1);
+        releaseQuery.countDown();
+
+        for (Future<String> caller : List.of(leader, follower)) {
+            assertThatThrownBy(() -> caller.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(RecordNotFoundException.class);
+        }
+        assertThat(queries).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Reads of other owners, operations or arguments should not be shared")
+    void execute_differentKeys_shouldRunTheirOwnQueries() throws Exception {
+        executor.submit(() -> coalescer.execute("find_all", OWNER, 1, blockingQuery("page")));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(coalescer.execute("find_all", "auth0|other", 1, countingQuery("other owner")))
+                .isEqualTo("other owner");
+        assertThat(coalescer.execute("find_all", OWNER, 2, countingQuery("other page"))).isEqualTo("other page");
+        assertThat(coalescer.execute("find_by_id", OWNER, 1, countingQuery("record"))).isEqualTo("record");
+        assertThat(queries).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("A read after a write of the owner should not join a query started before it")
+    void execute_afterRecordChanged_shouldRunANewQuery() throws Exception {
+        Future<String> before = executor.submit(() -> coalescer.execute("find_all", OWNER, 1, blockingQuery("old")));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        coalescer.onRecordChanged(new RecordChangedEvent(OWNER));
+
+        assertThat(coalescer.execute("find_all", OWNER, 1, countingQuery("new"))).isEqualTo("new");
+        releaseQuery.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("When disabled, every caller should run its own query")
+    void execute_disabled_shouldNotCoalesce() {
+        ReadCoalescer disabled = new ReadCoalescer(false, registry, readTransaction, entityManager);
+
+        disabled.execute("find_all", OWNER, 1, countingQuery("page"));
+        disabled.execute("find_all", OWNER, 1, countingQuery("page"));
+
+        assertThat(queries).hasValue(2);
+        assertThat(transactions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("The query should run in the read transaction and the entities it returns should be detached")
+    void execute_entityResults_shouldRunInTransactionAndBeDetached() {
+        MedicalRecord first = new MedicalRecord();
+        first.setId(1L);
+        MedicalRecord second = new MedicalRecord();
+        second.setId(2L);
+
+        Page<MedicalRecord> page = coalescer.execute("find_all", OWNER, 1,
+                () -> new PageImpl<>(List.of(first, second)));
+        Optional<MedicalRecord> record = coalescer.execute("find_by_id", OWNER, 1L, () -> Optional.of(first));
+        coalescer.execute("find_by_id", OWNER, List.of(1L, "name"), () -> List.of(Map.of("id", 1L)));
+
+        assertThat(page.getContent()).containsExactly(first, second);
+        assertThat(record).containsSame(first);
+        assertThat(transactions).hasValue(3);
+        verify(entityManager, times(2)).detach(first);
+        verify(entityManager).detach(second);
+        verifyNoMoreInteractions(entityManager); // Rows of selected fields are not entities
+    }
+
+    @Test
+    @DisplayName("A read within a running transaction should join it and not be coalesced or detached")
+    void execute_withinTransaction_shouldNotCoalesce() throws Exception {
+        executor.submit(() -> coalescer.execute("find_by_id", OWNER, 1L, blockingQuery("old")));
+        assertThat(queryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        MedicalRecord written = new MedicalRecord();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(coalescer.execute("find_by_id", OWNER, 1L, () -> written)).isSameAs(written);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertThat(totalCoalesced()).isZero();
+        verify(entityManager, never()).detach(written);
+    }
+
+    private Supplier<String> blockingQuery(String result) {
+        return () -> {
+            queries.incrementAndGet();
+            queryStarted.countDown();
+            await(releaseQuery);
+            return result;
+        };
+    }
+
+    private Supplier<String> countingQuery(String result) {
+        return () -> {
+            queries.incrementAndGet();
+            return result;
+        };
+    }
+
+    private void awaitCoalesced(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (totalCoalesced() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(totalCoalesced()).isEqualTo(callers);
+    }
+
+    private double totalCoalesced() {
+        return registry.find(ReadCoalescer.COALESCED_COUNTER).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private double coalesced(String operation) {
+        return registry.get(ReadCoalescer.COALESCED_COUNTER).tag("operation", operation).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
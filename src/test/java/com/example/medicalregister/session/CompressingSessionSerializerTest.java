@@ -0,0 +1,61 @@
+package com.example.medicalregister.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.DefaultSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CompressingSessionSerializer Tests")
+/**
+ * Unit tests for {@link CompressingSessionSerializer}: compression threshold,
+ * round trips and compatibility with plain Java serialization.
+ */
+class CompressingSessionSerializerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CompressingSessionSerializer serializer = new CompressingSessionSerializer(
+            getClass().getClassLoader(), 512, registry);
+
+    @Test
+    @DisplayName("Small values should be stored as plain Java serialization")
+    void serialize_belowThreshold_shouldNotCompress() throws Exception {
+        byte[] bytes = serializer.serializeToByteArray("csrf-token");
+
+        assertThat(bytes[0]).isEqualTo((byte) 0xAC); // Java serialization stream magic
+        assertThat(serializer.deserializeFromByteArray(bytes)).isEqualTo("csrf-token");
+        assertThat(registry.get(CompressingSessionSerializer.SIZE_METRIC).tag("encoding", "java").summary().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Large values should be deflated, smaller, and read back unchanged")
+    void serialize_aboveThreshold_shouldCompressAndRoundTrip() throws Exception {
+        List<String> claims = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            claims.add("https://medical-register.example.com/claims/" + i);
+        }
+        byte[] plain = new DefaultSerializer().serializeToByteArray(claims);
+
+        byte[] bytes = serializer.serializeToByteArray(claims);
+
+        assertThat(bytes[0]).isEqualTo((byte) 0x01);
+        assertThat(bytes.length).isLessThan(plain.length / 2);
+        assertThat(serializer.deserializeFromByteArray(bytes)).isEqualTo(claims);
+        assertThat(registry.get(CompressingSessionSerializer.SIZE_METRIC).tag("encoding", "deflate").summary()
+                .totalAmount()).isEqualTo(bytes.length);
+    }
+
+    @Test
+    @DisplayName("Values written by the default Spring Session serializer should remain readable")
+    void deserialize_plainJavaSerialization_shouldRead() throws Exception {
+        byte[] plain = new DefaultSerializer().serializeToByteArray("x".repeat(2_000));
+
+        assertThat(serializer.deserializeFromByteArray(plain)).isEqualTo("x".repeat(2_000));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.medicalregister.session;
+
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = { "medical-register.session.store=jdbc",
+        "medical-register.session.cleanup-batch-size=1" }) // One row per DELETE, to exercise batching
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("JDBC Session Store Integration Tests")
+/**
+ * Integration tests for the opt-in JDBC session store: sessions created by a
+ * request are written to the database, a stored login is restored from the
+ * session cookie alone, reads and writes are timed, and expired sessions are
+ * cleaned up.
+ */
+class JdbcSessionStoreIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private ExpiredSessionCleaner expiredSessionCleaner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+    }
+
+    @Test
+    @DisplayName("A session created by a request should be written to SPRING_SESSION")
+    void request_creatingSession_shouldStoreItInDatabase() throws Exception {
+        // The login redirect saves the requested URL in the session
+        Cookie sessionCookie = mockMvc.perform(get("/records"))
+                .andExpect(status().isFound())
+                .andReturn().getResponse().getCookie("SESSION");
+
+        assertThat(sessionCookie).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION WHERE SESSION_ID = ?",
+                Integer.class, decode(sessionCookie))).isEqualTo(1);
+        assertThat(meterRegistry.get(MeteredSessionRepository.TIMER_NAME).tag("operation", "save").timer().count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("A login stored in the database should be restored from the session cookie alone")
+    void storedLogin_shouldBeRestoredFromSessionCookie() throws Exception {
+        String sessionId = storeLogin(sessionRepository, "auth0|s1");
+
+        mockMvc.perform(get("/records").cookie(new Cookie("SESSION", encode(sessionId))))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get(MeteredSessionRepository.TIMER_NAME).tag("operation", "find").timer().count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Expired sessions should be deleted in batches, with their attributes")
+    void deleteExpiredSessions_shouldDeleteOnlyExpiredSessions() {
+        for (int i = 0; i < 3; i++) {
+            storeLogin(sessionRepository, "auth0|s" + i);
+        }
+        jdbcTemplate.update("UPDATE SPRING_SESSION SET EXPIRY_TIME = 0 WHERE PRINCIPAL_NAME <> 'auth0|s0'");
+
+        assertThat(expiredSessionCleaner.deleteExpiredSessions()).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForList("SELECT PRINCIPAL_NAME FROM SPRING_SESSION", String.class))
+                .containsExactly("auth0|s0");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT SESSION_PRIMARY_ID)"
+                + " FROM SPRING_SESSION_ATTRIBUTES", Integer.class)).isEqualTo(1);
+    }
+
+    /**
+     * Saves a session holding an OAuth2 login for {@code sub}, as the login flow
+     * would.
+     */
+    private static <S extends Session> String storeLogin(FindByIndexNameSessionRepository<S> repository,
+            String sub) {
+        OAuth2User user = SecurityTestUtils.createOAuth2UserWithSubAndName(sub, "Session User");
+        S session = repository.createSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(new OAuth2AuthenticationToken(user, user.getAuthorities(), "auth0")));
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, sub);
+        repository.save(session);
+        return session.getId();
+    }
+
+    private static String encode(String sessionId) {
+        return Base64.getEncoder().encodeToString(sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(Cookie cookie) {
+        return new String(Base64.getDecoder().decode(cookie.getValue()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.medicalregister.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StartupStepReport Tests")
+/**
+ * Unit tests for {@link StartupStepReport} formatting of recorded startup
+ * steps.
+ */
+class StartupStepReportTest {
+
+    @Test
+    @DisplayName("Report should list the slowest steps first, with their tags, up to the limit")
+    void format_shouldListSlowestStepsFirst() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        record(startup, "fastService", 0);
+        record(startup, "slowService", 200);
+        record(startup, "mediumService", 100);
+
+        String report = new StartupStepReport(2).format(startup.drainBufferedTimeline());
+
+        assertThat(report.lines().filter(line -> !line.isEmpty()).toList())
+                .hasSize(3)
+                .satisfiesExactly(
+                        first -> assertThat(first).contains("spring.beans.instantiate beanName=slowService"),
+                        second -> assertThat(second).contains("beanName=mediumService"),
+                        summary -> assertThat(summary).isEqualTo("(3 steps recorded)"));
+        assertThat(report).doesNotContain("beanType");
+    }
+
+    private static void record(BufferingApplicationStartup startup, String beanName, long millis)
+            throws InterruptedException {
+        StartupStep step = startup.start("spring.beans.instantiate")
+                .tag("beanName", beanName)
+                .tag("beanType", "class com.example." + beanName);
+        Thread.sleep(millis);
+        step.end();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.medicalregister.startup;
+
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.security.WarmUpAuthenticationFilter;
+import com.example.medicalregister.startup.WarmUpRunner.WarmUpResult;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "medical-register.warm-up.enabled=true",
+        "medical-register.warm-up.iterations=3",
+        "medical-register.warm-up.time-budget=PT60S" })
+@ActiveProfiles("test")
+@DisplayName("Warm-Up Runner Integration Tests")
+/**
+ * Integration tests for the startup warm-up: it completes its rounds against
+ * the running server before the application is ready, stores nothing, and its
+ * token no longer authenticates afterwards.
+ */
+class WarmUpRunnerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Test
+    @DisplayName("Warm-up should complete all rounds without storing records, then the application is ready")
+    void warmUp_shouldCompleteBeforeReadiness() {
+        WarmUpResult result = warmUpRunner.getLastResult();
+
+        assertThat(result.failures()).isZero();
+        assertThat(result.rounds()).isEqualTo(3);
+        assertThat(result.requests()).isEqualTo(15);
+        assertThat(result.connections()).isPositive();
+        assertThat(medicalRecordRepository.findByOwnerId(WarmUpAuthenticationFilter.SCRATCH_OWNER, Pageable.unpaged())
+                .getTotalElements()).isZero();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    @DisplayName("After the warm-up, the warm-up header should not authenticate requests")
+    void warmUpHeader_afterWarmUp_shouldNotAuthenticate() throws Exception {
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/records"))
+                        .header(WarmUpToken.HEADER, "guessed-token")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        assertThat(response.statusCode()).isEqualTo(302); // Redirect to the login page
+    }
+}
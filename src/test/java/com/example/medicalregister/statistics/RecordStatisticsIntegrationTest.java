@@ -0,0 +1,173 @@
+package com.example.medicalregister.statistics;
+
+import com.example.medicalregister.dto.RecordStatisticsSummary;
+import com.example.medicalregister.dto.RecordStatisticsSummary.AgeBucket;
+import com.example.medicalregister.dto.RecordStatisticsSummary.DailyActivity;
+import com.example.medicalregister.exception.RecordNotFoundException;
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.repository.MedicalRecordRepository;
+import com.example.medicalregister.service.MedicalRecordService;
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional // The reconciler's transactions join the test's, which is rolled back
+@ActiveProfiles("test")
+@DisplayName("RecordStatistics Integration Tests")
+/**
+ * Integration tests for {@link RecordStatistics} and
+ * {@link RecordStatisticsReconciler}: the summary maintained by the record
+ * service's writes must match what reconciliation recomputes from the records.
+ * Other tests share the database, so assertions are on this test's owner only.
+ */
+class RecordStatisticsIntegrationTest {
+
+    private static final String OWNER = "statistics-owner";
+    private static final String CONCURRENT_OWNER = "statistics-concurrent-owner";
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private RecordStatisticsReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        authenticate(OWNER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Creates, updates and deletes should keep the summary equal to a recomputation")
+    void writes_shouldMaintainSummaryIncrementally() {
+        MedicalRecord deleted = medicalRecordService.saveRecord(record(null, "Child", 5));
+        MedicalRecord updated = medicalRecordService.saveRecord(record(null, "Adult", 34));
+        medicalRecordService.saveRecords(List.of(record(null, "Centenarian", 101), record(null, "Other", 38)));
+        medicalRecordService.saveRecord(record(updated.getId(), "Adult", 72));
+        medicalRecordService.deleteRecordById(deleted.getId());
+        entityManager.flush();
+
+        RecordStatisticsSummary summary = medicalRecordService.getStatistics(7);
+
+        assertThat(summary.totalRecords()).isEqualTo(3);
+        assertThat(summary.ageHistogram()).extracting(AgeBucket::records)
+                .containsExactly(0L, 0L, 0L, 1L, 0L, 0L, 0L, 1L, 0L, 0L, 1L);
+        assertThat(summary.ageHistogram().get(10)).isEqualTo(new AgeBucket(100, null, 1));
+        assertThat(summary.daily()).hasSize(7).last()
+                .isEqualTo(new DailyActivity(LocalDate.now(), 3, 3));
+
+        reconciler.reconcile();
+        assertThat(medicalRecordService.getStatistics(7)).isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Reconciliation should correct records written around the service and stale rows")
+    void reconcile_whenSummaryDrifted_shouldRecompute() {
+        medicalRecordRepository.save(record(null, "Imported", 47)); // Bypasses the summary
+        jdbcTemplate.update("INSERT INTO owner_record_statistic (owner_id, dimension, bucket, record_count)"
+                + " VALUES (?, 'age', '90', 5)", OWNER);
+        entityManager.flush();
+        assertThat(medicalRecordService.getStatistics(1).totalRecords()).isZero();
+
+        assertThat(reconciler.reconcile()).isPositive();
+
+        RecordStatisticsSummary summary = medicalRecordService.getStatistics(1);
+        assertThat(summary.totalRecords()).isEqualTo(1);
+        assertThat(summary.ageHistogram()).extracting(AgeBucket::records)
+                .containsExactly(0L, 0L, 0L, 0L, 1L, 0L, 0L, 0L, 0L, 0L, 0L);
+        assertThat(summary.daily()).containsExactly(new DailyActivity(LocalDate.now(), 1, 1));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owner_record_statistic"
+                + " WHERE owner_id = ? AND record_count = 0", Integer.class, OWNER)).isZero();
+
+        reconciler.reconcile();
+        assertThat(medicalRecordService.getStatistics(1)).isEqualTo(summary);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Each delete commits on its own
+    @DisplayName("Concurrent deletes of a record should decrement the summary once")
+    void concurrentDeletes_shouldDecrementSummaryOnce() throws Exception {
+        authenticate(CONCURRENT_OWNER);
+        Long id = medicalRecordService.saveRecord(record(null, "Contended", 50)).getId();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> deletes = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                deletes.add(executor.submit(() -> {
+                    authenticate(CONCURRENT_OWNER);
+                    try {
+                        start.await(10, TimeUnit.SECONDS);
+                        medicalRecordService.deleteRecordById(id);
+                        return true;
+                    } catch (RecordNotFoundException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+            int deleted = 0;
+            for (Future<Boolean> delete : deletes) {
+                deleted += delete.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            RecordStatisticsSummary summary = medicalRecordService.getStatistics(1);
+            assertThat(deleted).isEqualTo(1);
+            assertThat(summary.totalRecords()).isZero();
+            assertThat(summary.ageHistogram()).extracting(AgeBucket::records).containsOnly(0L);
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM medical_record WHERE owner_id = ?", CONCURRENT_OWNER);
+            jdbcTemplate.update("DELETE FROM owner_record_statistic WHERE owner_id = ?", CONCURRENT_OWNER);
+        }
+    }
+
+    private static void authenticate(String ownerId) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(
+                SecurityTestUtils.createOAuth2UserWithSubAndName(ownerId, "Statistics User"), null, "ROLE_USER"));
+    }
+
+    private static MedicalRecord record(Long id, String name, int age) {
+        return new MedicalRecord(id, name, age, "History", OWNER, null, null, null, null, false);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.medicalregister.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that keeps the SQL of every statement Hibernate
+ * prepares, with its {@code ?} placeholders, so tests can inspect the queries
+ * generated for them (e.g. their execution plans). Enable it with:
+ *
+ * <pre>
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.medicalregister.util.CapturingStatementInspector
+ * </pre>
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    /**
+     * Forgets the statements captured so far.
+     */
+    public static void clear() {
+        statements.clear();
+    }
+
+    /**
+     * @return The statements captured since the last {@link #clear()}.
+     */
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+}
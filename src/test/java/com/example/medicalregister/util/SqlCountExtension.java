@@ -0,0 +1,67 @@
+package com.example.medicalregister.util;
+
+import com.example.medicalregister.sql.SqlStatementCounter;
+import com.example.medicalregister.sql.SqlStatementCounts;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JUnit extension for asserting how many SQL statements an operation executes,
+ * to catch N+1 selects and other query-count regressions. Counts are per
+ * thread and are reset before each test; call {@link #reset()} again after the
+ * test's own setup, then assert after the operation under test:
+ *
+ * <pre>
+ * SqlCountExtension.reset();
+ * medicalRecordService.deleteRecordById(id);
+ * entityManager.flush(); // Pending UPDATEs/DELETEs are only executed on flush
+ * SqlCountExtension.assertStatements(3, 0, 1, 0);
+ * </pre>
+ */
+public class SqlCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SqlStatementCounter.reset();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SqlStatementCounter.clear();
+    }
+
+    /**
+     * Resets the statement counts of the current thread.
+     */
+    public static void reset() {
+        SqlStatementCounter.reset();
+    }
+
+    /**
+     * @return The statements executed on the current thread since the last reset.
+     */
+    public static SqlStatementCounts current() {
+        return SqlStatementCounter.current();
+    }
+
+    /**
+     * Asserts the exact number of statements executed since the last reset.
+     */
+    public static void assertStatements(int select, int insert, int update, int delete) {
+        assertStatements(select, insert, update, delete, 0);
+    }
+
+    /**
+     * Asserts the exact number of statements executed since the last reset,
+     * including other statements such as {@code MERGE}.
+     */
+    public static void assertStatements(int select, int insert, int update, int delete, int other) {
+        assertThat(current())
+                .as("SQL statements executed")
+                .isEqualTo(new SqlStatementCounts(select, insert, update, delete, other));
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.medicalregister.util;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal, in-process stand-in for the Auth0 identity provider. It serves the
+ * OpenID Connect discovery document and the JWK set of a locally generated RSA
+ * key on a random loopback port, so that a full application context can be
+ * booted without network access to Auth0. {@link #issueToken} signs access
+ * tokens with that key, for requests to the bearer-token API.
+ * <p>
+ * Every test application context uses the {@link #shared()} provider: the
+ * {@link StubOidcProviderInitializer} points the issuer URI at it, so the
+ * contexts of all test classes have the same configuration and are cached
+ * across them. Unit tests of the provider cache start their own with
+ * {@link #start()}.
+ */
+public class StubOidcProvider implements AutoCloseable {
+
+    /**
+     * The 'aud' of the tokens from {@link #issueToken}, the API audience of the
+     * test profile.
+     */
+    public static final String AUDIENCE = "https://medical-register.test/api";
+
+    private static final class Shared {
+        private static final StubOidcProvider INSTANCE = start();
+    }
+
+    private final HttpServer server;
+    private final String issuerUri;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile RSAKey signingKey = generateKey("stub-key");
+
+    private StubOidcProvider(HttpServer server) {
+        this.server = server;
+        this.issuerUri = "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Generates an RSA signing key, e.g. to sign tokens the provider does not
+     * trust.
+     *
+     * @param keyId The 'kid' of the key.
+     * @return A new 2048-bit RSA key pair.
+     */
+    public static RSAKey generateKey(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not generate RSA key", e);
+        }
+    }
+
+    /**
+     * The provider of all test application contexts, started on first use and
+     * running until the JVM exits (cached contexts keep using it).
+     *
+     * @return The running shared provider.
+     */
+    public static StubOidcProvider shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Starts a stub provider on a random free loopback port.
+     *
+     * @return The running provider.
+     */
+    public static StubOidcProvider start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            StubOidcProvider provider = new StubOidcProvider(server);
+            server.createContext("/.well-known/openid-configuration",
+                    exchange -> provider.respond(exchange, provider.discoveryDocument()));
+            server.createContext("/.well-known/jwks.json",
+                    exchange -> provider.respond(exchange, new JWKSet(provider.signingKey.toPublicJWK()).toString()));
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "stub-oidc-provider");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            return provider;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub OIDC provider", e);
+        }
+    }
+
+    /**
+     * @return The issuer URI (with trailing slash, as Auth0 uses).
+     */
+    public String getIssuerUri() {
+        return issuerUri;
+    }
+
+    /**
+     * Issues an access token for {@code sub} and {@link #AUDIENCE}, valid for 5
+     * minutes and signed with this provider's key.
+     *
+     * @param sub  The 'sub' claim.
+     * @param name The 'name' claim, or null.
+     * @return The serialized JWT.
+     */
+    public String issueToken(String sub, String name) {
+        Instant now = Instant.now();
+        return sign(new JWTClaimsSet.Builder()
+                .issuer(issuerUri)
+                .subject(sub)
+                .audience(AUDIENCE)
+                .claim("name", name)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofMinutes(5))))
+                .build(), signingKey);
+    }
+
+    /**
+     * Signs arbitrary claims, e.g. expired or foreign-issuer tokens for negative
+     * tests.
+     *
+     * @param claims The claims.
+     * @param key    The signing key; {@link #generateKey} for one this provider
+     *               does not publish.
+     * @return The serialized JWT.
+     */
+    public static String sign(JWTClaimsSet claims, RSAKey key) {
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                    claims);
+            jwt.sign(new RSASSASigner(key));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    /**
+     * @return This provider's signing key (private and public parts).
+     */
+    public RSAKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Replaces the signing key, as the provider does on key rotation; the JWK
+     * set then publishes only the new key.
+     *
+     * @param keyId The 'kid' of the new key.
+     */
+    public void rotateSigningKey(String keyId) {
+        signingKey = generateKey(keyId);
+    }
+
+    /**
+     * @return Number of requests served (discovery document and JWK set).
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    private String discoveryDocument() {
+        return "{"
+                + "\"issuer\":\"" + issuerUri + "\","
+                + "\"authorization_endpoint\":\"" + issuerUri + "authorize\","
+                + "\"token_endpoint\":\"" + issuerUri + "oauth/token\","
+                + "\"userinfo_endpoint\":\"" + issuerUri + "userinfo\","
+                + "\"jwks_uri\":\"" + issuerUri + ".well-known/jwks.json\","
+                + "\"response_types_supported\":[\"code\"],"
+                + "\"subject_types_supported\":[\"public\"],"
+                + "\"id_token_signing_alg_values_supported\":[\"RS256\"]"
+                + "}";
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requestCount.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
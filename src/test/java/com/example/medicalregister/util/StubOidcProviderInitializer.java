@@ -0,0 +1,26 @@
+package com.example.medicalregister.util;
+
+import java.util.Map;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Points the Auth0 issuer URI of every test application context at the
+ * {@link StubOidcProvider#shared() shared stub provider}, so that no test
+ * fetches the real Auth0 discovery document. Registered in
+ * {@code META-INF/spring.factories} of the test classpath, so it does not
+ * change the configuration of the test classes and their contexts stay
+ * cacheable.
+ */
+public class StubOidcProviderInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final String ISSUER_URI_PROPERTY = "spring.security.oauth2.client.provider.auth0.issuer-uri";
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("stubOidcProvider",
+                Map.of(ISSUER_URI_PROPERTY, StubOidcProvider.shared().getIssuerUri())));
+    }
+}
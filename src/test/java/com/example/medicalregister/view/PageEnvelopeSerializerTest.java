@@ -0,0 +1,87 @@
+package com.example.medicalregister.view;
+
+import com.example.medicalregister.dto.PageEnvelope;
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PageEnvelopeSerializer Tests")
+/**
+ * Unit tests for {@link PageEnvelopeSerializer}: the envelope's JSON shape,
+ * and its size compared to serializing Spring Data's page.
+ */
+class PageEnvelopeSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("The envelope should contain the items and the page metadata, and nothing else")
+    void serialize_shouldWriteItemsAndPageMetadata() throws Exception {
+        Page<MedicalRecord> page = new PageImpl<>(records(2),
+                PageRequest.of(1, 2, Sort.by(Sort.Order.asc("name"), Sort.Order.desc("age"))), 7);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(PageEnvelope.of(page)));
+
+        assertThat(json.fieldNames()).toIterable().containsExactly("items", "page");
+        assertThat(json.get("items")).hasSize(2);
+        assertThat(json.get("items").get(0))
+                .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsBytes(page.getContent().get(0))));
+        assertThat(json.get("page")).isEqualTo(objectMapper.readTree("""
+                {"number":1,"size":2,"totalItems":7,"totalPages":4,"hasNext":true,"sort":["name,asc","age,desc"]}
+                """));
+    }
+
+    @Test
+    @DisplayName("Null items, maps and an empty page should be written")
+    void serialize_nullItemsMapsAndEmptyPage_shouldWrite() throws Exception {
+        PageEnvelope<MedicalRecord> withNull = new PageEnvelope<>(Arrays.asList(records(1).get(0), null), 0, 2, 2,
+                1, false, List.of());
+
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(withNull)).get("items").get(1).isNull())
+                .isTrue();
+        assertThat(objectMapper.writeValueAsString(new PageEnvelope<>(List.of(Map.of("id", 1)), 0, 1, 1, 1, false,
+                List.of()))).startsWith("{\"items\":[{\"id\":1}],");
+        assertThat(objectMapper.writeValueAsString(PageEnvelope.of(Page.empty()))).isEqualTo(
+                "{\"items\":[],\"page\":{\"number\":0,\"size\":0,\"totalItems\":0,\"totalPages\":1,"
+                        + "\"hasNext\":false,\"sort\":[]}}");
+    }
+
+    @Test
+    @DisplayName("The envelope should be smaller than the serialized Spring Data page")
+    void serialize_shouldBeSmallerThanPageImpl() throws Exception {
+        Page<MedicalRecord> page = new PageImpl<>(records(3), PageRequest.of(0, 3, Sort.by("name")), 100);
+        int recordsOnly = objectMapper.writeValueAsBytes(page.getContent()).length;
+
+        int envelopeOverhead = objectMapper.writeValueAsBytes(PageEnvelope.of(page)).length - recordsOnly;
+        int pageImplOverhead = objectMapper.writeValueAsBytes(page).length - recordsOnly;
+
+        assertThat(envelopeOverhead).isLessThan(pageImplOverhead / 2);
+    }
+
+    private static List<MedicalRecord> records(int count) {
+        List<MedicalRecord> records = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 10, 15);
+        for (long id = 1; id <= count; id++) {
+            records.add(new MedicalRecord(id, "Patient " + id, 40, "History", "owner-a", "owner-a", "owner-a", now,
+                    now, false));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.medicalregister.view;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.example.medicalregister.service.MedicalRecordService;
+import com.example.medicalregister.util.SecurityTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("RecordJsonCache Integration Tests")
+/**
+ * Integration tests for {@link RecordJsonCache}: API responses are written
+ * through the cache, and an update through the API is never answered with the
+ * record's previous JSON.
+ */
+class RecordJsonCacheIntegrationTest {
+
+    private static final String OWNER = "json-cache-owner";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final OAuth2User user = SecurityTestUtils.createOAuth2UserWithSubAndName(OWNER, "JSON Cache User");
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Repeated reads should be served from the cache, and an update should be read back")
+    void getRecord_shouldUseCachedJsonUntilUpdated() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_USER"));
+        MedicalRecord record = medicalRecordService.saveRecord(
+                new MedicalRecord(null, "Cached Patient", 30, "History", null, null, null, null, null, false));
+        SecurityContextHolder.clearContext();
+        double hits = hits();
+
+        String first = mockMvc.perform(get("/api/v1/records/{id}", record.getId()).with(oauth2Login().oauth2User(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/v1/records").with(oauth2Login().oauth2User(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).contains(first);
+        assertThat(hits()).isGreaterThan(hits);
+
+        mockMvc.perform(put("/api/v1/records/{id}", record.getId())
+                .with(oauth2Login().oauth2User(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed Patient\",\"age\":31,\"medicalHistory\":\"History\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed Patient")));
+        mockMvc.perform(get("/api/v1/records/{id}", record.getId()).with(oauth2Login().oauth2User(user)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed Patient")))
+                .andExpect(jsonPath("$.age", is(31)));
+    }
+
+    private double hits() {
+        return registry.get("cache.gets").tag("cache", RecordJsonCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.medicalregister.view;
+
+import com.example.medicalregister.model.MedicalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecordJsonCache Tests")
+/**
+ * Unit tests for {@link RecordJsonCache} and {@link CachedRecordSerializer}:
+ * cached JSON must equal what the application's mapper writes, and be reused
+ * only for the same version of a record.
+ */
+class RecordJsonCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 31, 10, 15, 30, 123_456_000);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final RecordJsonCache cache = new RecordJsonCache(true, 1_000_000, Duration.ofMinutes(10), registry);
+    private final ObjectMapper cachingMapper = cache.cachingCopyOf(objectMapper);
+
+    @Test
+    @DisplayName("Records, lists and maps of records should be written as the application's mapper writes them")
+    void write_shouldMatchUncachedJson() throws Exception {
+        MedicalRecord record = record(1L, "Zoë \"Quoted\" Smith", UPDATED_AT);
+        List<MedicalRecord> records = List.of(record, record(2L, "Other", UPDATED_AT));
+
+        assertThat(cachingMapper.writeValueAsString(record)).isEqualTo(objectMapper.writeValueAsString(record));
+        assertThat(cachingMapper.writeValueAsBytes(records)).isEqualTo(objectMapper.writeValueAsBytes(records));
+        assertThat(cachingMapper.writeValueAsString(Map.of("content", records)))
+                .isEqualTo(objectMapper.writeValueAsString(Map.of("content", records)));
+    }
+
+    @Test
+    @DisplayName("The same version of a record should be serialized once, and written from the cache after")
+    void write_sameVersion_shouldReuseJson() throws Exception {
+        MedicalRecord record = record(1L, "Original", UPDATED_AT);
+        String original = cachingMapper.writeValueAsString(record);
+
+        record.setName("Changed without saving"); // Same id and updatedAt: still the cached JSON
+
+        assertThat(cachingMapper.writeValueAsString(record)).isEqualTo(original);
+        assertThat(cachingMapper.writeValueAsString(List.of(record))).isEqualTo("[" + original + "]");
+        assertThat(registry.get("cache.gets").tag("cache", RecordJsonCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("An updated record should be serialized again")
+    void write_newVersion_shouldSerializeAgain() throws Exception {
+        MedicalRecord record = record(1L, "Original", UPDATED_AT);
+        cachingMapper.writeValueAsString(record);
+
+        record.setName("Updated");
+        record.setUpdatedAt(UPDATED_AT.plusSeconds(1));
+
+        assertThat(cachingMapper.writeValueAsString(record)).contains("\"Updated\"")
+                .isEqualTo(objectMapper.writeValueAsString(record));
+    }
+
+    @Test
+    @DisplayName("Unsaved records, and all records when disabled, should always be serialized")
+    void write_unsavedOrDisabled_shouldNotCache() throws Exception {
+        MedicalRecord unsaved = record(null, "Unsaved", null);
+        cachingMapper.writeValueAsString(unsaved);
+        unsaved.setName("Renamed");
+        assertThat(cachingMapper.writeValueAsString(unsaved)).contains("\"Renamed\"");
+
+        ObjectMapper uncached = new RecordJsonCache(false, 1_000_000, Duration.ofMinutes(10),
+                new SimpleMeterRegistry()).cachingCopyOf(objectMapper);
+        MedicalRecord record = record(1L, "Original", UPDATED_AT);
+        uncached.writeValueAsString(record);
+        record.setName("Renamed");
+        assertThat(uncached.writeValueAsString(record)).contains("\"Renamed\"");
+    }
+
+    @Test
+    @DisplayName("The application's mapper should not be changed")
+    void cachingCopyOf_shouldLeaveMapperUnchanged() throws Exception {
+        MedicalRecord record = record(1L, "Original", UPDATED_AT);
+        cachingMapper.writeValueAsString(record);
+        record.setName("Renamed");
+
+        assertThat(objectMapper.writeValueAsString(record)).contains("\"Renamed\"");
+    }
+
+    private static MedicalRecord record(Long id, String name, LocalDateTime updatedAt) {
+        return new MedicalRecord(id, name, 42, "History", "owner-a", "owner-a", "owner-a",
+                updatedAt != null ? updatedAt.minusDays(1) : null, updatedAt, false);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.medicalregister.view;
+
+import com.example.medicalregister.dto.RecordFilter;
+import com.example.medicalregister.service.RecordChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecordsTableCache Tests")
+/**
+ * Unit tests for {@link RecordsTableCache}: hits per owner and page,
+ * invalidation on writes and the render metrics.
+ */
+class RecordsTableCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 3, Sort.by("name"));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecordsTableCache cache = new RecordsTableCache(true, Duration.ofMinutes(5), 10_000, registry);
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    @DisplayName("The same owner and page should be rendered once, and the saved time counted")
+    void get_samePage_shouldRenderOnce() {
+        assertThat(cache.get(cache.key("owner-a", FIRST_PAGE), renderer("table"))).isEqualTo("table");
+        assertThat(cache.get(cache.key("owner-a", FIRST_PAGE), renderer("other"))).isEqualTo("table");
+
+        assertThat(renders).hasValue(1);
+        assertThat(registry.get("medical_records.table.render").timer().count()).isEqualTo(1);
+        assertThat(registry.get("medical_records.table.render.saved").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Other owners, pages, sort orders and filters should be cached separately")
+    void get_otherOwnerPageOrSort_shouldRenderAgain() {
+        cache.get(cache.key("owner-a", FIRST_PAGE), renderer("table"));
+        cache.get(cache.key("owner-b", FIRST_PAGE), renderer("table"));
+        cache.get(cache.key("owner-a", PageRequest.of(1, 3, Sort.by("name"))), renderer("table"));
+        cache.get(cache.key("owner-a", PageRequest.of(0, 3, Sort.by("age"))), renderer("table"));
+        cache.get(cache.key("owner-a", FIRST_PAGE, new RecordFilter(18, null, null, null, null, null, null)),
+                renderer("table"));
+
+        assertThat(renders).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("A write should invalidate only the owner's cached tables")
+    void onRecordChanged_shouldInvalidateOwnersTables() {
+        cache.get(cache.key("owner-a", FIRST_PAGE), renderer("before"));
+        cache.get(cache.key("owner-b", FIRST_PAGE), renderer("before"));
+
+        cache.onRecordChanged(new RecordChangedEvent("owner-a"));
+
+        assertThat(cache.get(cache.key("owner-a", FIRST_PAGE), renderer("after"))).isEqualTo("after");
+        assertThat(cache.get(cache.key("owner-b", FIRST_PAGE), renderer("after"))).isEqualTo("before");
+    }
+
+    @Test
+    @DisplayName("A table rendered from a key read before the commit should not be served after it")
+    void onRecordChangeCompleted_shouldInvalidateTablesRenderedBeforeCommit() {
+        cache.onRecordChanged(new RecordChangedEvent("owner-a"));
+        RecordsTableCache.Key keyBeforeCommit = cache.key("owner-a", FIRST_PAGE);
+        cache.get(keyBeforeCommit, renderer("uncommitted"));
+
+        cache.onRecordChangeCompleted(new RecordChangedEvent("owner-a"));
+
+        assertThat(cache.get(cache.key("owner-a", FIRST_PAGE), renderer("committed"))).isEqualTo("committed");
+    }
+
+    @Test
+    @DisplayName("When disabled, every table should be rendered")
+    void get_disabled_shouldAlwaysRender() {
+        RecordsTableCache disabled = new RecordsTableCache(false, Duration.ofMinutes(5), 10_000, registry);
+
+        disabled.get(disabled.key("owner-a", FIRST_PAGE), renderer("table"));
+        disabled.get(disabled.key("owner-a", FIRST_PAGE), renderer("table"));
+
+        assertThat(renders).hasValue(2);
+    }
+
+    private Supplier<String> renderer(String html) {
+        return () -> {
+            renders.incrementAndGet();
+            return html;
+        };
+    }
+}